@@ -0,0 +1,97 @@
+package com.selectivem.check;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures end-to-end privilege evaluations on a workload synthesized by AccessControlWorkload: for each request, a check table
+ * with the requested indices as rows and the requested actions as columns is created; then, the rules of the roles of the user
+ * are applied until the table is complete. If the table does not get complete, the indices with missing privileges are
+ * determined, as a search engine would do to reduce the request to the permitted indices.
+ *
+ * Each invocation evaluates one request; the requests are cycled through. The benchmark runs in two modes: Throughput gives the
+ * evaluations per millisecond; SampleTime gives the latency distribution, including the p0.99 percentile.
+ *
+ * Parameters:
+ * <ul>
+ * <li>indexCount: the size of the index universe.
+ * <li>roleCount: the number of roles defined; each request is evaluated with 1 to 3 of these.
+ * <li>requestShape: "mixed" or one of "single_index", "bulk", "wildcard" and "alias", see AccessControlWorkload.
+ * </ul>
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+public class AccessControlBenchmark {
+
+    static final int REQUEST_COUNT = 1024;
+
+    @Param({ "200", "5000" })
+    public int indexCount;
+
+    @Param({ "20", "200" })
+    public int roleCount;
+
+    @Param({ "mixed", "single_index", "bulk", "wildcard", "alias" })
+    public String requestShape;
+
+    private AccessControlWorkload.Request[] requests;
+    private int pos;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        AccessControlWorkload workload = new AccessControlWorkload(random, indexCount, roleCount);
+        List<AccessControlWorkload.Request> requests = workload.requests(random, requestShape, REQUEST_COUNT);
+        this.requests = requests.toArray(new AccessControlWorkload.Request[0]);
+    }
+
+    @Benchmark
+    public Object evaluate() {
+        return evaluate(requests[nextPos()]);
+    }
+
+    /**
+     * Returns an empty set if the request is fully permitted; otherwise, returns the indices which lack privileges for at least
+     * one of the requested actions.
+     */
+    static Set<String> evaluate(AccessControlWorkload.Request request) {
+        CheckTable<String, String> table = CheckTable.create(request.indices, request.actions);
+
+        for (AccessControlWorkload.Role role : request.roles) {
+            for (AccessControlWorkload.Rule rule : role.rules) {
+                if (table.checkIf(rule.indexPredicate, rule.actionPredicate)) {
+                    return Collections.emptySet();
+                }
+            }
+        }
+
+        return table.getIncompleteRows();
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+
+    private int nextPos() {
+        int result = pos + 1;
+
+        if (result >= requests.length) {
+            result = 0;
+        }
+
+        this.pos = result;
+        return result;
+    }
+}
@@ -0,0 +1,339 @@
+package com.selectivem.check;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Synthesizes a workload that resembles the privilege evaluation of a search engine, which is the main use case of CheckTable:
+ * <ul>
+ * <li>An index universe with date-suffixed names like "logs-frontend-eu-west-2024.03.17" and aliases which group these by
+ * application and by date.
+ * <li>A set of action names like "indices:data/read/search".
+ * <li>Roles, each with a list of rules. A rule grants the actions matching its action patterns on the indices matching its index
+ * patterns. Patterns may contain wildcards or name aliases.
+ * <li>Requests with different shapes: a single index, bulk requests on a couple of indices, wildcard and alias expressions
+ * which expand to many indices.
+ * </ul>
+ *
+ * All data is derived from the given Random instance; thus, the same seed yields the same workload.
+ */
+class AccessControlWorkload {
+
+    static final String[] APPS = { "frontend", "backend", "payment", "search", "gateway", "auth", "billing", "audit" };
+    static final String[] REGIONS = { "eu-west", "eu-central", "us-east", "us-west", "ap-south" };
+
+    static final String[] ACTIONS = { "indices:data/read/search", "indices:data/read/get", "indices:data/read/mget",
+            "indices:data/read/msearch", "indices:data/read/scroll", "indices:data/read/field_caps", "indices:data/write/index",
+            "indices:data/write/bulk", "indices:data/write/delete", "indices:data/write/update", "indices:admin/create",
+            "indices:admin/delete", "indices:admin/mapping/put", "indices:admin/refresh", "indices:admin/settings/update",
+            "indices:admin/aliases", "indices:monitor/stats", "indices:monitor/recovery", "indices:monitor/settings/get" };
+
+    static final String[] READ_ACTIONS = Arrays.copyOfRange(ACTIONS, 0, 6);
+    static final String[] WRITE_ACTIONS = Arrays.copyOfRange(ACTIONS, 6, 10);
+
+    static final String[] ACTION_PATTERNS = { "indices:data/read/*", "indices:data/read/*", "indices:data/read/*", "indices:data/write/*",
+            "indices:admin/*", "indices:monitor/*", "*" };
+
+    static final List<String> REQUEST_SHAPES = Collections.unmodifiableList(Arrays.asList("single_index", "bulk", "wildcard", "alias"));
+
+    final List<String> indices;
+    final Map<String, Set<String>> aliases;
+    final Set<String> actions;
+    final List<Role> roles;
+
+    /**
+     * Creates a workload with indexCount indices and roleCount roles. The indices cover all combinations of prefix, application
+     * and region for as many consecutive days as needed.
+     */
+    AccessControlWorkload(Random random, int indexCount, int roleCount) {
+        this.indices = Collections.unmodifiableList(indices(indexCount));
+        this.aliases = Collections.unmodifiableMap(aliases(indices));
+        this.actions = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(ACTIONS)));
+
+        List<Role> roles = new ArrayList<>(roleCount);
+
+        for (int i = 0; i < roleCount; i++) {
+            roles.add(role(random, "role_" + i));
+        }
+
+        this.roles = Collections.unmodifiableList(roles);
+    }
+
+    /**
+     * Creates count requests; the shape is either one of REQUEST_SHAPES or "mixed", which picks the shape of each request
+     * randomly, with single index requests being the most frequent ones.
+     */
+    List<Request> requests(Random random, String shape, int count) {
+        List<Request> result = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            result.add(request(random, shape.equals("mixed") ? mixedShape(random) : shape));
+        }
+
+        return result;
+    }
+
+    Request request(Random random, String shape) {
+        Set<String> requestedIndices = new LinkedHashSet<>();
+        Set<String> requestedActions = new LinkedHashSet<>();
+
+        if (shape.equals("single_index")) {
+            requestedIndices.add(pick(random, indices));
+            requestedActions.add(pick(random, READ_ACTIONS));
+        } else if (shape.equals("bulk")) {
+            int size = 2 + random.nextInt(19);
+
+            while (requestedIndices.size() < size) {
+                requestedIndices.add(pick(random, indices));
+            }
+
+            requestedActions.add("indices:data/write/bulk");
+            requestedActions.add(pick(random, WRITE_ACTIONS));
+        } else if (shape.equals("wildcard")) {
+            String pattern = random.nextBoolean() ? "logs-" + pick(random, APPS) + "-*" : "*-" + pick(random, REGIONS) + "-*";
+
+            for (String index : indices) {
+                if (matches(pattern, index)) {
+                    requestedIndices.add(index);
+                }
+            }
+
+            requestedActions.add("indices:data/read/search");
+            requestedActions.add(pick(random, READ_ACTIONS));
+        } else if (shape.equals("alias")) {
+            requestedIndices.addAll(aliases.get(pick(random, new ArrayList<>(aliases.keySet()))));
+            requestedActions.add(pick(random, READ_ACTIONS));
+        } else {
+            throw new IllegalArgumentException("Unknown request shape: " + shape);
+        }
+
+        if (requestedIndices.isEmpty()) {
+            requestedIndices.add(indices.get(0));
+        }
+
+        int roleCount = 1 + random.nextInt(3);
+        List<Role> requestRoles = new ArrayList<>(roleCount);
+
+        for (int i = 0; i < roleCount; i++) {
+            requestRoles.add(pick(random, roles));
+        }
+
+        return new Request(requestedIndices, requestedActions, requestRoles);
+    }
+
+    Role role(Random random, String name) {
+        int ruleCount = 1 + random.nextInt(4);
+        List<Rule> rules = new ArrayList<>(ruleCount);
+
+        for (int i = 0; i < ruleCount; i++) {
+            int indexPatternCount = 1 + random.nextInt(3);
+            List<String> indexPatterns = new ArrayList<>(indexPatternCount);
+            Set<String> aliasMembers = new LinkedHashSet<>();
+
+            for (int k = 0; k < indexPatternCount; k++) {
+                String pattern = indexPattern(random);
+                Set<String> members = aliases.get(pattern);
+
+                if (members != null) {
+                    aliasMembers.addAll(members);
+                } else {
+                    indexPatterns.add(pattern);
+                }
+            }
+
+            List<String> actionPatterns = new ArrayList<>(2);
+            actionPatterns.add(pick(random, ACTION_PATTERNS));
+
+            if (random.nextInt(3) == 0) {
+                actionPatterns.add(pick(random, ACTIONS));
+            }
+
+            rules.add(new Rule(indexPatterns.toArray(new String[0]), aliasMembers, actionPatterns.toArray(new String[0])));
+        }
+
+        return new Role(name, rules);
+    }
+
+    String indexPattern(Random random) {
+        switch (random.nextInt(8)) {
+        case 0:
+        case 1:
+            return "logs-" + pick(random, APPS) + "-*";
+        case 2:
+            return "*-" + pick(random, REGIONS) + "-*";
+        case 3:
+            return "logs-" + pick(random, APPS) + "-" + pick(random, REGIONS) + "-*";
+        case 4:
+            return pick(random, indices);
+        case 5:
+        case 6:
+            return pick(random, new ArrayList<>(aliases.keySet()));
+        default:
+            return random.nextInt(4) == 0 ? "*" : "metrics-*";
+        }
+    }
+
+    static String mixedShape(Random random) {
+        int r = random.nextInt(100);
+
+        if (r < 40) {
+            return "single_index";
+        } else if (r < 60) {
+            return "bulk";
+        } else if (r < 85) {
+            return "wildcard";
+        } else {
+            return "alias";
+        }
+    }
+
+    static List<String> indices(int count) {
+        List<String> result = new ArrayList<>(count);
+        String[] prefixes = { "logs", "metrics" };
+
+        for (int day = 0; result.size() < count; day++) {
+            String date = String.format("2024.%02d.%02d", day / 28 % 12 + 1, day % 28 + 1);
+
+            for (String prefix : prefixes) {
+                for (String app : APPS) {
+                    for (String region : REGIONS) {
+                        if (result.size() < count) {
+                            result.add(prefix + "-" + app + "-" + region + "-" + date);
+                        }
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Creates one alias per application and prefix (like "logs-frontend") and one alias per month (like "logs-2024.03").
+     */
+    static Map<String, Set<String>> aliases(List<String> indices) {
+        Map<String, Set<String>> result = new LinkedHashMap<>();
+
+        for (String index : indices) {
+            String[] parts = index.split("-");
+            String date = parts[parts.length - 1];
+
+            result.computeIfAbsent(parts[0] + "-" + parts[1], (k) -> new LinkedHashSet<>()).add(index);
+            result.computeIfAbsent(parts[0] + "-" + date.substring(0, 7), (k) -> new LinkedHashSet<>()).add(index);
+        }
+
+        return result;
+    }
+
+    /**
+     * Simple pattern matching, which only supports "*" as wildcard for any number of characters.
+     */
+    static boolean matches(String pattern, String value) {
+        int p = 0;
+        int v = 0;
+        int starP = -1;
+        int starV = -1;
+
+        while (v < value.length()) {
+            if (p < pattern.length() && pattern.charAt(p) == '*') {
+                starP = p++;
+                starV = v;
+            } else if (p < pattern.length() && pattern.charAt(p) == value.charAt(v)) {
+                p++;
+                v++;
+            } else if (starP != -1) {
+                p = starP + 1;
+                v = ++starV;
+            } else {
+                return false;
+            }
+        }
+
+        while (p < pattern.length() && pattern.charAt(p) == '*') {
+            p++;
+        }
+
+        return p == pattern.length();
+    }
+
+    static <E> E pick(Random random, List<E> list) {
+        return list.get(random.nextInt(list.size()));
+    }
+
+    static <E> E pick(Random random, E[] array) {
+        return array[random.nextInt(array.length)];
+    }
+
+    static class Role {
+        final String name;
+        final List<Rule> rules;
+
+        Role(String name, List<Rule> rules) {
+            this.name = name;
+            this.rules = Collections.unmodifiableList(rules);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    static class Rule {
+        final String[] indexPatterns;
+        final Set<String> aliasMembers;
+        final String[] actionPatterns;
+        final Predicate<String> indexPredicate = this::matchesIndex;
+        final Predicate<String> actionPredicate = this::matchesAction;
+
+        Rule(String[] indexPatterns, Set<String> aliasMembers, String[] actionPatterns) {
+            this.indexPatterns = indexPatterns;
+            this.aliasMembers = aliasMembers;
+            this.actionPatterns = actionPatterns;
+        }
+
+        boolean matchesIndex(String index) {
+            if (aliasMembers.contains(index)) {
+                return true;
+            }
+
+            for (String pattern : indexPatterns) {
+                if (matches(pattern, index)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        boolean matchesAction(String action) {
+            for (String pattern : actionPatterns) {
+                if (matches(pattern, action)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+
+    static class Request {
+        final Set<String> indices;
+        final Set<String> actions;
+        final List<Role> roles;
+
+        Request(Set<String> indices, Set<String> actions, List<Role> roles) {
+            this.indices = Collections.unmodifiableSet(indices);
+            this.actions = Collections.unmodifiableSet(actions);
+            this.roles = Collections.unmodifiableList(roles);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.selectivem.check;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building IndexedUnmodifiableSet instances and looking up elements in these, for all backing implementations. The
+ * results are meant to provide the data for the size thresholds used by IndexedUnmodifiableSet.of().
+ *
+ * Parameters:
+ * <ul>
+ * <li>implementation: "default" uses IndexedUnmodifiableSet.of(); "hash_array_N" starts with a HashArrayBackedSet with a table of
+ * N slots, which grows by itself if there are too many collisions. "hash_set" is a java.util.HashSet as reference.
+ * <li>keyType: "short_string" like "a17", "index_name" like "logs-frontend-eu-west-2024.03.17-000002", "integer".
+ * <li>collisions: "none" uses the keys as they are; "pairs" creates pairs of strings with the same hash code (by appending "Aa"
+ * and "BB"). For integers, "pairs" uses multiples of 4096, which only differ in the upper bits. With "pairs", "perfect_hash" 
+ * chains the second string of each pair to the first one; compare it with "set_backed", which IndexedUnmodifiableSet.of() used
+ * as fallback before PerfectHashBackedSet supported equal hash codes.
+ * </ul>
+ *
+ * Not all combinations are meaningful: ArrayBackedSet does linear scans and is only meant for small sizes. Use -p to select the
+ * combinations of interest, like -p size=4,8,16 -p implementation=array,hash_array_16.
+ */
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+public class BackingCollectionsBenchmark {
+
+    @Param({ "4", "8", "40", "200", "800", "5000" })
+    public int size;
+
+    @Param({ "default", "array", "hash_array_16", "hash_array_64", "hash_array_256", "hash_array_1024", "set_backed", "perfect_hash",
+            "hash_set" })
+    public String implementation;
+
+    @Param({ "short_string", "index_name", "integer" })
+    public String keyType;
+
+    @Param({ "none", "pairs" })
+    public String collisions;
+
+    private Set<Object> elements;
+    private Set<Object> subject;
+    private BackingCollections.IndexedUnmodifiableSet<Object> indexedSubject;
+    private Object[] hits;
+    private Object[] misses;
+    private int pos;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        Random random = new Random(1);
+        List<Object> keys = keys(random, 2 * size);
+        this.elements = new LinkedHashSet<>(keys.subList(0, size));
+
+        this.subject = createSet();
+        this.indexedSubject = subject instanceof BackingCollections.IndexedUnmodifiableSet
+                ? (BackingCollections.IndexedUnmodifiableSet<Object>) subject
+                : null;
+
+        List<Object> hits = new ArrayList<>(elements);
+        Collections.shuffle(hits, random);
+        this.hits = hits.toArray();
+
+        List<Object> misses = new ArrayList<>(keys.subList(size, keys.size()));
+        Collections.shuffle(misses, random);
+        this.misses = misses.toArray();
+    }
+
+    @Benchmark
+    public Object build() {
+        return createSet();
+    }
+
+    @Benchmark
+    public int elementToIndex_hit() {
+        return elementToIndex(hits[nextPos(hits.length)]);
+    }
+
+    @Benchmark
+    public int elementToIndex_miss() {
+        return elementToIndex(misses[nextPos(misses.length)]);
+    }
+
+    @Benchmark
+    public boolean contains_hit() {
+        return subject.contains(hits[nextPos(hits.length)]);
+    }
+
+    @Benchmark
+    public boolean contains_miss() {
+        return subject.contains(misses[nextPos(misses.length)]);
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+
+    private Set<Object> createSet() {
+        if (implementation.equals("default")) {
+            return BackingCollections.IndexedUnmodifiableSet.of(elements);
+        } else if (implementation.equals("array")) {
+            return new BackingCollections.ArrayBackedSet<>(elements);
+        } else if (implementation.startsWith("hash_array_")) {
+            BackingCollections.IndexedUnmodifiableSet.InternalBuilder<Object> builder = new BackingCollections.HashArrayBackedSet.Builder<>(
+                    Integer.parseInt(implementation.substring("hash_array_".length())));
+
+            for (Object e : elements) {
+                builder = builder.with(e);
+            }
+
+            return builder.build();
+        } else if (implementation.equals("set_backed")) {
+            return new BackingCollections.SetBackedSet.Builder<>(elements).build();
+        } else if (implementation.equals("perfect_hash")) {
+            return BackingCollections.PerfectHashBackedSet.build(elements.toArray());
+        } else if (implementation.equals("hash_set")) {
+            return new HashSet<>(elements);
+        } else {
+            throw new IllegalArgumentException("Unknown implementation: " + implementation);
+        }
+    }
+
+    private int elementToIndex(Object e) {
+        if (indexedSubject != null) {
+            return indexedSubject.elementToIndex(e);
+        } else {
+            // A HashSet does not provide indices; contains() is the closest equivalent
+            return subject.contains(e) ? 0 : -1;
+        }
+    }
+
+    private int nextPos(int length) {
+        int result = pos + 1;
+
+        if (result >= length) {
+            result = 0;
+        }
+
+        this.pos = result;
+        return result;
+    }
+
+    private List<Object> keys(Random random, int count) {
+        Set<Object> result = new LinkedHashSet<>(count);
+
+        if (keyType.equals("integer")) {
+            while (result.size() < count) {
+                int i = random.nextInt(Integer.MAX_VALUE);
+                result.add(collisions.equals("pairs") ? i << 12 : i);
+            }
+        } else {
+            List<String> base = keyType.equals("index_name") ? new ArrayList<>(HashArrayBackedSetBenchmark.indexNames(random, count))
+                    : shortStrings(random, count);
+
+            for (String s : base) {
+                if (collisions.equals("pairs")) {
+                    // "Aa" and "BB" have the same hash code; thus, both keys of each pair have the same hash code
+                    result.add(s + "Aa");
+                    result.add(s + "BB");
+                } else {
+                    result.add(s);
+                }
+
+                if (result.size() >= count) {
+                    break;
+                }
+            }
+        }
+
+        List<Object> list = new ArrayList<>(result);
+        return list.subList(0, count);
+    }
+
+    private static List<String> shortStrings(Random random, int count) {
+        Set<String> result = new LinkedHashSet<>(count);
+
+        while (result.size() < count) {
+            result.add((char) ('a' + random.nextInt(26)) + Integer.toString(random.nextInt(count * 4)));
+        }
+
+        return new ArrayList<>(result);
+    }
+}
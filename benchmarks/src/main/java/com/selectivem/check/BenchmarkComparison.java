@@ -0,0 +1,342 @@
+/*
+ * Copyright 2024 Nils Bandener
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.selectivem.check;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH result files in JSON format, like a result of the current main branch (the baseline) and of a candidate
+ * build. For each benchmark and parameter combination present in both files, the primary scores and the relative change are
+ * printed. A change counts as significant if it exceeds the threshold (default: 5%) and the error intervals of both scores do
+ * not overlap.
+ *
+ * Returns 1 if there is at least one significant regression, 0 otherwise, and 2 for invalid arguments.
+ */
+class BenchmarkComparison {
+
+    static final double DEFAULT_THRESHOLD_PERCENT = 5;
+
+    static int run(String[] args, PrintStream out) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            out.println("Usage: compare <baseline.json> <candidate.json> [threshold percent]");
+            return 2;
+        }
+
+        double threshold = args.length == 3 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+
+        Map<String, Score> baseline = read(args[0]);
+        Map<String, Score> candidate = read(args[1]);
+        int regressions = 0;
+
+        out.printf("%-100s %22s %22s %9s%n", "Benchmark", "Baseline", "Candidate", "Change");
+
+        for (Map.Entry<String, Score> entry : baseline.entrySet()) {
+            Score base = entry.getValue();
+            Score cand = candidate.get(entry.getKey());
+
+            if (cand == null) {
+                out.printf("%-100s %22s %22s%n", entry.getKey(), base, "-");
+                continue;
+            }
+
+            double change = (cand.score - base.score) / base.score * 100;
+            String verdict = "";
+
+            if (Math.abs(change) > threshold && !base.overlaps(cand)) {
+                boolean better = base.higherIsBetter() ? change > 0 : change < 0;
+                verdict = better ? "  faster" : "  SLOWER";
+
+                if (!better) {
+                    regressions++;
+                }
+            }
+
+            out.printf("%-100s %22s %22s %+8.1f%%%s%n", entry.getKey(), base, cand, change, verdict);
+        }
+
+        for (Map.Entry<String, Score> entry : candidate.entrySet()) {
+            if (!baseline.containsKey(entry.getKey())) {
+                out.printf("%-100s %22s %22s%n", entry.getKey(), "-", entry.getValue());
+            }
+        }
+
+        out.println();
+        out.println(regressions == 0 ? "No significant regressions" : regressions + " significant regression(s)");
+
+        return regressions == 0 ? 0 : 1;
+    }
+
+    /**
+     * Reads a JMH result file and returns the primary scores by keys like "CheckTableBenchmark.isChecked [avgt] implementation=default
+     * shape=50x10".
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Score> read(String file) throws IOException {
+        Object json = new JsonParser(new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8)).parse();
+
+        if (!(json instanceof List)) {
+            throw new IOException(file + " does not contain a JMH result in JSON format");
+        }
+
+        Map<String, Score> result = new TreeMap<>();
+
+        for (Object element : (List<Object>) json) {
+            Map<String, Object> run = (Map<String, Object>) element;
+            String benchmark = (String) run.get("benchmark");
+            StringBuilder key = new StringBuilder(benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1));
+            key.append(" [").append(run.get("mode")).append("]");
+
+            if (run.get("params") instanceof Map) {
+                for (Map.Entry<String, Object> param : new TreeMap<>((Map<String, Object>) run.get("params")).entrySet()) {
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue());
+                }
+            }
+
+            Map<String, Object> primaryMetric = (Map<String, Object>) run.get("primaryMetric");
+            result.put(key.toString(), new Score((String) run.get("mode"), toDouble(primaryMetric.get("score")),
+                    toDouble(primaryMetric.get("scoreError")), (String) primaryMetric.get("scoreUnit")));
+        }
+
+        return result;
+    }
+
+    static double toDouble(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        } else if (value instanceof String) {
+            // JMH writes NaN as string
+            return Double.parseDouble((String) value);
+        } else {
+            return Double.NaN;
+        }
+    }
+
+    static class Score {
+        final String mode;
+        final double score;
+        final double error;
+        final String unit;
+
+        Score(String mode, double score, double error, String unit) {
+            this.mode = mode;
+            this.score = score;
+            this.error = Double.isNaN(error) ? 0 : error;
+            this.unit = unit;
+        }
+
+        boolean higherIsBetter() {
+            return mode.equals("thrpt");
+        }
+
+        boolean overlaps(Score other) {
+            return score - error <= other.score + other.error && other.score - other.error <= score + error;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.3f +- %.3f %s", score, error, unit);
+        }
+    }
+
+    /**
+     * Minimal JSON parser, which is sufficient for the result files written by JMH. Objects are returned as maps, arrays as
+     * lists, numbers as doubles.
+     */
+    static class JsonParser {
+        private final String json;
+        private int pos;
+
+        JsonParser(String json) {
+            this.json = json;
+        }
+
+        Object parse() throws IOException {
+            Object result = value();
+            skipWhitespace();
+
+            if (pos != json.length()) {
+                throw error("Unexpected content");
+            }
+
+            return result;
+        }
+
+        private Object value() throws IOException {
+            skipWhitespace();
+
+            if (pos >= json.length()) {
+                throw error("Unexpected end");
+            }
+
+            char c = json.charAt(pos);
+
+            if (c == '{') {
+                return object();
+            } else if (c == '[') {
+                return array();
+            } else if (c == '"') {
+                return string();
+            } else if (json.startsWith("true", pos)) {
+                pos += 4;
+                return Boolean.TRUE;
+            } else if (json.startsWith("false", pos)) {
+                pos += 5;
+                return Boolean.FALSE;
+            } else if (json.startsWith("null", pos)) {
+                pos += 4;
+                return null;
+            } else {
+                return number();
+            }
+        }
+
+        private Map<String, Object> object() throws IOException {
+            Map<String, Object> result = new LinkedHashMap<>();
+            pos++;
+            skipWhitespace();
+
+            if (json.charAt(pos) == '}') {
+                pos++;
+                return result;
+            }
+
+            while (true) {
+                skipWhitespace();
+                String key = string();
+                skipWhitespace();
+                expect(':');
+                result.put(key, value());
+                skipWhitespace();
+
+                if (json.charAt(pos) == ',') {
+                    pos++;
+                } else {
+                    expect('}');
+                    return result;
+                }
+            }
+        }
+
+        private List<Object> array() throws IOException {
+            List<Object> result = new ArrayList<>();
+            pos++;
+            skipWhitespace();
+
+            if (json.charAt(pos) == ']') {
+                pos++;
+                return result;
+            }
+
+            while (true) {
+                result.add(value());
+                skipWhitespace();
+
+                if (json.charAt(pos) == ',') {
+                    pos++;
+                } else {
+                    expect(']');
+                    return result;
+                }
+            }
+        }
+
+        private String string() throws IOException {
+            expect('"');
+            StringBuilder result = new StringBuilder();
+
+            while (pos < json.length()) {
+                char c = json.charAt(pos++);
+
+                if (c == '"') {
+                    return result.toString();
+                } else if (c == '\\') {
+                    char escaped = json.charAt(pos++);
+
+                    switch (escaped) {
+                    case 'n':
+                        result.append('\n');
+                        break;
+                    case 't':
+                        result.append('\t');
+                        break;
+                    case 'r':
+                        result.append('\r');
+                        break;
+                    case 'b':
+                        result.append('\b');
+                        break;
+                    case 'f':
+                        result.append('\f');
+                        break;
+                    case 'u':
+                        result.append((char) Integer.parseInt(json.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default:
+                        result.append(escaped);
+                    }
+                } else {
+                    result.append(c);
+                }
+            }
+
+            throw error("Unterminated string");
+        }
+
+        private Double number() throws IOException {
+            int start = pos;
+
+            while (pos < json.length() && "+-0123456789.eE".indexOf(json.charAt(pos)) != -1) {
+                pos++;
+            }
+
+            try {
+                return Double.valueOf(json.substring(start, pos));
+            } catch (NumberFormatException e) {
+                throw error("Invalid value");
+            }
+        }
+
+        private void expect(char c) throws IOException {
+            if (pos >= json.length() || json.charAt(pos) != c) {
+                throw error("Expected '" + c + "'");
+            }
+
+            pos++;
+        }
+
+        private void skipWhitespace() {
+            while (pos < json.length() && Character.isWhitespace(json.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private IOException error(String message) {
+            return new IOException(message + " at position " + pos);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2024 Nils Bandener
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.selectivem.check;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Main class of the benchmark jar. Usage:
+ *
+ * <pre>
+ * java -jar benchmarks.jar [JMH options] [benchmark regex]
+ * java -jar benchmarks.jar compare baseline.json candidate.json [threshold percent]
+ * </pre>
+ *
+ * The first form runs the JMH benchmarks; all JMH options are supported, like -p size=20,1000 to select parameter values. Unless
+ * another result format is given with -rf, the results are written as JSON to jmh-result.json (or the file given with -rff).
+ *
+ * The second form compares two such result files, see BenchmarkComparison.
+ */
+public class Benchmarks {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("compare")) {
+            System.exit(BenchmarkComparison.run(Arrays.copyOfRange(args, 1, args.length), System.out));
+        }
+
+        List<String> jmhArgs = new ArrayList<>(Arrays.asList(args));
+
+        if (!jmhArgs.contains("-rf")) {
+            jmhArgs.add("-rf");
+            jmhArgs.add("json");
+        }
+
+        org.openjdk.jmh.Main.main(jmhArgs.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,95 @@
+package com.selectivem.check;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates a check list, checks every second element and then checks the remaining elements by iterating through the unchecked
+ * elements.
+ *
+ * Parameters:
+ * <ul>
+ * <li>size: the number of elements.
+ * <li>implementation: "default" uses CheckList.create(), which picks the implementation by size; "array" and "hash_map" use
+ * ArrayCheckList and HashMapCheckList regardless of the size.
+ * </ul>
+ */
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+public class CheckListBenchmark {
+
+    @Param({ "2", "20", "100", "200", "500" })
+    public int size;
+
+    @Param({ "default", "array", "hash_map" })
+    public String implementation;
+
+    private Set<String> elements;
+    private Set<String> evenElements;
+
+    @Setup
+    public void setup() {
+        this.elements = testSet(size);
+        this.evenElements = testSetEven(size);
+    }
+
+    @Benchmark
+    public Object checkEvenThenRest() {
+        CheckList<String> subject = createCheckList();
+
+        for (String e : evenElements) {
+            subject.check(e);
+        }
+
+        for (String e : subject.iterateUncheckedElements()) {
+            subject.check(e);
+        }
+
+        return subject;
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+
+    private CheckList<String> createCheckList() {
+        if (implementation.equals("default")) {
+            return CheckList.create(elements);
+        } else if (implementation.equals("array")) {
+            return new CheckListImpl.ArrayCheckList<>(elements, "element");
+        } else if (implementation.equals("hash_map")) {
+            return new CheckListImpl.HashMapCheckList<>(elements, "element");
+        } else {
+            throw new IllegalArgumentException("Unknown implementation: " + implementation);
+        }
+    }
+
+    static Set<String> testSet(int size) {
+        HashSet<String> result = new HashSet<>();
+
+        for (int i = 0; i < size; i++) {
+            result.add("s_" + i);
+        }
+
+        return result;
+    }
+
+    static Set<String> testSetEven(int size) {
+        HashSet<String> result = new HashSet<>();
+
+        for (int i = 0; i < size; i+=2) {
+            result.add("s_" + i);
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,97 @@
+package com.selectivem.check;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Measures the single operations on an existing check list. In contrast to CheckListBenchmark, the check lists are created only
+ * once; thus, the results only contain the costs of the operations themselves. The sizes 2, 20 and 1000 correspond to
+ * TwoElementCheckList, ArrayCheckList and HashMapCheckList.
+ */
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+public class CheckListOperationsBenchmark {
+
+    @Param({ "2", "20", "1000" })
+    public int size;
+
+    private String[] elements;
+    private CheckList<String> subject;
+    private CheckList<String> partiallyChecked;
+    private Predicate<String> even;
+    private int pos;
+
+    @Setup
+    public void setup() {
+        Set<String> elementSet = CheckListBenchmark.testSet(size);
+        Set<String> evenSet = CheckListBenchmark.testSetEven(size);
+
+        this.elements = elementSet.toArray(new String[0]);
+        this.even = new HashSet<>(evenSet)::contains;
+        this.subject = CheckList.create(elementSet);
+        this.partiallyChecked = CheckList.create(elementSet);
+
+        for (String e : evenSet) {
+            partiallyChecked.check(e);
+        }
+    }
+
+    @Benchmark
+    public boolean check_uncheck() {
+        String element = elements[nextPos()];
+
+        boolean result = subject.check(element);
+        subject.uncheck(element);
+        return result;
+    }
+
+    @Benchmark
+    public boolean checkIf_uncheckIf() {
+        boolean result = subject.checkIf(even);
+        subject.uncheckIf(even);
+        return result;
+    }
+
+    @Benchmark
+    public boolean isChecked() {
+        return partiallyChecked.isChecked(elements[nextPos()]);
+    }
+
+    @Benchmark
+    public boolean isComplete() {
+        return partiallyChecked.isComplete();
+    }
+
+    @Benchmark
+    public void iterateUncheckedElements(Blackhole blackhole) {
+        for (String e : partiallyChecked.iterateUncheckedElements()) {
+            blackhole.consume(e);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+
+    private int nextPos() {
+        int result = pos + 1;
+
+        if (result >= elements.length) {
+            result = 0;
+        }
+
+        this.pos = result;
+        return result;
+    }
+}
@@ -0,0 +1,238 @@
+package com.selectivem.check;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Measures the single operations of the check table implementations on typical table shapes. The shapes are given as
+ * rows x columns. The implementation "default" uses CheckTable.create(), which picks SingleRowCheckTable and
+ * SingleColumnCheckTable for the shapes 1x100 and 100x1 and ArrayCheckTable for the others; "bit_storage" and "sparse" use
+ * BitStorageCheckTable with the respective storage regardless of the shape.
+ *
+ * The benchmarks on the subject table leave the table in the state they found it in; thus, each invocation measures the
+ * same work. The read-only benchmarks use a second table, which is partially checked: all cells of every second row, and
+ * the first half of the columns of the other rows.
+ */
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+public class CheckTableBenchmark {
+
+    @Param({ "1x100", "100x1", "50x10", "5000x40" })
+    public String shape;
+
+    @Param({ "default", "bit_storage", "sparse" })
+    public String implementation;
+
+    private Set<String> rows;
+    private Set<String> columns;
+    private String[] rowArray;
+    private String[] columnArray;
+    private CheckTable<String, String> subject;
+    private CheckTable<String, String> partiallyChecked;
+    private Predicate<String> evenColumns;
+    private Predicate<String> evenRows;
+    private int pos;
+
+    @Setup
+    public void setup() {
+        String[] dimensions = shape.split("x");
+        this.rows = elements("index_", Integer.parseInt(dimensions[0]));
+        this.columns = elements("action_", Integer.parseInt(dimensions[1]));
+        this.rowArray = rows.toArray(new String[0]);
+        this.columnArray = columns.toArray(new String[0]);
+
+        Set<String> evenColumnSet = new LinkedHashSet<>();
+
+        for (int i = 0; i < columnArray.length; i += 2) {
+            evenColumnSet.add(columnArray[i]);
+        }
+
+        Set<String> evenRowSet = new LinkedHashSet<>();
+
+        for (int i = 0; i < rowArray.length; i += 2) {
+            evenRowSet.add(rowArray[i]);
+        }
+
+        this.evenColumns = evenColumnSet::contains;
+        this.evenRows = evenRowSet::contains;
+
+        this.subject = createTable();
+        this.partiallyChecked = createTable();
+
+        for (int i = 0; i < rowArray.length; i++) {
+            if (i % 2 == 0) {
+                partiallyChecked.checkIf(rowArray[i], (c) -> true);
+            } else {
+                for (int k = 0; k < columnArray.length / 2; k++) {
+                    partiallyChecked.check(rowArray[i], columnArray[k]);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean check_uncheck() {
+        String row = rowArray[nextPos() % rowArray.length];
+        String column = columnArray[pos % columnArray.length];
+
+        boolean result = subject.check(row, column);
+        subject.uncheck(row, column);
+        return result;
+    }
+
+    @Benchmark
+    public boolean isChecked() {
+        return partiallyChecked.isChecked(rowArray[nextPos() % rowArray.length], columnArray[pos % columnArray.length]);
+    }
+
+    @Benchmark
+    public boolean isComplete() {
+        return partiallyChecked.isComplete();
+    }
+
+    @Benchmark
+    public boolean checkIf_row() {
+        String row = rowArray[nextPos() % rowArray.length];
+
+        boolean result = subject.checkIf(row, evenColumns);
+        subject.uncheckRow(row);
+        return result;
+    }
+
+    @Benchmark
+    public boolean checkColumnsOfRow() {
+        String row = rowArray[nextPos() % rowArray.length];
+        boolean result = false;
+
+        for (String column : columnArray) {
+            result = subject.check(row, column);
+        }
+
+        subject.uncheckRow(row);
+        return result;
+    }
+
+    @Benchmark
+    public boolean checkColumnsOfRow_rowHandle() {
+        String row = rowArray[nextPos() % rowArray.length];
+        CheckTable.Row<String, String> handle = subject.row(row);
+        boolean result = false;
+
+        for (String column : columnArray) {
+            result = handle.check(column);
+        }
+
+        subject.uncheckRow(row);
+        return result;
+    }
+
+    @Benchmark
+    public boolean checkIf_column() {
+        String column = columnArray[nextPos() % columnArray.length];
+
+        boolean result = subject.checkIf(evenRows, column);
+        subject.uncheckIf((r) -> true, column);
+        return result;
+    }
+
+    @Benchmark
+    public boolean checkIf_rowAndColumnPredicates() {
+        boolean result = subject.checkIf(evenRows, evenColumns);
+        subject.uncheckAll();
+        return result;
+    }
+
+    @Benchmark
+    public boolean checkIf_allRows() {
+        boolean result = subject.checkIf(rows, evenColumns);
+        subject.uncheckAll();
+        return result;
+    }
+
+    @Benchmark
+    public void getIncompleteRows(Blackhole blackhole) {
+        for (String row : partiallyChecked.getIncompleteRows()) {
+            blackhole.consume(row);
+        }
+    }
+
+    @Benchmark
+    public void getCompleteColumns(Blackhole blackhole) {
+        for (String column : partiallyChecked.getCompleteColumns()) {
+            blackhole.consume(column);
+        }
+    }
+
+    @Benchmark
+    public void iterateUncheckedColumns(Blackhole blackhole) {
+        for (String column : partiallyChecked.iterateUncheckedColumns(rowArray[nextPos() % rowArray.length])) {
+            blackhole.consume(column);
+        }
+    }
+
+    @Benchmark
+    public void iterateCheckedRows(Blackhole blackhole) {
+        for (String row : partiallyChecked.iterateCheckedRows(columnArray[nextPos() % columnArray.length])) {
+            blackhole.consume(row);
+        }
+    }
+
+    @Benchmark
+    public String toTableString() {
+        return partiallyChecked.toTableString();
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+
+    private int nextPos() {
+        int result = pos + 1;
+
+        if (result < 0) {
+            result = 0;
+        }
+
+        this.pos = result;
+        return result;
+    }
+
+    private CheckTable<String, String> createTable() {
+        if ("default".equals(implementation)) {
+            return CheckTable.create(rows, columns);
+        }
+
+        BackingCollections.IndexedUnmodifiableSet<String> rowSet = BackingCollections.IndexedUnmodifiableSet.of(rows);
+        BackingCollections.IndexedUnmodifiableSet<String> columnSet = BackingCollections.IndexedUnmodifiableSet.of(columns);
+        long size = (long) rowSet.size() * (long) columnSet.size();
+
+        if ("bit_storage".equals(implementation)) {
+            return new CheckTableImpl.BitStorageCheckTable<>(rowSet, columnSet, new BitStorage.Segmented(size));
+        } else if ("sparse".equals(implementation)) {
+            return new CheckTableImpl.BitStorageCheckTable<>(rowSet, columnSet, new BitStorage.Sparse(size));
+        } else {
+            throw new IllegalArgumentException("Unknown implementation: " + implementation);
+        }
+    }
+
+    static Set<String> elements(String prefix, int size) {
+        Set<String> result = new LinkedHashSet<>(size);
+
+        for (int i = 0; i < size; i++) {
+            result.add(prefix + i);
+        }
+
+        return result;
+    }
+}
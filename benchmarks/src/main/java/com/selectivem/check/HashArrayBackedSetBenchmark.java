@@ -0,0 +1,122 @@
+package com.selectivem.check;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures index lookups in HashArrayBackedSet with long index names, which share long prefixes and mostly have the same length.
+ * This is the case where comparing the cached hash codes avoids most equals() calls on occupied slots.
+ */
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+public class HashArrayBackedSetBenchmark {
+
+    @Param({ "20", "150", "700" })
+    public int size;
+
+    private BackingCollections.IndexedUnmodifiableSet<String> hashArrayBackedSet;
+    private BackingCollections.IndexedUnmodifiableSet<String> setBackedSet;
+    private String[] hits;
+    private String[] misses;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        Set<String> indexNames = indexNames(random, size);
+
+        BackingCollections.IndexedUnmodifiableSet.InternalBuilder<String> builder = new BackingCollections.HashArrayBackedSet.Builder<>(1024,
+                size);
+
+        for (String indexName : indexNames) {
+            builder = builder.with(indexName);
+        }
+
+        this.hashArrayBackedSet = builder.build();
+        this.setBackedSet = new BackingCollections.SetBackedSet.Builder<>(indexNames).build();
+
+        List<String> hits = new ArrayList<>(indexNames);
+        Collections.shuffle(hits, random);
+        this.hits = hits.toArray(new String[0]);
+
+        List<String> misses = new ArrayList<>(indexNames(new Random(2), size));
+        misses.removeAll(indexNames);
+        this.misses = misses.toArray(new String[0]);
+    }
+
+    @Benchmark
+    public int hashArrayBackedSet_hit() {
+        int result = 0;
+
+        for (String e : hits) {
+            result += hashArrayBackedSet.elementToIndex(e);
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public int hashArrayBackedSet_miss() {
+        int result = 0;
+
+        for (String e : misses) {
+            result += hashArrayBackedSet.elementToIndex(e);
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public int setBackedSet_hit() {
+        int result = 0;
+
+        for (String e : hits) {
+            result += setBackedSet.elementToIndex(e);
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public int setBackedSet_miss() {
+        int result = 0;
+
+        for (String e : misses) {
+            result += setBackedSet.elementToIndex(e);
+        }
+
+        return result;
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+
+    /**
+     * Creates names like "logs-frontend-eu-west-2024.03.17-000002"; many of these have the same length and the same prefix.
+     */
+    static Set<String> indexNames(Random random, int size) {
+        String[] apps = { "frontend", "backend", "payment", "search", "gateway" };
+        String[] regions = { "eu-west", "eu-central", "us-east", "ap-south" };
+        Set<String> result = new LinkedHashSet<>(size);
+
+        while (result.size() < size) {
+            result.add(String.format("logs-%s-%s-2024.%02d.%02d-%06d", apps[random.nextInt(apps.length)], regions[random.nextInt(regions.length)],
+                    random.nextInt(12) + 1, random.nextInt(28) + 1, random.nextInt(3) + 1));
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,126 @@
+package com.selectivem.check;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the operations on check tables of different shapes through the same call sites. With "uniform", all tables have the
+ * shape 10x10; thus, the call sites only see a single implementation class. With "mixed", the tables have shapes which are
+ * backed by different implementations (single cell, single row and single column tables with different check list
+ * implementations, array tables). This shows the costs of megamorphic call sites, which the JIT cannot inline.
+ *
+ * Each invocation performs the operation once on each of the TABLE_COUNT tables.
+ */
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+public class MixedShapeBenchmark {
+
+    static final int TABLE_COUNT = 64;
+
+    static final String[] MIXED_SHAPES = { "1x1", "1x2", "1x10", "1x100", "2x1", "10x1", "100x1", "10x10" };
+
+    @Param({ "uniform", "mixed" })
+    public String shapes;
+
+    private CheckTable<String, String>[] tables;
+    private String[] rows;
+    private String[] columns;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        List<CheckTable<String, String>> tables = new ArrayList<>(TABLE_COUNT);
+        this.rows = new String[TABLE_COUNT];
+        this.columns = new String[TABLE_COUNT];
+
+        for (int i = 0; i < TABLE_COUNT; i++) {
+            String shape = shapes.equals("mixed") ? MIXED_SHAPES[i % MIXED_SHAPES.length] : "10x10";
+            String[] dimensions = shape.split("x");
+            Set<String> rowSet = CheckTableBenchmark.elements("index_", Integer.parseInt(dimensions[0]));
+            Set<String> columnSet = CheckTableBenchmark.elements("action_", Integer.parseInt(dimensions[1]));
+            CheckTable<String, String> table = CheckTable.create(rowSet, columnSet);
+
+            // Check half of the cells of the first column, so that the tables are neither blank nor complete
+            String[] rowArray = rowSet.toArray(new String[0]);
+            String[] columnArray = columnSet.toArray(new String[0]);
+
+            for (int k = 0; k < rowArray.length; k += 2) {
+                table.check(rowArray[k], columnArray[0]);
+            }
+
+            tables.add(table);
+            this.rows[i] = rowArray[rowArray.length - 1];
+            this.columns[i] = columnArray[columnArray.length - 1];
+        }
+
+        this.tables = tables.toArray(new CheckTable[0]);
+    }
+
+    @Benchmark
+    public int check_uncheck() {
+        int result = 0;
+
+        for (int i = 0; i < tables.length; i++) {
+            if (tables[i].check(rows[i], columns[i])) {
+                result++;
+            }
+
+            tables[i].uncheck(rows[i], columns[i]);
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public int isChecked() {
+        int result = 0;
+
+        for (int i = 0; i < tables.length; i++) {
+            if (tables[i].isChecked(rows[i], columns[i])) {
+                result++;
+            }
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public int isComplete() {
+        int result = 0;
+
+        for (int i = 0; i < tables.length; i++) {
+            if (tables[i].isComplete()) {
+                result++;
+            }
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public int checkIf_row() {
+        int result = 0;
+
+        for (int i = 0; i < tables.length; i++) {
+            if (tables[i].checkIf(rows[i], (c) -> false)) {
+                result++;
+            }
+        }
+
+        return result;
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2024 Nils Bandener
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.selectivem.check;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Runs the hot operations of CheckTableBenchmark and CheckListOperationsBenchmark with the JMH GC profiler and compares the
+ * allocated bytes per operation (gc.alloc.rate.norm) with the baseline in allocation-baseline.properties. The test fails if an
+ * operation allocates more than its baseline plus a small tolerance, which absorbs the measurement noise.
+ *
+ * As this takes a few minutes, the test only runs if the system property allocationCheck is set to true. Use the Maven profile
+ * allocation-check of the benchmarks module for this:
+ *
+ * <pre>
+ * mvn -f benchmarks/pom.xml test -Pallocation-check
+ * </pre>
+ *
+ * If the system property allocationCheck.record is set to true, the test does not compare the results, but writes them as a new
+ * baseline to target/allocation-baseline.properties.
+ */
+public class AllocationRegressionTest {
+
+    static final String BASELINE_RESOURCE = "/allocation-baseline.properties";
+    static final String ALLOC_RATE_NORM = "gc.alloc.rate.norm";
+
+    /**
+     * Absolute tolerance in bytes per operation; this is less than the size of the smallest object.
+     */
+    static final double ABSOLUTE_TOLERANCE = 8;
+
+    /**
+     * Relative tolerance for operations which already allocate.
+     */
+    static final double RELATIVE_TOLERANCE = 0.1;
+
+    @Test
+    public void allocationRegression() throws Exception {
+        Assume.assumeTrue("Set the system property allocationCheck=true to run this test", Boolean.getBoolean("allocationCheck"));
+
+        Options options = new OptionsBuilder()//
+                .include(CheckTableBenchmark.class.getSimpleName()
+                        + "\\.(check_uncheck|checkIf_row|checkIf_column|checkIf_rowAndColumnPredicates|isChecked|isComplete|iterateUncheckedColumns)$")//
+                .include(CheckListOperationsBenchmark.class.getSimpleName()
+                        + "\\.(check_uncheck|checkIf_uncheckIf|isChecked|isComplete|iterateUncheckedElements)$")//
+                .param("implementation", "default", "bit_storage")//
+                .addProfiler(GCProfiler.class)//
+                .forks(1)//
+                .warmupIterations(3).warmupTime(TimeValue.milliseconds(300))//
+                .measurementIterations(3).measurementTime(TimeValue.milliseconds(300))//
+                .build();
+
+        Collection<RunResult> results = new Runner(options).run();
+        Map<String, Double> measured = new TreeMap<>();
+
+        for (RunResult result : results) {
+            Result<?> allocRateNorm = result.getSecondaryResults().get(ALLOC_RATE_NORM);
+            Assert.assertNotNull("No " + ALLOC_RATE_NORM + " for " + key(result.getParams()), allocRateNorm);
+            measured.put(key(result.getParams()), allocRateNorm.getScore());
+        }
+
+        if (Boolean.getBoolean("allocationCheck.record")) {
+            writeBaseline(measured, Paths.get("target", "allocation-baseline.properties"));
+            return;
+        }
+
+        Properties baseline = readBaseline();
+        List<String> failures = new ArrayList<>();
+
+        for (Map.Entry<String, Double> entry : measured.entrySet()) {
+            String baselineValue = baseline.getProperty(entry.getKey());
+
+            if (baselineValue == null) {
+                failures.add(entry.getKey() + ": no baseline; measured " + format(entry.getValue()) + " B/op");
+                continue;
+            }
+
+            double allowed = Double.parseDouble(baselineValue) * (1 + RELATIVE_TOLERANCE) + ABSOLUTE_TOLERANCE;
+
+            if (entry.getValue() > allowed) {
+                failures.add(entry.getKey() + ": allocates " + format(entry.getValue()) + " B/op; baseline is " + baselineValue + " B/op");
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            Assert.fail("Allocation regressions:\n" + String.join("\n", failures));
+        }
+    }
+
+    /**
+     * Returns keys like CheckTableBenchmark.check_uncheck/default/50x10; the parameter values are ordered by parameter name.
+     */
+    static String key(BenchmarkParams params) {
+        String benchmark = params.getBenchmark();
+        StringBuilder result = new StringBuilder(benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1));
+
+        for (String param : new TreeSet<>(params.getParamsKeys())) {
+            result.append('/').append(params.getParam(param));
+        }
+
+        return result.toString();
+    }
+
+    static Properties readBaseline() throws IOException {
+        Properties result = new Properties();
+
+        try (InputStream in = AllocationRegressionTest.class.getResourceAsStream(BASELINE_RESOURCE)) {
+            Assert.assertNotNull("Could not find " + BASELINE_RESOURCE, in);
+            result.load(in);
+        }
+
+        return result;
+    }
+
+    static void writeBaseline(Map<String, Double> measured, Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("# Allocated bytes per operation (" + ALLOC_RATE_NORM + "); see AllocationRegressionTest\n");
+
+            for (Map.Entry<String, Double> entry : measured.entrySet()) {
+                writer.write(entry.getKey() + "=" + format(entry.getValue()) + "\n");
+            }
+        }
+    }
+
+    static String format(double bytes) {
+        // Values below one byte per operation are measurement noise
+        return bytes < 1 ? "0" : String.valueOf(Math.round(bytes));
+    }
+}
@@ -0,0 +1,58 @@
+/* 
+ * Copyright 2024 Nils Bandener
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.selectivem.check;
+
+/**
+ * Linear scans over the arrays used by ArrayCheckList, ArrayCheckTable and BitStorage.Segmented.
+ * 
+ * This is the Java 8 version, which uses plain loops. The multi-release JAR contains a version for Java 17 and later in
+ * META-INF/versions/17, which uses the vectorized Arrays.mismatch() methods for longer ranges.
+ */
+final class ArrayScans {
+
+    private ArrayScans() {
+    }
+
+    /**
+     * Returns the index of the first element in the range from (inclusive) to to (exclusive) which equals the given value; or -1
+     * if there is no such element.
+     */
+    static int indexOf(boolean[] array, int from, int to, boolean value) {
+        for (int i = from; i < to; i++) {
+            if (array[i] == value) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the index of the first element in the range from (inclusive) to to (exclusive) which does not equal the given value;
+     * or -1 if there is no such element.
+     */
+    static int indexOfNot(long[] array, int from, int to, long value) {
+        for (int i = from; i < to; i++) {
+            if (array[i] != value) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+}
@@ -35,13 +35,16 @@
 package com.selectivem.check;
 
 import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.function.ToIntFunction;
 
 class BackingCollections {
     abstract static class UnmodifiableSet<E> extends AbstractSet<E> implements Set<E> {
@@ -119,7 +122,40 @@ class BackingCollections {
 
                     return internalBuilder.build();
                 } else {
-                    return new SetBackedSet.Builder<>(set).build();
+                    @SuppressWarnings("unchecked")
+                    E[] flat = (E[]) set.toArray();
+                    IndexedUnmodifiableSet<E> result = PerfectHashBackedSet.build(flat);
+
+                    if (result != null) {
+                        return result;
+                    } else {
+                        return new SetBackedSet.Builder<>(set).build();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Creates a set which compares elements by reference (==) instead of equals(). Elements which are equal to, but not identical
+         * with elements of the set will be treated as unknown. Thus, this may be only used if all callers use canonical instances of
+         * the elements (like interned strings or singletons).
+         */
+        static <E> IndexedUnmodifiableSet<E> ofIdentity(Set<E> set) {
+            int size = set.size();
+
+            if (size == 0) {
+                return empty();
+            } else if (size <= 8) {
+                return new ArrayBackedSet<>(set, true);
+            } else {
+                @SuppressWarnings("unchecked")
+                E[] flat = (E[]) set.toArray();
+                IndexedUnmodifiableSet<E> result = PerfectHashBackedSet.build(flat, true);
+
+                if (result != null) {
+                    return result;
+                } else {
+                    return SetBackedSet.ofIdentity(flat);
                 }
             }
         }
@@ -389,11 +425,17 @@ class BackingCollections {
 
     final static class ArrayBackedSet<E> extends IndexedUnmodifiableSet<E> {
         private final E[] elements;
+        private final boolean identity;
 
-        @SuppressWarnings("unchecked")
         ArrayBackedSet(Set<E> elements) {
+            this(elements, false);
+        }
+
+        @SuppressWarnings("unchecked")
+        ArrayBackedSet(Set<E> elements, boolean identity) {
             super(elements.size());
             this.elements = (E[]) elements.toArray();
+            this.identity = identity;
 
             for (int i = 0; i < this.elements.length; i++) {
                 if (this.elements[i] == null) {
@@ -409,13 +451,7 @@ class BackingCollections {
 
         @Override
         public boolean contains(Object o) {
-            for (int i = 0; i < elements.length; i++) {
-                if (elements[i].equals(o)) {
-                    return true;
-                }
-            }
-
-            return false;
+            return elementToIndex(o) != -1;
         }
 
         @Override
@@ -465,7 +501,9 @@ class BackingCollections {
             int l = elements.length;
 
             for (int i = 0; i < l; i++) {
-                if (elements[i].equals(element)) {
+                E e = elements[i];
+
+                if (e == element || (!identity && e.equals(element))) {
                     return i;
                 }
             }
@@ -495,11 +533,17 @@ class BackingCollections {
         private final E[] flat;
         private final short[] indices;
 
-        HashArrayBackedSet(int tableSize, int size, E[] table, short[] indices, E[] flat) {
+        /**
+         * The hash codes of the elements in table. Comparing these first saves us equals() calls on occupied slots which cannot match.
+         */
+        private final int[] hashes;
+
+        HashArrayBackedSet(int tableSize, int size, E[] table, int[] hashes, short[] indices, E[] flat) {
             super(size);
             this.tableSize = tableSize;
             this.size = size;
             this.table = table;
+            this.hashes = hashes;
             this.indices = indices;
             this.flat = flat;
         }
@@ -516,25 +560,22 @@ class BackingCollections {
 
         @Override
         public boolean contains(Object o) {
-            return checkTable(o, hashPosition(o)) < 0;
+            int hash = hashCode(o);
+            return checkTable(table, hashes, o, hash, hashPosition(tableSize, hash)) < 0;
         }
 
         @Override
         int elementToIndex(Object o) {
-            int hashPosition = hashPosition(o);
-
-            if (table[hashPosition] == null) {
-                return -1;
-            } else if (table[hashPosition].equals(o)) {
-                return indices[hashPosition];
-            }
-
+            int hash = hashCode(o);
+            int hashPosition = hashPosition(tableSize, hash);
             int max = hashPosition + COLLISION_HEAD_ROOM;
 
-            for (int i = hashPosition + 1; i <= max; i++) {
-                if (table[i] == null) {
+            for (int i = hashPosition; i <= max; i++) {
+                E e = table[i];
+
+                if (e == null) {
                     return -1;
-                } else if (table[i].equals(o)) {
+                } else if (e == o || (hashes[i] == hash && e.equals(o))) {
                     return indices[i];
                 }
             }
@@ -591,17 +632,15 @@ class BackingCollections {
             return result;
         }
 
-        int hashPosition(Object e) {
-            return hashPosition(tableSize, e);
-        }
-
-        final static int hashPosition(int tableSize, Object e) {
+        final static int hashCode(Object e) {
             if (e == null) {
                 throw new IllegalArgumentException("null values are not supported");
             }
 
-            int hash = e.hashCode();
+            return e.hashCode();
+        }
 
+        final static int hashPosition(int tableSize, int hash) {
             switch (tableSize) {
             case 16:
                 int h8 = hashTo8bit(hash);
@@ -621,23 +660,17 @@ class BackingCollections {
             return (hash & 0xff) ^ (hash >> 8 & 0xff) ^ (hash >> 16 & 0xff) ^ (hash >> 24 & 0xff);
         }
 
-        int checkTable(Object e, int hashPosition) {
-            return checkTable(table, e, hashPosition);
-        }
-
-        static <E> int checkTable(E[] table, Object e, int hashPosition) {
-            if (table[hashPosition] == null) {
-                return hashPosition;
-            } else if (table[hashPosition].equals(e)) {
-                return -1 - hashPosition;
-            }
-
+        /**
+         * Looks for e in the table, starting at hashPosition. Returns -1 - position if e was found, the position of the first
+         * free slot if e was not found, or NO_SPACE if e was not found and there is no free slot within the collision head room. 
+         */
+        static <E> int checkTable(E[] table, int[] hashes, Object e, int hash, int hashPosition) {
             int max = hashPosition + COLLISION_HEAD_ROOM;
 
-            for (int i = hashPosition + 1; i <= max; i++) {
+            for (int i = hashPosition; i <= max; i++) {
                 if (table[i] == null) {
                     return i;
-                } else if (table[i].equals(e)) {
+                } else if (hashes[i] == hash && table[i].equals(e)) {
                     return -1 - i;
                 }
             }
@@ -648,6 +681,7 @@ class BackingCollections {
         static class Builder<E> extends IndexedUnmodifiableSet.InternalBuilder<E> {
             private E[] table;
             private E[] flat;
+            private int[] hashes;
             private short[] indices;
             private short size = 0;
             private final int tableSize;
@@ -668,9 +702,12 @@ class BackingCollections {
                     throw new IllegalArgumentException("Null elements are not supported");
                 }
 
+                int hash = e.hashCode();
+
                 if (table == null) {
-                    int hashPosition = hashPosition(e);
+                    int hashPosition = hashPosition(tableSize, hash);
                     table = createEArray(tableSize + COLLISION_HEAD_ROOM);
+                    hashes = new int[tableSize + COLLISION_HEAD_ROOM];
                     indices = new short[tableSize + COLLISION_HEAD_ROOM];
 
                     if (flat == null) {
@@ -678,26 +715,28 @@ class BackingCollections {
                     }
 
                     table[hashPosition] = e;
+                    hashes[hashPosition] = hash;
                     indices[hashPosition] = 0;
                     flat[0] = e;
                     size++;
                     return this;
                 } else {
-                    int position = hashPosition(e);
+                    int position = hashPosition(tableSize, hash);
 
                     if (table[position] == null) {
                         table[position] = e;
+                        hashes[position] = hash;
                         indices[position] = size;
                         extendFlat();
                         flat[size] = e;
                         size++;
                         return this;
-                    } else if (table[position].equals(e)) {
+                    } else if (hashes[position] == hash && table[position].equals(e)) {
                         // done
                         return this;
                     } else {
                         // collision
-                        int check = checkTable(e, position);
+                        int check = checkTable(table, hashes, e, hash, position);
 
                         if (check < 0) {
                             // done     
@@ -715,6 +754,7 @@ class BackingCollections {
                             }
                         } else {
                             table[check] = e;
+                            hashes[check] = hash;
                             indices[check] = size;
                             extendFlat();
                             flat[size] = e;
@@ -753,7 +793,7 @@ class BackingCollections {
                         flat = createEArray(size);
                         System.arraycopy(this.flat, 0, flat, 0, size);
                     }
-                    return new HashArrayBackedSet<>(tableSize, size, table, indices, flat);
+                    return new HashArrayBackedSet<>(tableSize, size, table, hashes, indices, flat);
                 }
             }
 
@@ -793,10 +833,6 @@ class BackingCollections {
                 };
             }
 
-            private int hashPosition(Object e) {
-                return HashArrayBackedSet.hashPosition(tableSize, e);
-            }
-
             private void extendFlat() {
                 if (size >= flat.length) {
                     E [] newFlat = createEArray(Math.min(flat.length + flat.length / 2 + 8, this.table.length));
@@ -805,39 +841,558 @@ class BackingCollections {
                 }
             }
 
-            int checkTable(Object e, int hashPosition) {
-                int max = hashPosition + COLLISION_HEAD_ROOM;
+            @Override
+            boolean contains(Object o) {
+                if (table == null) {
+                    return false;
+                } else {
+                    int hash = HashArrayBackedSet.hashCode(o);
+                    return checkTable(table, hashes, o, hash, hashPosition(tableSize, hash)) < 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * An immutable set which uses a minimal perfect hash function (following the CHD "compress, hash and displace" scheme) to map
+     * elements to indices. A lookup needs one hash computation, three array loads and at most one equals() call; there is no probing 
+     * and there are no unused table slots. The hash codes of the elements are kept, so that most lookups of unknown elements get by 
+     * without an equals() call.
+     * 
+     * As the hash function only sees the hash codes of the elements, it maps the distinct hash codes to slots. If several elements
+     * share a hash code, the slot refers to the first of these; the others are chained to it. A lookup of such an element needs an 
+     * equals() call for each preceding element of the chain.
+     * 
+     * Building the hash function is more expensive than building a HashArrayBackedSet or a SetBackedSet. Thus, this is only used
+     * for large sets which are built once and then used for many lookups, i.e., the row and column sets of check tables.
+     */
+    final static class PerfectHashBackedSet<E> extends IndexedUnmodifiableSet<E> {
+
+        /**
+         * The average number of elements per bucket.
+         */
+        private static final int BUCKET_SIZE = 3;
+
+        /**
+         * The number of displacement seeds we try for a bucket before giving up.
+         */
+        private static final int MAX_SEED = 1 << 20;
+
+        /**
+         * The number of displacement seeds we try for a bucket with only one element. If none fits, the element is directly stored
+         * in a free slot. Looking up these elements involves a branch, which is mostly mispredicted; thus, only the last few of these 
+         * buckets, which are placed when nearly all slots are taken, should use it.
+         */
+        private static final int MAX_SINGLE_SEED = 256;
+
+        private final E[] flat;
+        private final boolean identity;
+
+        /**
+         * For each bucket: If the value is >= 0, it is the seed to be used for computing the slot of the bucket's elements. If the
+         * value is < 0, the bucket has only one element, which is directly stored at slot -1 - value. This is only used if no seed
+         * could be found for the bucket.
+         */
+        private final int[] seeds;
+
+        /**
+         * Maps slots to the index of the element in flat.
+         */
+        private final int[] indices;
+
+        /**
+         * The hash codes of the elements, by the index of the element in flat.
+         */
+        private final int[] hashes;
+
+        /**
+         * Maps the index of an element to the index of the next element with the same hash code, or to -1 if there is no such element.
+         * This is null if all elements have distinct hash codes.
+         */
+        private final int[] next;
+
+        private PerfectHashBackedSet(E[] flat, int[] seeds, int[] indices, int[] hashes, int[] next, boolean identity) {
+            super(flat.length);
+            this.flat = flat;
+            this.identity = identity;
+            this.seeds = seeds;
+            this.indices = indices;
+            this.hashes = hashes;
+            this.next = next;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return elementToIndex(o) != -1;
+        }
+
+        @Override
+        int elementToIndex(Object o) {
+            if (o == null) {
+                throw new IllegalArgumentException("null values are not supported");
+            }
+
+            int hash = o.hashCode();
+            int mixed = mix(hash);
+            int seed = seeds[reduce(mixed, seeds.length)];
+            int slot = seed < 0 ? -1 - seed : slot(mixed, seed, indices.length);
+            int index = indices[slot];
+
+            if (hashes[index] != hash) {
+                // All elements chained to this slot have the same hash code
+                return -1;
+            }
+
+            E e = flat[index];
+
+            if (e == o || (!identity && e.equals(o))) {
+                return index;
+            } else if (next == null) {
+                return -1;
+            }
+
+            for (index = next[index]; index != -1; index = next[index]) {
+                e = flat[index];
+
+                if (e == o || (!identity && e.equals(o))) {
+                    return index;
+                }
+            }
+
+            return -1;
+        }
+
+        @Override
+        E indexToElement(int i) {
+            if (i >= 0 && i < flat.length) {
+                return flat[i];
+            } else {
+                return null;
+            }
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<E>() {
+                private int i = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return i < flat.length;
+                }
 
-                for (int i = hashPosition + 1; i <= max; i++) {
-                    if (table[i] == null) {
-                        return i;
-                    } else if (table[i].equals(e)) {
-                        return -1 - i;
+                @Override
+                public E next() {
+                    if (i >= flat.length) {
+                        throw new NoSuchElementException();
                     }
+
+                    E element = flat[i];
+                    i++;
+                    return element;
+                }
+            };
+        }
+
+        @Override
+        public Object[] toArray() {
+            Object[] result = new Object[flat.length];
+            System.arraycopy(flat, 0, result, 0, flat.length);
+            return result;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T> T[] toArray(T[] a) {
+            T[] result = a.length >= flat.length ? a : (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), flat.length);
+            System.arraycopy(flat, 0, result, 0, flat.length);
+            return result;
+        }
+
+        /**
+         * Builds a PerfectHashBackedSet for the given distinct elements. The index of each element will be its position in the
+         * given array. The array is used as the backing array of the set; it must not be modified afterwards.
+         * 
+         * Returns null if no perfect hash function could be found. This is very unlikely; elements with equal hash codes are no
+         * obstacle.
+         */
+        static <E> PerfectHashBackedSet<E> build(E[] flat) {
+            return build(flat, false);
+        }
+
+        /**
+         * Like build(E[]); if identity is true, elements will be compared by reference, see IndexedUnmodifiableSet.ofIdentity()
+         */
+        static <E> PerfectHashBackedSet<E> build(E[] flat, boolean identity) {
+            int size = flat.length;
+            int bucketCount = (size + BUCKET_SIZE - 1) / BUCKET_SIZE;
+
+            int[] hashes = new int[size];
+            int[] mixed = new int[size];
+            int[] bucketOf = new int[size];
+            int[] bucketStart = new int[bucketCount + 1];
+
+            for (int i = 0; i < size; i++) {
+                if (flat[i] == null) {
+                    throw new IllegalArgumentException("Does not support null elements");
                 }
 
-                return NO_SPACE;
+                hashes[i] = flat[i].hashCode();
+                mixed[i] = mix(hashes[i]);
+                bucketOf[i] = reduce(mixed[i], bucketCount);
+                bucketStart[bucketOf[i] + 1]++;
             }
 
-            @Override
-            boolean contains(Object o) {
-                if (table == null) {
-                    return false;
-                } else {
-                    int hashPosition = hashPosition(o);
-                    int max = hashPosition + COLLISION_HEAD_ROOM;
+            for (int b = 0; b < bucketCount; b++) {
+                bucketStart[b + 1] += bucketStart[b];
+            }
 
-                    for (int i = hashPosition; i <= max; i++) {
-                        if (table[i] == null) {
-                            return false;
-                        } else if (table[i].equals(o)) {
-                            return true;
+            // Elements grouped by bucket
+            int[] members = new int[size];
+            int[] fill = new int[bucketCount];
+
+            for (int i = 0; i < size; i++) {
+                int b = bucketOf[i];
+                members[bucketStart[b] + fill[b]] = i;
+                fill[b]++;
+            }
+
+            // Elements with equal hash codes always end up in the same bucket and can never get distinct slots. Thus, only the first
+            // of these stays a member of the bucket; the others are chained to it. Afterwards, fill holds the number of remaining
+            // members of each bucket.
+            int[] next = null;
+            int slotCount = 0;
+            int maxBucketSize = 0;
+
+            for (int b = 0; b < bucketCount; b++) {
+                int start = bucketStart[b];
+                int count = 0;
+
+                for (int k = start; k < bucketStart[b + 1]; k++) {
+                    int i = members[k];
+                    int j = start;
+
+                    while (j < start + count && hashes[members[j]] != hashes[i]) {
+                        j++;
+                    }
+
+                    if (j < start + count) {
+                        if (next == null) {
+                            next = new int[size];
+                            Arrays.fill(next, -1);
+                        }
+
+                        int last = members[j];
+
+                        while (next[last] != -1) {
+                            last = next[last];
                         }
+
+                        next[last] = i;
+                    } else {
+                        members[start + count] = i;
+                        count++;
                     }
+                }
 
-                    return false;
+                fill[b] = count;
+                slotCount += count;
+                maxBucketSize = Math.max(maxBucketSize, count);
+            }
+
+            // Buckets sorted by descending size; big buckets are placed first while most slots are still free
+            int[] sizeStart = new int[maxBucketSize + 2];
+
+            for (int b = 0; b < bucketCount; b++) {
+                sizeStart[maxBucketSize - fill[b] + 1]++;
+            }
+
+            for (int k = 0; k <= maxBucketSize; k++) {
+                sizeStart[k + 1] += sizeStart[k];
+            }
+
+            int[] bucketOrder = new int[bucketCount];
+
+            for (int b = 0; b < bucketCount; b++) {
+                bucketOrder[sizeStart[maxBucketSize - fill[b]]++] = b;
+            }
+
+            int[] seeds = new int[bucketCount];
+            int[] indices = new int[slotCount];
+            boolean[] taken = new boolean[slotCount];
+            int[] candidateSlots = new int[maxBucketSize];
+            int freeSlot = 0;
+
+            for (int o = 0; o < bucketCount; o++) {
+                int b = bucketOrder[o];
+                int start = bucketStart[b];
+                int bucketSize = fill[b];
+
+                if (bucketSize >= 2) {
+                    int seed = findSeed(mixed, members, start, bucketSize, taken, candidateSlots, MAX_SEED);
+
+                    if (seed == -1) {
+                        return null;
+                    }
+
+                    seeds[b] = seed;
+
+                    for (int k = 0; k < bucketSize; k++) {
+                        taken[candidateSlots[k]] = true;
+                        indices[candidateSlots[k]] = members[start + k];
+                    }
+                } else if (bucketSize == 1) {
+                    int seed = findSeed(mixed, members, start, 1, taken, candidateSlots, MAX_SINGLE_SEED);
+
+                    if (seed != -1) {
+                        seeds[b] = seed;
+                        taken[candidateSlots[0]] = true;
+                        indices[candidateSlots[0]] = members[start];
+                    } else {
+                        while (taken[freeSlot]) {
+                            freeSlot++;
+                        }
+
+                        taken[freeSlot] = true;
+                        indices[freeSlot] = members[start];
+                        seeds[b] = -1 - freeSlot;
+                    }
+                }
+            }
+
+            return new PerfectHashBackedSet<>(flat, seeds, indices, hashes, next, identity);
+        }
+
+        private static int findSeed(int[] mixed, int[] members, int start, int bucketSize, boolean[] taken, int[] candidateSlots,
+                int maxSeed) {
+            int size = taken.length;
+
+            seedLoop: for (int seed = 0; seed < maxSeed; seed++) {
+                for (int k = 0; k < bucketSize; k++) {
+                    int slot = slot(mixed[members[start + k]], seed, size);
+
+                    if (taken[slot]) {
+                        continue seedLoop;
+                    }
+
+                    for (int j = 0; j < k; j++) {
+                        if (candidateSlots[j] == slot) {
+                            continue seedLoop;
+                        }
+                    }
+
+                    candidateSlots[k] = slot;
+                }
+
+                return seed;
+            }
+
+            return -1;
+        }
+
+        /**
+         * Computes the slot for an element in a bucket with the given seed; mixed is the result of mix() for the hash code of the element.
+         */
+        private static int slot(int mixed, int seed, int size) {
+            return reduce((mixed ^ (seed * 0x9E3779B9)) * 0x85ebca6b, size);
+        }
+
+        /**
+         * Maps the given hash value evenly to the range [0, n) without using a division.
+         */
+        private static int reduce(int hash, int n) {
+            return (int) (((hash & 0xffffffffL) * n) >>> 32);
+        }
+
+        /**
+         * The finalization step of MurmurHash3; ensures that all bits of the input affect the upper bits used by reduce()
+         */
+        private static int mix(int h) {
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            h *= 0xc2b2ae35;
+            h ^= h >>> 16;
+            return h;
+        }
+    }
+
+    /**
+     * An immutable set for elements which already carry a dense ordinal number. The ordinal is obtained by an indexer function
+     * supplied by the user of the class; the ordinal is directly used as index. Thus, neither building the set nor looking up
+     * elements requires hashing.
+     * 
+     * The elements array is used as it is; it must not be modified afterwards and must not contain null values. For each element e
+     * of the array, indexer.applyAsInt(e) must return the position of e in the array. The constructor verifies this; as equal 
+     * elements have the same ordinal, this also rules out duplicates.
+     * 
+     * The indexer is only applied to objects whose class is the class of one of the elements. Thus, lookups of objects of other
+     * types do not fail within the indexer, but are treated as unknown.
+     */
+    final static class OrdinalBackedSet<E> extends IndexedUnmodifiableSet<E> {
+        private final E[] elements;
+        private final ToIntFunction<E> indexer;
+
+        /**
+         * The distinct classes of the elements. Usually, this is just one class; enum constants with bodies have a class of their own.
+         */
+        private final Class<?>[] elementClasses;
+
+        OrdinalBackedSet(E[] elements, ToIntFunction<E> indexer) {
+            super(elements.length);
+            this.elements = elements;
+            this.indexer = indexer;
+            this.elementClasses = elementClasses(elements, indexer);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return elements.length == 0;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return elementToIndex(o) != -1;
+        }
+
+        @Override
+        int elementToIndex(Object o) {
+            if (o == null) {
+                throw new IllegalArgumentException("null values are not supported");
+            }
+
+            if (!isElementClass(o.getClass())) {
+                // The indexer might not be able to deal with objects of other types. These are not equal to any element anyway.
+                return -1;
+            }
+
+            @SuppressWarnings("unchecked")
+            E element = (E) o;
+            int i = indexer.applyAsInt(element);
+
+            if (i >= 0 && i < elements.length) {
+                E e = elements[i];
+
+                if (e == o || e.equals(o)) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+
+        @Override
+        E indexToElement(int i) {
+            if (i >= 0 && i < elements.length) {
+                return elements[i];
+            } else {
+                return null;
+            }
+        }
+
+        private boolean isElementClass(Class<?> c) {
+            for (Class<?> elementClass : elementClasses) {
+                if (elementClass == c) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        /**
+         * Verifies the elements and the indexer and returns the distinct classes of the elements.
+         * 
+         * @throws IllegalArgumentException if the array contains null values or if the indexer does not return the position of an
+         * element. The latter is also the case for duplicate elements.
+         */
+        private static <E> Class<?>[] elementClasses(E[] elements, ToIntFunction<E> indexer) {
+            Class<?>[] result = new Class<?>[1];
+            int count = 0;
+
+            for (int i = 0; i < elements.length; i++) {
+                E e = elements[i];
+
+                if (e == null) {
+                    throw new IllegalArgumentException("null values are not supported (at position " + i + ")");
+                }
+
+                int index = indexer.applyAsInt(e);
+
+                if (index != i) {
+                    if (index >= 0 && index < i && elements[index].equals(e)) {
+                        throw new IllegalArgumentException("Duplicate element at position " + i + ": " + e);
+                    } else {
+                        throw new IllegalArgumentException("Element " + e + " at position " + i + " has the ordinal number " + index);
+                    }
+                }
+
+                Class<?> c = e.getClass();
+
+                if (!containsClass(result, count, c)) {
+                    if (count == result.length) {
+                        result = Arrays.copyOf(result, count * 2);
+                    }
+
+                    result[count++] = c;
+                }
+            }
+
+            return count == result.length ? result : Arrays.copyOf(result, count);
+        }
+
+        private static boolean containsClass(Class<?>[] classes, int count, Class<?> c) {
+            for (int i = 0; i < count; i++) {
+                if (classes[i] == c) {
+                    return true;
                 }
             }
+
+            return false;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<E>() {
+                private int i = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return i < elements.length;
+                }
+
+                @Override
+                public E next() {
+                    if (i >= elements.length) {
+                        throw new NoSuchElementException();
+                    }
+
+                    E element = elements[i];
+                    i++;
+                    return element;
+                }
+            };
+        }
+
+        @Override
+        public Object[] toArray() {
+            Object[] result = new Object[elements.length];
+            System.arraycopy(elements, 0, result, 0, elements.length);
+            return result;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T> T[] toArray(T[] a) {
+            T[] result = a.length >= elements.length ? a
+                    : (T[]) java.lang.reflect.Array.newInstance(a.getClass().getComponentType(), elements.length);
+            System.arraycopy(elements, 0, result, 0, elements.length);
+            return result;
         }
     }
 
@@ -852,6 +1407,20 @@ class BackingCollections {
             this.flat = flat;
         }
 
+        /**
+         * Creates a set which compares elements by reference (==) instead of equals(), using an IdentityHashMap. The elements must be 
+         * distinct.
+         */
+        static <E> SetBackedSet<E> ofIdentity(E[] flat) {
+            IdentityHashMap<E, Integer> elements = new IdentityHashMap<>(flat.length);
+
+            for (int i = 0; i < flat.length; i++) {
+                elements.put(flat[i], i);
+            }
+
+            return new SetBackedSet<>(elements, flat);
+        }
+
         @Override
         public int size() {
             return elements.size();
@@ -930,6 +1499,10 @@ class BackingCollections {
 
             @Override
             public Builder<E> with(E e) {
+                if (this.delegate.containsKey(e)) {
+                    return this;
+                }
+
                 int pos = this.delegate.size();
                 this.delegate.put(e, pos);
                 extendFlat();
@@ -984,7 +1557,9 @@ class BackingCollections {
             }
 
             private void extendFlat() {
-                if (delegate.size() >= flat.length) {
+                if (flat == null) {
+                    this.flat = createEArray(Math.max(delegate.size() + 8, delegate.size() * 2));
+                } else if (delegate.size() >= flat.length) {
                     E [] newFlat = createEArray(flat.length + flat.length / 2 + 8);
                     System.arraycopy(this.flat, 0, newFlat, 0, this.flat.length);
                     this.flat = newFlat;
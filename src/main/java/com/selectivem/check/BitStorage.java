@@ -0,0 +1,1352 @@
+/* 
+ * Copyright 2024 Nils Bandener
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.selectivem.check;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Stores the checked state of a fixed number of cells as bits. Cells are addressed by long indices; thus, in contrast to a plain
+ * array, an instance can manage more than 2^31 cells.
+ * 
+ * Implementations do not keep track of the number of set bits; this is left to the check table or check list using the storage.
+ */
+abstract class BitStorage {
+
+    /**
+     * Returns the number of cells managed by this instance.
+     */
+    abstract long size();
+
+    /**
+     * Returns the number of set bits.
+     */
+    abstract long cardinality();
+
+    abstract boolean get(long i);
+
+    /**
+     * Sets the bit at the given index. Returns true if the bit was not set before.
+     */
+    abstract boolean set(long i);
+
+    /**
+     * Clears the bit at the given index. Returns true if the bit was set before.
+     */
+    abstract boolean clear(long i);
+
+    abstract void setAll();
+
+    abstract void clearAll();
+
+    /**
+     * Clears all bits with an index in the range [from, to). Returns the number of bits which were set before.
+     */
+    abstract long clearRange(long from, long to);
+
+    /**
+     * Sets the bits starting at the index from which are set in the given mask; bit k of the mask (mask[k >>> 6] & (1L << k))
+     * corresponds to the bit at index from + k. The caller must make sure that the mask does not refer to bits beyond size.
+     * 
+     * The bits which were not set before are written to newlySet, which must have the same length as the mask. This default
+     * implementation sets the bits one by one; storages which keep the bits in words override it.
+     */
+    void setMasked(long from, long[] mask, long[] newlySet) {
+        for (int m = 0; m < mask.length; m++) {
+            long base = from + ((long) m << 6);
+            long result = 0;
+
+            for (long bits = mask[m]; bits != 0; bits &= bits - 1) {
+                int k = Long.numberOfTrailingZeros(bits);
+
+                if (set(base + k)) {
+                    result |= 1L << k;
+                }
+            }
+
+            newlySet[m] = result;
+        }
+    }
+
+    /**
+     * Returns the index of the first set bit in the range [from, to). Returns -1 if there is no such bit.
+     */
+    abstract long nextSet(long from, long to);
+
+    /**
+     * Returns the index of the first cleared bit in the range [from, to). Returns -1 if there is no such bit.
+     */
+    abstract long nextClear(long from, long to);
+
+    /**
+     * Returns a new storage with the same bits which is independent of this instance. The copy always resides on the heap,
+     * regardless of the kind of this storage.
+     */
+    abstract BitStorage copy();
+
+    /**
+     * Base class for storages which keep the bits in consecutive long words. Sub-classes only need to provide access to the words.
+     */
+    static abstract class Words extends BitStorage {
+        final long size;
+        final long wordCount;
+
+        Words(long size) {
+            if (size < 0) {
+                throw new IllegalArgumentException("Invalid size: " + size);
+            }
+
+            this.size = size;
+            this.wordCount = (size + 63) >>> 6;
+        }
+
+        abstract long word(long w);
+
+        abstract void setWord(long w, long word);
+
+        @Override
+        long size() {
+            return size;
+        }
+
+        @Override
+        BitStorage copy() {
+            Segmented result = new Segmented(size);
+
+            for (long w = 0; w < wordCount; w++) {
+                long word = word(w);
+
+                if (word != 0) {
+                    result.setWord(w, word);
+                }
+            }
+
+            return result;
+        }
+
+        @Override
+        long cardinality() {
+            long result = 0;
+
+            for (long w = 0; w < wordCount; w++) {
+                result += Long.bitCount(word(w));
+            }
+
+            return result;
+        }
+
+        @Override
+        boolean get(long i) {
+            return (word(i >>> 6) & (1L << i)) != 0;
+        }
+
+        @Override
+        boolean set(long i) {
+            long w = i >>> 6;
+            long word = word(w);
+            long bit = 1L << i;
+
+            if ((word & bit) != 0) {
+                return false;
+            }
+
+            setWord(w, word | bit);
+            return true;
+        }
+
+        @Override
+        boolean clear(long i) {
+            long w = i >>> 6;
+            long word = word(w);
+            long bit = 1L << i;
+
+            if ((word & bit) == 0) {
+                return false;
+            }
+
+            setWord(w, word & ~bit);
+            return true;
+        }
+
+        @Override
+        void setAll() {
+            for (long w = 0; w < wordCount; w++) {
+                setWord(w, -1L);
+            }
+
+            clearTail();
+        }
+
+        /**
+         * Makes sure that the bits beyond size are cleared.
+         */
+        void clearTail() {
+            if ((size & 63) != 0) {
+                setWord(wordCount - 1, -1L >>> -size);
+            }
+        }
+
+        @Override
+        void clearAll() {
+            for (long w = 0; w < wordCount; w++) {
+                setWord(w, 0);
+            }
+        }
+
+        @Override
+        long clearRange(long from, long to) {
+            if (from >= to) {
+                return 0;
+            }
+
+            long firstWord = from >>> 6;
+            long lastWord = (to - 1) >>> 6;
+            long count = 0;
+
+            for (long w = firstWord; w <= lastWord; w++) {
+                long mask = -1L;
+
+                if (w == firstWord) {
+                    mask &= -1L << from;
+                }
+
+                if (w == lastWord) {
+                    mask &= -1L >>> -to;
+                }
+
+                long word = word(w);
+
+                if ((word & mask) != 0) {
+                    count += Long.bitCount(word & mask);
+                    setWord(w, word & ~mask);
+                }
+            }
+
+            return count;
+        }
+
+        @Override
+        void setMasked(long from, long[] mask, long[] newlySet) {
+            int shift = (int) (from & 63);
+
+            for (int m = 0; m < mask.length; m++) {
+                long bits = mask[m];
+
+                if (bits == 0) {
+                    newlySet[m] = 0;
+                    continue;
+                }
+
+                // The mask word generally spans two storage words: the low part goes into w, the high part into w + 1
+                long w = (from >>> 6) + m;
+                long word = word(w);
+                long low = bits << shift;
+                long newLow = low & ~word;
+
+                if (newLow != 0) {
+                    setWord(w, word | low);
+                }
+
+                long newHigh = 0;
+
+                if (shift != 0) {
+                    long high = bits >>> (64 - shift);
+
+                    if (high != 0) {
+                        long nextWord = word(w + 1);
+                        newHigh = high & ~nextWord;
+
+                        if (newHigh != 0) {
+                            setWord(w + 1, nextWord | high);
+                        }
+                    }
+                }
+
+                newlySet[m] = shift != 0 ? (newLow >>> shift) | (newHigh << (64 - shift)) : newLow;
+            }
+        }
+
+        @Override
+        long nextSet(long from, long to) {
+            if (from >= to) {
+                return -1;
+            }
+
+            long w = from >>> 6;
+            long word = word(w) & (-1L << from);
+
+            if (word == 0) {
+                w = nextWordNot(w + 1, ((to - 1) >>> 6) + 1, 0);
+
+                if (w == -1) {
+                    return -1;
+                }
+
+                word = word(w);
+            }
+
+            long result = (w << 6) + Long.numberOfTrailingZeros(word);
+            return result < to ? result : -1;
+        }
+
+        @Override
+        long nextClear(long from, long to) {
+            if (from >= to) {
+                return -1;
+            }
+
+            long w = from >>> 6;
+            long word = ~word(w) & (-1L << from);
+
+            if (word == 0) {
+                w = nextWordNot(w + 1, ((to - 1) >>> 6) + 1, -1L);
+
+                if (w == -1) {
+                    return -1;
+                }
+
+                word = ~word(w);
+            }
+
+            long result = (w << 6) + Long.numberOfTrailingZeros(word);
+            return result < to ? result : -1;
+        }
+
+        /**
+         * Returns the index of the first word in the range from (inclusive) to to (exclusive) which does not equal the given value;
+         * or -1 if there is no such word. Sub-classes which keep the words in arrays can override this to use ArrayScans.
+         */
+        long nextWordNot(long from, long to, long value) {
+            for (long w = from; w < to; w++) {
+                if (word(w) != value) {
+                    return w;
+                }
+            }
+
+            return -1;
+        }
+    }
+
+    /**
+     * Stores the bits in long words which are distributed over several arrays (segments) of limited size. This avoids the
+     * need of allocating a single huge array.
+     */
+    static final class Segmented extends Words {
+
+        /**
+         * By default, a segment holds 2^26 bits. This corresponds to 8 MB per segment.
+         */
+        static final int DEFAULT_SEGMENT_SHIFT = 26;
+
+        private final long[][] segments;
+        private final int wordShift;
+        private final int wordMask;
+
+        Segmented(long size) {
+            this(size, DEFAULT_SEGMENT_SHIFT);
+        }
+
+        /**
+         * @param segmentShift the binary logarithm of the number of bits per segment; must be at least 6
+         */
+        Segmented(long size, int segmentShift) {
+            super(size);
+
+            if (segmentShift < 6 || segmentShift > 36) {
+                throw new IllegalArgumentException("Invalid segmentShift: " + segmentShift);
+            }
+
+            this.wordShift = segmentShift - 6;
+            this.wordMask = (1 << wordShift) - 1;
+
+            long wordsPerSegment = 1L << wordShift;
+            int segmentCount = (int) ((wordCount + wordsPerSegment - 1) >>> wordShift);
+
+            this.segments = new long[segmentCount][];
+
+            for (int s = 0; s < segmentCount; s++) {
+                this.segments[s] = new long[(int) Math.min(wordsPerSegment, wordCount - ((long) s << wordShift))];
+            }
+        }
+
+        @Override
+        long word(long w) {
+            return segments[(int) (w >>> wordShift)][(int) w & wordMask];
+        }
+
+        @Override
+        void setWord(long w, long word) {
+            segments[(int) (w >>> wordShift)][(int) w & wordMask] = word;
+        }
+
+        @Override
+        long nextWordNot(long from, long to, long value) {
+            for (long w = from; w < to;) {
+                int s = (int) (w >>> wordShift);
+                long segmentStart = (long) s << wordShift;
+                long segmentEnd = Math.min(to, segmentStart + segments[s].length);
+                int i = ArrayScans.indexOfNot(segments[s], (int) (w - segmentStart), (int) (segmentEnd - segmentStart), value);
+
+                if (i != -1) {
+                    return segmentStart + i;
+                }
+
+                w = segmentEnd;
+            }
+
+            return -1;
+        }
+
+        @Override
+        void setAll() {
+            for (long[] segment : segments) {
+                Arrays.fill(segment, -1L);
+            }
+
+            clearTail();
+        }
+
+        @Override
+        void clearAll() {
+            for (long[] segment : segments) {
+                Arrays.fill(segment, 0);
+            }
+        }
+
+        @Override
+        BitStorage copy() {
+            Segmented result = new Segmented(size, wordShift + 6);
+
+            for (int s = 0; s < segments.length; s++) {
+                System.arraycopy(segments[s], 0, result.segments[s], 0, segments[s].length);
+            }
+
+            return result;
+        }
+    }
+
+    /**
+     * Stores the bits in a long array. Additionally, each word carries the generation in which it was written last. Words with
+     * an older generation are treated as zero. Thus, clearAll() only needs to increment the current generation and takes constant
+     * time, independently of the size of the storage.
+     * 
+     * This is suitable for storages which are cleared often, while only a few bits are set in between.
+     */
+    static final class Stamped extends Words {
+        private final long[] words;
+        private final int[] stamps;
+        int generation = 1;
+
+        Stamped(long size) {
+            super(size);
+
+            if (wordCount > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Size too large: " + size);
+            }
+
+            this.words = new long[(int) wordCount];
+            this.stamps = new int[(int) wordCount];
+        }
+
+        @Override
+        long word(long w) {
+            int i = (int) w;
+            return stamps[i] == generation ? words[i] : 0;
+        }
+
+        @Override
+        void setWord(long w, long word) {
+            int i = (int) w;
+            words[i] = word;
+            stamps[i] = generation;
+        }
+
+        @Override
+        void clearAll() {
+            generation++;
+
+            if (generation == 0) {
+                // The generation counter wrapped around; stamps from a previous round might be equal to new generations
+                Arrays.fill(stamps, 0);
+                generation = 1;
+            }
+        }
+    }
+
+    /**
+     * Stores the bits in a long array. While journaling is enabled, the previous value of each changed word is recorded in an
+     * undo log. rollback() restores the state of an earlier log position by replaying the log backwards. Thus, the costs of
+     * journaling and of rolling back are proportional to the number of changed words, not to the size of the storage.
+     */
+    static final class Journaled extends Words {
+        private final long[] words;
+        private long[] log = new long[16];
+        private int logSize;
+        private boolean journaling;
+
+        Journaled(long size) {
+            super(size);
+
+            if (wordCount > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Size too large: " + size);
+            }
+
+            this.words = new long[(int) wordCount];
+        }
+
+        @Override
+        long word(long w) {
+            return words[(int) w];
+        }
+
+        @Override
+        void setWord(long w, long word) {
+            int i = (int) w;
+            long oldWord = words[i];
+
+            if (oldWord == word) {
+                return;
+            }
+
+            if (journaling) {
+                if (logSize + 2 > log.length) {
+                    log = Arrays.copyOf(log, log.length * 2);
+                }
+
+                log[logSize++] = i;
+                log[logSize++] = oldWord;
+            }
+
+            words[i] = word;
+        }
+
+        /**
+         * Returns the current position of the undo log.
+         */
+        int logPosition() {
+            return logSize;
+        }
+
+        void setJournaling(boolean journaling) {
+            this.journaling = journaling;
+
+            if (!journaling) {
+                logSize = 0;
+            }
+        }
+
+        /**
+         * Undoes all changes which were recorded after the given log position.
+         */
+        void rollback(int logPosition) {
+            while (logSize > logPosition) {
+                long oldWord = log[--logSize];
+                int i = (int) log[--logSize];
+                words[i] = oldWord;
+            }
+        }
+    }
+
+    /**
+     * Stores the bits in long words in a file which is mapped into memory. Changes are written through to the mapped buffers; the
+     * operating system writes them to the file at some point in time, at the latest when force() is called.
+     * 
+     * As a single mapped buffer is limited to 2 GB, the file is mapped in several segments of 1 GB each. The words are stored in
+     * little endian byte order, independently of the platform.
+     */
+    static final class Mapped extends Words {
+        private static final int SEGMENT_WORD_SHIFT = 27;
+        private static final long SEGMENT_WORD_MASK = (1L << SEGMENT_WORD_SHIFT) - 1;
+
+        private final MappedByteBuffer[] segments;
+
+        /**
+         * Maps the region of the given file which starts at offset. The file is extended if necessary; newly allocated parts of the
+         * file are zero.
+         */
+        Mapped(FileChannel channel, long offset, long size) throws IOException {
+            super(size);
+
+            long wordsPerSegment = 1L << SEGMENT_WORD_SHIFT;
+            int segmentCount = (int) ((wordCount + wordsPerSegment - 1) >>> SEGMENT_WORD_SHIFT);
+
+            this.segments = new MappedByteBuffer[segmentCount];
+
+            for (int s = 0; s < segmentCount; s++) {
+                long firstWord = (long) s << SEGMENT_WORD_SHIFT;
+                long segmentWords = Math.min(wordsPerSegment, wordCount - firstWord);
+                this.segments[s] = channel.map(FileChannel.MapMode.READ_WRITE, offset + (firstWord << 3), segmentWords << 3);
+                this.segments[s].order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+
+        @Override
+        long word(long w) {
+            return segments[(int) (w >>> SEGMENT_WORD_SHIFT)].getLong((int) (w & SEGMENT_WORD_MASK) << 3);
+        }
+
+        @Override
+        void setWord(long w, long word) {
+            segments[(int) (w >>> SEGMENT_WORD_SHIFT)].putLong((int) (w & SEGMENT_WORD_MASK) << 3, word);
+        }
+
+        /**
+         * Writes all changes to the storage device.
+         */
+        void force() {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        }
+    }
+
+    /**
+     * Stores the bits in long words in direct byte buffers, i.e., outside of the Java heap. Thus, the bits neither occupy heap memory
+     * nor need to be visited by the garbage collector. The buffers are allocated in segments of at most 1 GB each.
+     * 
+     * After close() has been called, any further access fails with an IllegalStateException. close() frees the native memory of
+     * the buffers immediately, using the cleaner of the buffers. If the JVM does not provide access to the cleaner, the native
+     * memory is released as soon as the buffers have been garbage collected.
+     */
+    static final class Direct extends Words {
+        private static final int SEGMENT_WORD_SHIFT = 27;
+        private static final long SEGMENT_WORD_MASK = (1L << SEGMENT_WORD_SHIFT) - 1;
+
+        /**
+         * Frees the native memory of a direct byte buffer; null if not available.
+         */
+        private static final MethodHandle FREE = freeMethod();
+
+        private ByteBuffer[] segments;
+
+        Direct(long size) {
+            super(size);
+
+            long wordsPerSegment = 1L << SEGMENT_WORD_SHIFT;
+            int segmentCount = (int) ((wordCount + wordsPerSegment - 1) >>> SEGMENT_WORD_SHIFT);
+
+            this.segments = new ByteBuffer[segmentCount];
+
+            for (int s = 0; s < segmentCount; s++) {
+                long segmentWords = Math.min(wordsPerSegment, wordCount - ((long) s << SEGMENT_WORD_SHIFT));
+                this.segments[s] = ByteBuffer.allocateDirect((int) (segmentWords << 3)).order(ByteOrder.nativeOrder());
+            }
+        }
+
+        @Override
+        long word(long w) {
+            return segments()[(int) (w >>> SEGMENT_WORD_SHIFT)].getLong((int) (w & SEGMENT_WORD_MASK) << 3);
+        }
+
+        @Override
+        void setWord(long w, long word) {
+            segments()[(int) (w >>> SEGMENT_WORD_SHIFT)].putLong((int) (w & SEGMENT_WORD_MASK) << 3, word);
+        }
+
+        void close() {
+            ByteBuffer[] segments = this.segments;
+
+            if (segments == null) {
+                return;
+            }
+
+            this.segments = null;
+
+            if (FREE != null) {
+                for (ByteBuffer segment : segments) {
+                    try {
+                        FREE.invokeExact(segment);
+                    } catch (Throwable e) {
+                        // The memory will be released by the garbage collector
+                    }
+                }
+            }
+        }
+
+        boolean isClosed() {
+            return this.segments == null;
+        }
+
+        private ByteBuffer[] segments() {
+            ByteBuffer[] segments = this.segments;
+
+            if (segments == null) {
+                throw new IllegalStateException("The storage has been already closed");
+            }
+
+            return segments;
+        }
+
+        /**
+         * Uses sun.misc.Unsafe.invokeCleaner() on Java 9 and later and the cleaner of sun.nio.ch.DirectBuffer on Java 8.
+         */
+        private static MethodHandle freeMethod() {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodType type = MethodType.methodType(void.class, ByteBuffer.class);
+
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                Field unsafeField = unsafeClass.getDeclaredField("theUnsafe");
+                unsafeField.setAccessible(true);
+                return lookup.findVirtual(unsafeClass, "invokeCleaner", type).bindTo(unsafeField.get(null));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                // Not available before Java 9
+            }
+
+            try {
+                MethodHandle cleaner = lookup.unreflect(Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner"));
+                MethodHandle clean = lookup.unreflect(Class.forName("sun.misc.Cleaner").getMethod("clean"));
+                return MethodHandles.filterReturnValue(cleaner, clean).asType(type);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Stores the bits in chunks of 2^16 bits, similar to roaring bitmaps. Chunks without any set bits do not occupy any memory.
+     * Chunks with only a few set bits store the indices of the set bits in a sorted char array (2 bytes per set bit); chunks with
+     * only a few cleared bits store the indices of the cleared bits in the same way. All other chunks use a plain bitmap (8 KB per
+     * chunk). Chunks switch between these representations whenever their density crosses the respective thresholds.
+     * 
+     * This is suitable for huge storages where either only a small fraction of the bits will be set or nearly all bits will be set.
+     * Finding the next set bit only needs to visit the non-empty chunks; finding the next cleared bit skips the full chunks and just
+     * looks up the indices of the cleared bits in the others.
+     */
+    static final class Sparse extends BitStorage {
+        static final int CHUNK_SHIFT = 16;
+        static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+        static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+        /**
+         * Above this number of entries, an array container or an inverted container takes more space than a bitmap container.
+         */
+        static final int MAX_ARRAY_CARDINALITY = 4096;
+
+        private final long size;
+        private final Container[] chunks;
+
+        Sparse(long size) {
+            if (size < 0) {
+                throw new IllegalArgumentException("Invalid size: " + size);
+            }
+
+            this.size = size;
+            this.chunks = new Container[(int) ((size + CHUNK_MASK) >>> CHUNK_SHIFT)];
+        }
+
+        @Override
+        long size() {
+            return size;
+        }
+
+        @Override
+        long cardinality() {
+            long result = 0;
+
+            for (Container container : chunks) {
+                if (container != null) {
+                    result += container.cardinality;
+                }
+            }
+
+            return result;
+        }
+
+        @Override
+        boolean get(long i) {
+            Container container = chunks[(int) (i >>> CHUNK_SHIFT)];
+            return container != null && container.get((int) i & CHUNK_MASK);
+        }
+
+        @Override
+        boolean set(long i) {
+            int c = (int) (i >>> CHUNK_SHIFT);
+            Container container = chunks[c];
+
+            if (container == null) {
+                container = new ArrayContainer();
+                chunks[c] = container;
+            }
+
+            if (!container.set((int) i & CHUNK_MASK)) {
+                return false;
+            }
+
+            normalize(c, container);
+            return true;
+        }
+
+        @Override
+        boolean clear(long i) {
+            int c = (int) (i >>> CHUNK_SHIFT);
+            Container container = chunks[c];
+
+            if (container == null || !container.clear((int) i & CHUNK_MASK)) {
+                return false;
+            }
+
+            normalize(c, container);
+            return true;
+        }
+
+        @Override
+        void setAll() {
+            for (int c = 0; c < chunks.length; c++) {
+                chunks[c] = new InvertedContainer(chunkLength(c));
+            }
+        }
+
+        @Override
+        void clearAll() {
+            Arrays.fill(chunks, null);
+        }
+
+        @Override
+        BitStorage copy() {
+            Sparse result = new Sparse(size);
+
+            for (int c = 0; c < chunks.length; c++) {
+                if (chunks[c] != null) {
+                    result.chunks[c] = chunks[c].copy();
+                }
+            }
+
+            return result;
+        }
+
+        @Override
+        long clearRange(long from, long to) {
+            if (from >= to) {
+                return 0;
+            }
+
+            long count = 0;
+
+            for (int c = (int) (from >>> CHUNK_SHIFT), last = (int) ((to - 1) >>> CHUNK_SHIFT); c <= last; c++) {
+                Container container = chunks[c];
+
+                if (container == null) {
+                    continue;
+                }
+
+                long base = (long) c << CHUNK_SHIFT;
+                int chunkFrom = (int) (Math.max(from, base) - base);
+                int chunkTo = (int) (Math.min(to, base + CHUNK_SIZE) - base);
+
+                if (chunkFrom == 0 && chunkTo >= chunkLength(c)) {
+                    count += container.cardinality;
+                    chunks[c] = null;
+                } else {
+                    if (container instanceof InvertedContainer
+                            && ((InvertedContainer) container).gaps.cardinality + chunkTo - chunkFrom > MAX_ARRAY_CARDINALITY) {
+                        container = ((InvertedContainer) container).toBitmap();
+                        chunks[c] = container;
+                    }
+
+                    count += container.clearRange(chunkFrom, chunkTo);
+                    normalize(c, container);
+                }
+            }
+
+            return count;
+        }
+
+        @Override
+        long nextSet(long from, long to) {
+            if (from >= to) {
+                return -1;
+            }
+
+            for (int c = (int) (from >>> CHUNK_SHIFT), last = (int) ((to - 1) >>> CHUNK_SHIFT); c <= last; c++) {
+                Container container = chunks[c];
+
+                if (container == null) {
+                    continue;
+                }
+
+                long base = (long) c << CHUNK_SHIFT;
+                int result = container.nextSet((int) (Math.max(from, base) - base), (int) (Math.min(to, base + CHUNK_SIZE) - base));
+
+                if (result != -1) {
+                    return base + result;
+                }
+            }
+
+            return -1;
+        }
+
+        @Override
+        long nextClear(long from, long to) {
+            if (from >= to) {
+                return -1;
+            }
+
+            for (int c = (int) (from >>> CHUNK_SHIFT), last = (int) ((to - 1) >>> CHUNK_SHIFT); c <= last; c++) {
+                Container container = chunks[c];
+                long base = (long) c << CHUNK_SHIFT;
+                long chunkFrom = Math.max(from, base);
+
+                if (container == null) {
+                    return chunkFrom;
+                }
+
+                if (container.cardinality == CHUNK_SIZE) {
+                    continue;
+                }
+
+                int result = container.nextClear((int) (chunkFrom - base), (int) (Math.min(to, base + CHUNK_SIZE) - base));
+
+                if (result != -1) {
+                    return base + result;
+                }
+            }
+
+            return -1;
+        }
+
+        /**
+         * Replaces the container at the given chunk index by a more compact one if its cardinality has crossed one of the thresholds.
+         * Conversions back to array containers or inverted containers only happen at half of the threshold in order to avoid repeated
+         * conversions.
+         */
+        private void normalize(int c, Container container) {
+            if (container.cardinality == 0) {
+                chunks[c] = null;
+            } else if (container instanceof ArrayContainer) {
+                if (container.cardinality > MAX_ARRAY_CARDINALITY) {
+                    chunks[c] = ((ArrayContainer) container).toBitmap();
+                }
+            } else if (container instanceof BitmapContainer) {
+                if (container.cardinality < MAX_ARRAY_CARDINALITY / 2) {
+                    chunks[c] = ((BitmapContainer) container).toArray();
+                } else if (chunkLength(c) - container.cardinality < MAX_ARRAY_CARDINALITY / 2) {
+                    chunks[c] = ((BitmapContainer) container).toInverted(chunkLength(c));
+                }
+            } else if (((InvertedContainer) container).gaps.cardinality > MAX_ARRAY_CARDINALITY) {
+                chunks[c] = ((InvertedContainer) container).toBitmap();
+            }
+        }
+
+        private int chunkLength(int c) {
+            return (int) Math.min(CHUNK_SIZE, size - ((long) c << CHUNK_SHIFT));
+        }
+
+        /**
+         * Manages the bits of a single chunk. Indices are relative to the start of the chunk.
+         */
+        static abstract class Container {
+            int cardinality;
+
+            abstract boolean get(int i);
+
+            abstract boolean set(int i);
+
+            abstract boolean clear(int i);
+
+            abstract int clearRange(int from, int to);
+
+            abstract int nextSet(int from, int to);
+
+            abstract int nextClear(int from, int to);
+
+            abstract Container copy();
+        }
+
+        static final class ArrayContainer extends Container {
+            private char[] values = new char[4];
+
+            @Override
+            ArrayContainer copy() {
+                ArrayContainer result = new ArrayContainer();
+                result.values = Arrays.copyOf(values, Math.max(cardinality, 4));
+                result.cardinality = cardinality;
+                return result;
+            }
+
+            @Override
+            boolean get(int i) {
+                return Arrays.binarySearch(values, 0, cardinality, (char) i) >= 0;
+            }
+
+            @Override
+            boolean set(int i) {
+                int pos = Arrays.binarySearch(values, 0, cardinality, (char) i);
+
+                if (pos >= 0) {
+                    return false;
+                }
+
+                pos = -pos - 1;
+
+                if (cardinality == values.length) {
+                    values = Arrays.copyOf(values, cardinality * 2);
+                }
+
+                System.arraycopy(values, pos, values, pos + 1, cardinality - pos);
+                values[pos] = (char) i;
+                cardinality++;
+                return true;
+            }
+
+            @Override
+            boolean clear(int i) {
+                int pos = Arrays.binarySearch(values, 0, cardinality, (char) i);
+
+                if (pos < 0) {
+                    return false;
+                }
+
+                System.arraycopy(values, pos + 1, values, pos, cardinality - pos - 1);
+                cardinality--;
+                return true;
+            }
+
+            @Override
+            int clearRange(int from, int to) {
+                int start = lowerBound(from);
+                int end = lowerBound(to);
+                int count = end - start;
+
+                if (count != 0) {
+                    System.arraycopy(values, end, values, start, cardinality - end);
+                    cardinality -= count;
+                }
+
+                return count;
+            }
+
+            /**
+             * Sets all bits in the range [from, to). Returns the number of bits which were not set before.
+             */
+            int setRange(int from, int to) {
+                int start = lowerBound(from);
+                int end = lowerBound(to);
+                int rangeSize = to - from;
+                int newCardinality = cardinality - (end - start) + rangeSize;
+
+                if (newCardinality > values.length) {
+                    values = Arrays.copyOf(values, Math.max(newCardinality, values.length * 2));
+                }
+
+                System.arraycopy(values, end, values, start + rangeSize, cardinality - end);
+
+                for (int k = 0; k < rangeSize; k++) {
+                    values[start + k] = (char) (from + k);
+                }
+
+                int count = newCardinality - cardinality;
+                cardinality = newCardinality;
+                return count;
+            }
+
+            @Override
+            int nextSet(int from, int to) {
+                int pos = lowerBound(from);
+
+                if (pos < cardinality && values[pos] < to) {
+                    return values[pos];
+                } else {
+                    return -1;
+                }
+            }
+
+            @Override
+            int nextClear(int from, int to) {
+                int result = from;
+
+                for (int pos = lowerBound(from); pos < cardinality && values[pos] == result; pos++) {
+                    result++;
+                }
+
+                return result < to ? result : -1;
+            }
+
+            /**
+             * Returns the position of the first value which is greater than or equal to the given value.
+             */
+            private int lowerBound(int value) {
+                if (value > CHUNK_MASK) {
+                    return cardinality;
+                }
+
+                int pos = Arrays.binarySearch(values, 0, cardinality, (char) value);
+                return pos >= 0 ? pos : -pos - 1;
+            }
+
+            BitmapContainer toBitmap() {
+                BitmapContainer result = new BitmapContainer();
+
+                for (int k = 0; k < cardinality; k++) {
+                    result.words[values[k] >>> 6] |= 1L << values[k];
+                }
+
+                result.cardinality = cardinality;
+                return result;
+            }
+        }
+
+        static final class BitmapContainer extends Container {
+            private final long[] words = new long[CHUNK_SIZE >>> 6];
+
+            @Override
+            BitmapContainer copy() {
+                BitmapContainer result = new BitmapContainer();
+                System.arraycopy(words, 0, result.words, 0, words.length);
+                result.cardinality = cardinality;
+                return result;
+            }
+
+            static BitmapContainer full(int length) {
+                BitmapContainer result = new BitmapContainer();
+                Arrays.fill(result.words, 0, length >>> 6, -1L);
+
+                if ((length & 63) != 0) {
+                    result.words[length >>> 6] = -1L >>> -length;
+                }
+
+                result.cardinality = length;
+                return result;
+            }
+
+            @Override
+            boolean get(int i) {
+                return (words[i >>> 6] & (1L << i)) != 0;
+            }
+
+            @Override
+            boolean set(int i) {
+                long word = words[i >>> 6];
+                long bit = 1L << i;
+
+                if ((word & bit) != 0) {
+                    return false;
+                }
+
+                words[i >>> 6] = word | bit;
+                cardinality++;
+                return true;
+            }
+
+            @Override
+            boolean clear(int i) {
+                long word = words[i >>> 6];
+                long bit = 1L << i;
+
+                if ((word & bit) == 0) {
+                    return false;
+                }
+
+                words[i >>> 6] = word & ~bit;
+                cardinality--;
+                return true;
+            }
+
+            @Override
+            int clearRange(int from, int to) {
+                int count = 0;
+
+                for (int w = from >>> 6, lastWord = (to - 1) >>> 6; w <= lastWord; w++) {
+                    long mask = -1L;
+
+                    if (w == from >>> 6) {
+                        mask &= -1L << from;
+                    }
+
+                    if (w == lastWord) {
+                        mask &= -1L >>> -to;
+                    }
+
+                    long word = words[w];
+
+                    if ((word & mask) != 0) {
+                        count += Long.bitCount(word & mask);
+                        words[w] = word & ~mask;
+                    }
+                }
+
+                cardinality -= count;
+                return count;
+            }
+
+            @Override
+            int nextSet(int from, int to) {
+                int w = from >>> 6;
+                int lastWord = (to - 1) >>> 6;
+                long word = words[w] & (-1L << from);
+
+                for (;;) {
+                    if (word != 0) {
+                        int result = (w << 6) + Long.numberOfTrailingZeros(word);
+                        return result < to ? result : -1;
+                    }
+
+                    if (w == lastWord) {
+                        return -1;
+                    }
+
+                    w++;
+                    word = words[w];
+                }
+            }
+
+            @Override
+            int nextClear(int from, int to) {
+                int w = from >>> 6;
+                int lastWord = (to - 1) >>> 6;
+                long word = ~words[w] & (-1L << from);
+
+                for (;;) {
+                    if (word != 0) {
+                        int result = (w << 6) + Long.numberOfTrailingZeros(word);
+                        return result < to ? result : -1;
+                    }
+
+                    if (w == lastWord) {
+                        return -1;
+                    }
+
+                    w++;
+                    word = ~words[w];
+                }
+            }
+
+            ArrayContainer toArray() {
+                ArrayContainer result = new ArrayContainer();
+                result.values = new char[Math.max(cardinality, 4)];
+                int k = 0;
+
+                for (int w = 0; w < words.length; w++) {
+                    for (long word = words[w]; word != 0; word &= word - 1) {
+                        result.values[k++] = (char) ((w << 6) + Long.numberOfTrailingZeros(word));
+                    }
+                }
+
+                result.cardinality = k;
+                return result;
+            }
+
+            InvertedContainer toInverted(int length) {
+                InvertedContainer result = new InvertedContainer(length);
+                ArrayContainer gaps = result.gaps;
+                gaps.values = new char[Math.max(length - cardinality, 4)];
+                int k = 0;
+
+                for (int w = 0, lastWord = (length - 1) >>> 6; w <= lastWord; w++) {
+                    long word = ~words[w];
+
+                    if (w == lastWord) {
+                        word &= -1L >>> -length;
+                    }
+
+                    for (; word != 0; word &= word - 1) {
+                        gaps.values[k++] = (char) ((w << 6) + Long.numberOfTrailingZeros(word));
+                    }
+                }
+
+                gaps.cardinality = k;
+                result.cardinality = length - k;
+                return result;
+            }
+        }
+
+        /**
+         * Stores the indices of the cleared bits in an array container. Thus, the operations are the inverse of the ones of the array
+         * container.
+         */
+        static final class InvertedContainer extends Container {
+            final ArrayContainer gaps = new ArrayContainer();
+            private final int length;
+
+            InvertedContainer(int length) {
+                this.length = length;
+                this.cardinality = length;
+            }
+
+            @Override
+            InvertedContainer copy() {
+                InvertedContainer result = new InvertedContainer(length);
+                result.gaps.values = Arrays.copyOf(gaps.values, Math.max(gaps.cardinality, 4));
+                result.gaps.cardinality = gaps.cardinality;
+                result.cardinality = cardinality;
+                return result;
+            }
+
+            @Override
+            boolean get(int i) {
+                return !gaps.get(i);
+            }
+
+            @Override
+            boolean set(int i) {
+                if (gaps.clear(i)) {
+                    cardinality++;
+                    return true;
+                } else {
+                    return false;
+                }
+            }
+
+            @Override
+            boolean clear(int i) {
+                if (gaps.set(i)) {
+                    cardinality--;
+                    return true;
+                } else {
+                    return false;
+                }
+            }
+
+            @Override
+            int clearRange(int from, int to) {
+                int count = gaps.setRange(from, to);
+                cardinality -= count;
+                return count;
+            }
+
+            @Override
+            int nextSet(int from, int to) {
+                return gaps.nextClear(from, to);
+            }
+
+            @Override
+            int nextClear(int from, int to) {
+                return gaps.nextSet(from, to);
+            }
+
+            BitmapContainer toBitmap() {
+                BitmapContainer result = BitmapContainer.full(length);
+
+                for (int k = 0; k < gaps.cardinality; k++) {
+                    result.words[gaps.values[k] >>> 6] &= ~(1L << gaps.values[k]);
+                }
+
+                result.cardinality = cardinality;
+                return result;
+            }
+        }
+    }
+}
@@ -35,6 +35,7 @@ package com.selectivem.check;
 
 import java.util.Set;
 import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 
 /**
  * Specialized data structure which models a set of elements, which can be checked and unchecked. Initially, all elements will be unchecked. 
@@ -58,6 +59,46 @@ public interface CheckList<E> {
         return CheckListImpl.create(elements);
     }
 
+    /**
+     * Creates a new check list of elements which already carry a dense ordinal number (like a slot number or an id). 
+     * All elements will be initially marked as unchecked.
+     * 
+     * The check list does not build a hash based index of the elements; instead, it uses the given indexer to look up elements. 
+     * Thus, no hashing is necessary, neither when creating the check list nor when checking elements.
+     * 
+     * @param elements The elements of the check list. The element with the ordinal number i must be stored at position i. The array must not
+     * contain null values. The check list uses the array without copying it; thus, it must not be modified afterwards.
+     * @param indexer A function which returns the ordinal number of an element.
+     * @throws IllegalArgumentException if the array contains null values or duplicates or if the indexer does not return the 
+     * position of an element in the array.
+     */
+    public static <E> CheckList<E> create(E[] elements, ToIntFunction<E> indexer) {
+        return CheckListImpl.create(elements, indexer);
+    }
+
+    /**
+     * Creates a new check list of the given elements, which keeps the state of its elements in direct memory outside of the 
+     * Java heap. All elements will be initially marked as unchecked.
+     * 
+     * The check list must be closed when it is no longer needed, which frees the direct memory; afterwards, the check list cannot be 
+     * used any more.
+     */
+    public static <E> CloseableCheckList<E> createOffHeap(Set<E> elements) {
+        return CheckListImpl.createOffHeap(elements);
+    }
+
+    /**
+     * Creates a new check list of the given elements, which compares elements by reference (==) instead of equals(). 
+     * All elements will be initially marked as unchecked.
+     * 
+     * This saves equals() calls when looking up elements. However, it may be only used if all callers use the canonical instances 
+     * of the elements (like interned strings or singleton objects). Elements which are equal to, but not identical with an element
+     * of this check list are treated as unknown; methods like check() will throw an IllegalArgumentException for these.
+     */
+    public static <E> CheckList<E> createIdentityBased(Set<E> elements) {
+        return CheckListImpl.createIdentityBased(elements);
+    }
+
     /**
      * Marks the given element as checked.  If the given element is already checked, this will be a no-op.
      * 
@@ -168,4 +209,35 @@ public interface CheckList<E> {
      */
     Iterable<E> iterateUncheckedElements();
 
+    /**
+     * Returns a 64 bit fingerprint of the checked elements of this check list. The fingerprint is maintained
+     * incrementally on each modification; thus, this method takes constant time.
+     * 
+     * Instances with equal checked elements have equal fingerprints, provided they were created with the same elements by the
+     * same factory method, or are copies of each other. For elements with equal hash codes, this also requires the same iteration
+     * order of the element sets. Different states usually have different fingerprints; like with any hash,
+     * collisions are possible, though.
+     */
+    long stateFingerprint();
+
+    /**
+     * Returns a new check list with the same elements and the same checked elements. The copy is independent of this instance;
+     * modifications of one do not affect the other one. 
+     * 
+     * The copy shares the immutable element set with this instance; only the state of the elements is copied. The copy is always
+     * kept on the heap; thus, copies of off-heap or pooled check lists do not need to be closed.
+     */
+    CheckList<E> copy();
+
+    /**
+     * Returns a new check list with the same elements and the same checked elements, like copy(). However, implementations may 
+     * defer copying the state of the elements until this instance or the returned instance is modified for the first time. 
+     * This is useful if it is likely that the copy will be discarded without modifying it.
+     * 
+     * The default implementation just calls copy().
+     */
+    default CheckList<E> fork() {
+        return copy();
+    }
+
 }
@@ -36,6 +36,7 @@ package com.selectivem.check;
 
 import java.util.*;
 import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 
 class CheckListImpl {
 
@@ -56,7 +57,32 @@ class CheckListImpl {
         }
     }
 
-    final static class TwoElementCheckList<E> implements CheckList<E> {
+    static <E> CheckList<E> create(E[] elements, ToIntFunction<E> indexer) {
+        return create(elements, indexer, "element");
+    }
+
+    static <E> CheckList<E> create(E[] elements, ToIntFunction<E> indexer, String elementName) {
+        return new CheckListImpl.ArrayCheckList<>(new BackingCollections.OrdinalBackedSet<>(elements, indexer), elementName);
+    }
+
+    static <E> CheckListPool<E> createPool(Set<E> elements, int maxIdle) {
+        return new CheckListImpl.CheckListPoolImpl<>(BackingCollections.IndexedUnmodifiableSet.of(elements), maxIdle);
+    }
+
+    static <E> CloseableCheckList<E> createOffHeap(Set<E> elements) {
+        BackingCollections.IndexedUnmodifiableSet<E> indexedElements = BackingCollections.IndexedUnmodifiableSet.of(elements);
+        return new CheckListImpl.DirectCheckList<>(indexedElements, "element", new BitStorage.Direct(indexedElements.size()));
+    }
+
+    static <E> CheckList<E> createIdentityBased(Set<E> elements) {
+        return createIdentityBased(elements, "element");
+    }
+
+    static <E> CheckList<E> createIdentityBased(Set<E> elements, String elementName) {
+        return new CheckListImpl.ArrayCheckList<>(BackingCollections.IndexedUnmodifiableSet.ofIdentity(elements), elementName);
+    }
+
+    final static class TwoElementCheckList<E> extends AbstractCheckList<E> {
 
         private final E e1;
         private final E e2;
@@ -66,13 +92,14 @@ class CheckListImpl {
         private boolean e2checked;
 
         TwoElementCheckList(E e1, E e2, String elementName) {
+            super(TWO_ELEMENT);
             this.e1 = e1;
             this.e2 = e2;
             this.elementName = elementName;
         }
 
         @Override
-        public boolean check(E element) {
+        boolean checkImpl(E element) {
             if (element.equals(e1)) {
                 e1checked = true;
             } else if (element.equals(e2)) {
@@ -85,7 +112,7 @@ class CheckListImpl {
         }
 
         @Override
-        public void uncheck(E element) {
+        void uncheckImpl(E element) {
             if (element.equals(e1)) {
                 e1checked = false;
             } else if (element.equals(e2)) {
@@ -105,7 +132,7 @@ class CheckListImpl {
         }
 
         @Override
-        public boolean checkIf(Predicate<E> checkPredicate) {
+        boolean checkIfImpl(Predicate<E> checkPredicate) {
             if (!e1checked && checkPredicate.test(e1)) {
                 e1checked = true;
             }
@@ -142,7 +169,21 @@ class CheckListImpl {
         }
 
         @Override
-        public boolean isChecked(E element) {
+        public long stateFingerprint() {
+            return (e1checked ? Zobrist.key(0) : 0) ^ (e2checked ? Zobrist.key(1) : 0);
+        }
+
+        @Override
+        public CheckList<E> copy() {
+            TwoElementCheckList<E> result = new TwoElementCheckList<>(e1, e2, elementName);
+            result.elements = this.elements;
+            result.e1checked = this.e1checked;
+            result.e2checked = this.e2checked;
+            return result;
+        }
+
+        @Override
+        boolean isCheckedImpl(E element) {
             if (element.equals(e1)) {
                 return e1checked;
             } else if (element.equals(e2)) {
@@ -153,12 +194,12 @@ class CheckListImpl {
         }
 
         @Override
-        public boolean isComplete() {
+        boolean isCompleteImpl() {
             return e1checked && e2checked;
         }
 
         @Override
-        public boolean isBlank() {
+        boolean isBlankImpl() {
             return !e1checked && !e2checked;
         }
 
@@ -217,24 +258,47 @@ class CheckListImpl {
 
     }
 
-    final static class ArrayCheckList<E> implements CheckList<E> {
+    final static class ArrayCheckList<E> extends AbstractCheckList<E> {
 
         private final BackingCollections.IndexedUnmodifiableSet<E> elements;
-        private final boolean[] checked;
+        private boolean[] checked;
         private final String elementName;
         private int uncheckedCount;
         private final int size;
+        private long fingerprint;
+
+        /**
+         * True if the checked array might be also referenced by another instance created by fork(). In this case, the array must be
+         * copied before it is modified.
+         */
+        private boolean shared;
 
         ArrayCheckList(Set<E> elements, String elementName) {
-            this.elements = BackingCollections.IndexedUnmodifiableSet.of(elements);
+            this(BackingCollections.IndexedUnmodifiableSet.of(elements), elementName);
+        }
+
+        ArrayCheckList(BackingCollections.IndexedUnmodifiableSet<E> elements, String elementName) {
+            super(ARRAY);
+            this.elements = elements;
             this.size = this.elements.size();
             this.checked = new boolean[this.size];
             this.uncheckedCount = this.size;
             this.elementName = elementName;
         }
 
+        private ArrayCheckList(ArrayCheckList<E> source, boolean[] checked, boolean shared) {
+            super(ARRAY);
+            this.elements = source.elements;
+            this.size = source.size;
+            this.checked = checked;
+            this.shared = shared;
+            this.uncheckedCount = source.uncheckedCount;
+            this.fingerprint = source.fingerprint;
+            this.elementName = source.elementName;
+        }
+
         @Override
-        public boolean check(E element) {
+        boolean checkImpl(E element) {
             doCheck(element);
 
             return this.uncheckedCount == 0;
@@ -248,13 +312,15 @@ class CheckListImpl {
             }
 
             if (!this.checked[tablePos]) {
+                unshare();
                 this.checked[tablePos] = true;
+                this.fingerprint ^= Zobrist.key(tablePos);
                 this.uncheckedCount--;
             }
         }
 
         @Override
-        public void uncheck(E element) {
+        void uncheckImpl(E element) {
             int tablePos = elements.elementToIndex(element);
 
             if (tablePos == -1) {
@@ -262,7 +328,9 @@ class CheckListImpl {
             }
 
             if (this.checked[tablePos]) {
+                unshare();
                 this.checked[tablePos] = false;
+                this.fingerprint ^= Zobrist.key(tablePos);
                 this.uncheckedCount++;
             }
         }
@@ -276,16 +344,20 @@ class CheckListImpl {
             }
 
             if (this.checked[tablePos]) {
+                unshare();
                 this.checked[tablePos] = false;
+                this.fingerprint ^= Zobrist.key(tablePos);
                 this.uncheckedCount++;
             }
         }
 
         @Override
-        public boolean checkIf(Predicate<E> checkPredicate) {
+        boolean checkIfImpl(Predicate<E> checkPredicate) {
             for (int i = 0; i < size; i++) {
                 if (!this.checked[i] && checkPredicate.test(this.elements.indexToElement(i))) {
+                    unshare();
                     this.checked[i] = true;
+                    this.fingerprint ^= Zobrist.key(i);
                     this.uncheckedCount--;
                 }
             }
@@ -297,7 +369,9 @@ class CheckListImpl {
         public void uncheckIf(Predicate<E> checkPredicate) {
             for (int i = 0; i < size; i++) {
                 if (this.checked[i] && checkPredicate.test(this.elements.indexToElement(i))) {
+                    unshare();
                     this.checked[i] = false;
+                    this.fingerprint ^= Zobrist.key(i);
                     this.uncheckedCount++;
                 }
             }
@@ -305,18 +379,62 @@ class CheckListImpl {
 
         @Override
         public void checkAll() {
-            Arrays.fill(this.checked, true);
+            unshare();
+
+            for (int i = ArrayScans.indexOf(this.checked, 0, size, false); i != -1; i = ArrayScans.indexOf(this.checked, i + 1, size, false)) {
+                this.checked[i] = true;
+                this.fingerprint ^= Zobrist.key(i);
+            }
+
             this.uncheckedCount = 0;
         }
 
         @Override
         public void uncheckAll() {
-            Arrays.fill(this.checked, false);
+            if (this.shared) {
+                this.checked = new boolean[this.size];
+                this.shared = false;
+            } else {
+                Arrays.fill(this.checked, false);
+            }
+
             this.uncheckedCount = this.size;
+            this.fingerprint = 0;
+        }
+
+        private void unshare() {
+            if (this.shared) {
+                this.checked = this.checked.clone();
+                this.shared = false;
+            }
+        }
+
+        @Override
+        public long stateFingerprint() {
+            return this.fingerprint;
         }
 
         @Override
-        public boolean isChecked(E element) {
+        public CheckList<E> copy() {
+            return new ArrayCheckList<>(this, this.checked.clone(), false);
+        }
+
+        /**
+         * Returns a new check list which initially shares the checked array with this instance. Both instances copy the array
+         * before they modify it for the first time.
+         */
+        @Override
+        public CheckList<E> fork() {
+            if (!this.shared) {
+                // Avoids writes on check lists of frozen check tables, which might be read concurrently
+                this.shared = true;
+            }
+
+            return new ArrayCheckList<>(this, this.checked, true);
+        }
+
+        @Override
+        boolean isCheckedImpl(E element) {
             int tablePos = elements.elementToIndex(element);
 
             if (tablePos == -1) {
@@ -327,12 +445,12 @@ class CheckListImpl {
         }
 
         @Override
-        public boolean isComplete() {
+        boolean isCompleteImpl() {
             return this.uncheckedCount == 0;
         }
 
         @Override
-        public boolean isBlank() {
+        boolean isBlankImpl() {
             return this.uncheckedCount == this.size;
         }
 
@@ -401,13 +519,7 @@ class CheckListImpl {
                             }
 
                             int findNext(int start) {
-                                for (int i = start; i < tableSize; i++) {
-                                    if (ArrayCheckList.this.checked[i]) {
-                                        return i;
-                                    }
-                                }
-
-                                return -1;
+                                return ArrayScans.indexOf(ArrayCheckList.this.checked, start, tableSize, true);
                             }
 
                         };
@@ -466,13 +578,7 @@ class CheckListImpl {
                             }
 
                             int findNext(int start) {
-                                for (int i = start; i < tableSize; i++) {
-                                    if (!ArrayCheckList.this.checked[i]) {
-                                        return i;
-                                    }
-                                }
-
-                                return -1;
+                                return ArrayScans.indexOf(ArrayCheckList.this.checked, start, tableSize, false);
                             }
                         };
                     }
@@ -519,13 +625,7 @@ class CheckListImpl {
                             }
 
                             int findNext(int start) {
-                                for (int i = start; i < tableSize; i++) {
-                                    if (ArrayCheckList.this.checked[i]) {
-                                        return i;
-                                    }
-                                }
-
-                                return -1;
+                                return ArrayScans.indexOf(ArrayCheckList.this.checked, start, tableSize, true);
                             }
                         };
                     }
@@ -569,13 +669,7 @@ class CheckListImpl {
                             }
 
                             int findNext(int start) {
-                                for (int i = start; i < tableSize; i++) {
-                                    if (!ArrayCheckList.this.checked[i]) {
-                                        return i;
-                                    }
-                                }
-
-                                return -1;
+                                return ArrayScans.indexOf(ArrayCheckList.this.checked, start, tableSize, false);
                             }
                         };
                     }
@@ -584,23 +678,521 @@ class CheckListImpl {
         }
     }
 
-    final static class HashMapCheckList<E> implements CheckList<E> {
+    /**
+     * A check list which stores the state of its elements in a BitStorage. This allows using other storages than the heap, such as
+     * direct byte buffers.
+     */
+    final static class BitStorageCheckList<E> extends AbstractCheckList<E> {
+
+        private final BackingCollections.IndexedUnmodifiableSet<E> elements;
+        private final BitStorage checked;
+        private final String elementName;
+        private int uncheckedCount;
+        private final int size;
+        private long fingerprint;
+
+        BitStorageCheckList(BackingCollections.IndexedUnmodifiableSet<E> elements, String elementName, BitStorage checked) {
+            super(BIT_STORAGE);
+            this.elements = elements;
+            this.size = this.elements.size();
+            this.checked = checked;
+            this.uncheckedCount = this.size - (int) checked.cardinality();
+            this.fingerprint = Zobrist.of(checked, 0, this.size);
+            this.elementName = elementName;
+
+            if (checked.size() != this.size) {
+                throw new IllegalArgumentException("Storage size " + checked.size() + " does not match size " + this.size);
+            }
+        }
+
+        @Override
+        boolean checkImpl(E element) {
+            int tablePos = index(element);
+
+            if (this.checked.set(tablePos)) {
+                this.uncheckedCount--;
+                this.fingerprint ^= Zobrist.key(tablePos);
+            }
+
+            return this.uncheckedCount == 0;
+        }
+
+        @Override
+        void uncheckImpl(E element) {
+            int tablePos = index(element);
+
+            if (this.checked.clear(tablePos)) {
+                this.uncheckedCount++;
+                this.fingerprint ^= Zobrist.key(tablePos);
+            }
+        }
+
+        @Override
+        public void uncheckIfPresent(E element) {
+            int tablePos = elements.elementToIndex(element);
+
+            if (tablePos == -1) {
+                return;
+            }
+
+            if (this.checked.clear(tablePos)) {
+                this.uncheckedCount++;
+                this.fingerprint ^= Zobrist.key(tablePos);
+            }
+        }
+
+        @Override
+        boolean checkIfImpl(Predicate<E> checkPredicate) {
+            for (long i = this.checked.nextClear(0, size); i != -1; i = this.checked.nextClear(i + 1, size)) {
+                if (checkPredicate.test(this.elements.indexToElement((int) i))) {
+                    this.checked.set(i);
+                    this.uncheckedCount--;
+                    this.fingerprint ^= Zobrist.key(i);
+                }
+            }
+
+            return this.uncheckedCount == 0;
+        }
+
+        @Override
+        public void uncheckIf(Predicate<E> checkPredicate) {
+            for (long i = this.checked.nextSet(0, size); i != -1; i = this.checked.nextSet(i + 1, size)) {
+                if (checkPredicate.test(this.elements.indexToElement((int) i))) {
+                    this.checked.clear(i);
+                    this.uncheckedCount++;
+                    this.fingerprint ^= Zobrist.key(i);
+                }
+            }
+        }
+
+        @Override
+        public void checkAll() {
+            for (long i = this.checked.nextClear(0, size); i != -1; i = this.checked.nextClear(i + 1, size)) {
+                this.fingerprint ^= Zobrist.key(i);
+            }
+
+            this.checked.setAll();
+            this.uncheckedCount = 0;
+        }
+
+        @Override
+        public void uncheckAll() {
+            this.checked.clearAll();
+            this.uncheckedCount = this.size;
+            this.fingerprint = 0;
+        }
+
+        @Override
+        public long stateFingerprint() {
+            return this.fingerprint;
+        }
+
+        @Override
+        public CheckList<E> copy() {
+            return new BitStorageCheckList<>(elements, elementName, checked.copy());
+        }
+
+        @Override
+        boolean isCheckedImpl(E element) {
+            return this.checked.get(index(element));
+        }
+
+        @Override
+        boolean isCompleteImpl() {
+            return this.uncheckedCount == 0;
+        }
+
+        @Override
+        boolean isBlankImpl() {
+            return this.uncheckedCount == this.size;
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+
+        @Override
+        public Set<E> getElements() {
+            return elements;
+        }
+
+        @Override
+        public Set<E> getCheckedElements() {
+            if (isComplete()) {
+                return elements;
+            } else if (isBlank()) {
+                return BackingCollections.IndexedUnmodifiableSet.empty();
+            } else {
+                return new View(true);
+            }
+        }
+
+        @Override
+        public Set<E> getUncheckedElements() {
+            if (isComplete()) {
+                return BackingCollections.IndexedUnmodifiableSet.empty();
+            } else if (isBlank()) {
+                return elements;
+            } else {
+                return new View(false);
+            }
+        }
+
+        @Override
+        public Iterable<E> iterateCheckedElements() {
+            if (isComplete()) {
+                return elements;
+            } else if (isBlank()) {
+                return BackingCollections.IndexedUnmodifiableSet.empty();
+            } else {
+                return () -> new ViewIterator(true);
+            }
+        }
+
+        @Override
+        public Iterable<E> iterateUncheckedElements() {
+            if (isComplete()) {
+                return BackingCollections.IndexedUnmodifiableSet.empty();
+            } else if (isBlank()) {
+                return elements;
+            } else {
+                return () -> new ViewIterator(false);
+            }
+        }
+
+        private int index(E element) {
+            int tablePos = elements.elementToIndex(element);
+
+            if (tablePos == -1) {
+                throw new IllegalArgumentException("Invalid " + elementName + ": " + element);
+            }
+
+            return tablePos;
+        }
+
+        private class View extends BackingCollections.UnmodifiableSet<E> {
+            private final boolean checkedElements;
+
+            View(boolean checkedElements) {
+                this.checkedElements = checkedElements;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                int tablePos = BitStorageCheckList.this.elements.elementToIndex(o);
+
+                if (tablePos == -1) {
+                    return false;
+                } else {
+                    return BitStorageCheckList.this.checked.get(tablePos) == checkedElements;
+                }
+            }
+
+            @Override
+            public Iterator<E> iterator() {
+                return new ViewIterator(checkedElements);
+            }
+
+            @Override
+            public int size() {
+                return checkedElements ? size - uncheckedCount : uncheckedCount;
+            }
+        }
+
+        private class ViewIterator implements Iterator<E> {
+            private final boolean checkedElements;
+            private long pos;
+
+            ViewIterator(boolean checkedElements) {
+                this.checkedElements = checkedElements;
+                this.pos = findNext(0);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return pos != -1;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                E element = BitStorageCheckList.this.elements.indexToElement((int) pos);
+                this.pos = findNext(this.pos + 1);
+                return element;
+            }
+
+            private long findNext(long start) {
+                return checkedElements ? checked.nextSet(start, size) : checked.nextClear(start, size);
+            }
+        }
+    }
+
+    /**
+     * A check list which keeps the state of its elements in direct memory outside of the heap. Calling close() frees the memory
+     * immediately.
+     */
+    final static class DirectCheckList<E> extends DelegatingCheckList<E> implements CloseableCheckList<E> {
+        private final BitStorage.Direct storage;
+
+        DirectCheckList(BackingCollections.IndexedUnmodifiableSet<E> elements, String elementName, BitStorage.Direct storage) {
+            super(new BitStorageCheckList<>(elements, elementName, storage));
+            this.storage = storage;
+        }
+
+        @Override
+        public void close() {
+            if (detach() != null) {
+                this.storage.close();
+            }
+        }
+    }
+
+    /**
+     * A check list which is handed out by a pool. Each call of acquire() creates a new instance of this class, which forwards
+     * all calls to a blank check list taken from the pool. Calling close() resets the check list and puts it back into the 
+     * pool. As the check list is detached from this instance before, a stale reference cannot modify or release a check list 
+     * which has been handed out again.
+     */
+    final static class PooledCheckList<E> extends DelegatingCheckList<E> implements CloseableCheckList<E> {
+        private final Pool<BitStorageCheckList<E>> pool;
+
+        PooledCheckList(BitStorageCheckList<E> list, Pool<BitStorageCheckList<E>> pool) {
+            super(list);
+            this.pool = pool;
+        }
+
+        @Override
+        public void close() {
+            BitStorageCheckList<E> list = detach();
+
+            if (list == null) {
+                return;
+            }
+
+            if (!list.isBlank()) {
+                list.uncheckAll();
+            }
+
+            pool.release(list);
+        }
+    }
+
+    /**
+     * Forwards all calls to a check list until detach() is called. Afterwards, all calls throw an IllegalStateException. This is 
+     * the base for the closeable check lists; their close() methods detach the check list first and release its resources only 
+     * if it was still attached. Thus, further calls of close() are no-ops.
+     */
+    static abstract class DelegatingCheckList<E> extends AbstractCheckList<E> {
+        private BitStorageCheckList<E> list;
+
+        DelegatingCheckList(BitStorageCheckList<E> list) {
+            super(OTHER);
+            this.list = list;
+        }
+
+        /**
+         * Detaches the check list from this instance and returns it; returns null if it has been already detached.
+         */
+        BitStorageCheckList<E> detach() {
+            BitStorageCheckList<E> list = this.list;
+            this.list = null;
+            return list;
+        }
+
+        @Override
+        boolean checkImpl(E element) {
+            return list().check(element);
+        }
+
+        @Override
+        void uncheckImpl(E element) {
+            list().uncheck(element);
+        }
+
+        @Override
+        public void uncheckIfPresent(E element) {
+            list().uncheckIfPresent(element);
+        }
+
+        @Override
+        boolean checkIfImpl(Predicate<E> checkPredicate) {
+            return list().checkIf(checkPredicate);
+        }
+
+        @Override
+        public void uncheckIf(Predicate<E> checkPredicate) {
+            list().uncheckIf(checkPredicate);
+        }
+
+        @Override
+        public void checkAll() {
+            list().checkAll();
+        }
+
+        @Override
+        public void uncheckAll() {
+            list().uncheckAll();
+        }
+
+        @Override
+        boolean isCheckedImpl(E element) {
+            return list().isChecked(element);
+        }
+
+        @Override
+        boolean isCompleteImpl() {
+            return list().isComplete();
+        }
+
+        @Override
+        boolean isBlankImpl() {
+            return list().isBlank();
+        }
+
+        @Override
+        public int size() {
+            return list().size();
+        }
+
+        @Override
+        public Set<E> getElements() {
+            return list().getElements();
+        }
+
+        @Override
+        public Set<E> getCheckedElements() {
+            return list().getCheckedElements();
+        }
+
+        @Override
+        public Set<E> getUncheckedElements() {
+            return list().getUncheckedElements();
+        }
+
+        @Override
+        public Iterable<E> iterateCheckedElements() {
+            return attached(list().iterateCheckedElements());
+        }
+
+        @Override
+        public Iterable<E> iterateUncheckedElements() {
+            return attached(list().iterateUncheckedElements());
+        }
+
+        @Override
+        public long stateFingerprint() {
+            return list().stateFingerprint();
+        }
+
+        @Override
+        public CheckList<E> copy() {
+            return list().copy();
+        }
+
+        private BitStorageCheckList<E> list() {
+            BitStorageCheckList<E> list = this.list;
+
+            if (list == null) {
+                throw new IllegalStateException("The check list has been already closed");
+            }
+
+            return list;
+        }
+
+        /**
+         * The iterables of the delegate are lazy; without this wrapper, they would read the state of the next owner of a pooled 
+         * check list. The wrapper fails on any access once this instance has been detached.
+         */
+        private Iterable<E> attached(Iterable<E> iterable) {
+            return () -> {
+                list();
+                Iterator<E> iterator = iterable.iterator();
+
+                return new Iterator<E>() {
+                    @Override
+                    public boolean hasNext() {
+                        list();
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public E next() {
+                        list();
+                        return iterator.next();
+                    }
+                };
+            };
+        }
+    }
+
+    final static class CheckListPoolImpl<E> implements CheckListPool<E> {
+        private final BackingCollections.IndexedUnmodifiableSet<E> elements;
+        private final Pool<BitStorageCheckList<E>> pool;
+
+        CheckListPoolImpl(BackingCollections.IndexedUnmodifiableSet<E> elements, int maxIdle) {
+            this.elements = elements;
+            this.pool = new Pool<>(maxIdle, this::createList);
+        }
+
+        @Override
+        public CloseableCheckList<E> acquire() {
+            return new PooledCheckList<>(pool.acquire(), pool);
+        }
+
+        @Override
+        public Set<E> getElements() {
+            return elements;
+        }
+
+        int idleCount() {
+            return pool.idleCount();
+        }
+
+        private BitStorageCheckList<E> createList() {
+            return new BitStorageCheckList<>(elements, "element", new BitStorage.Stamped(elements.size()));
+        }
+    }
+
+    final static class HashMapCheckList<E> extends AbstractCheckList<E> {
         private final Set<E> elements;
         private final Map<E, Boolean> checked;
+        /**
+         * The fingerprint keys of the elements. This map is immutable and shared with the copies of this instance, so that their
+         * fingerprints stay comparable.
+         */
+        private final Map<E, Long> keys;
         private final String elementName;
         private int uncheckedCount;
         private final int size;
+        private long fingerprint;
 
         HashMapCheckList(Set<E> elements, String elementName) {
+            super(HASH_MAP);
             this.checked = createCheckedMap(elements);
             this.elements = Collections.unmodifiableSet(this.checked.keySet());
+            this.keys = createKeyMap(elements);
             this.size = this.elements.size();
             this.uncheckedCount = this.size;
             this.elementName = elementName;
         }
 
+        private HashMapCheckList(HashMapCheckList<E> source) {
+            super(HASH_MAP);
+            this.checked = new HashMap<>(source.checked);
+            this.elements = Collections.unmodifiableSet(this.checked.keySet());
+            this.keys = source.keys;
+            this.size = source.size;
+            this.uncheckedCount = source.uncheckedCount;
+            this.fingerprint = source.fingerprint;
+            this.elementName = source.elementName;
+        }
+
         @Override
-        public boolean check(E element) {
+        boolean checkImpl(E element) {
             doCheck(element);
 
             return this.uncheckedCount == 0;
@@ -616,11 +1208,12 @@ class CheckListImpl {
             if (!current) {
                 this.checked.put(element, Boolean.TRUE);
                 this.uncheckedCount--;
+                this.fingerprint ^= key(element);
             }
         }
 
         @Override
-        public void uncheck(E element) {
+        void uncheckImpl(E element) {
             Boolean current = this.checked.get(element);
 
             if (current == null) {
@@ -630,6 +1223,7 @@ class CheckListImpl {
             if (current) {
                 this.checked.put(element, Boolean.FALSE);
                 this.uncheckedCount++;
+                this.fingerprint ^= key(element);
             }
         }
 
@@ -644,11 +1238,12 @@ class CheckListImpl {
             if (current) {
                 this.checked.put(element, Boolean.FALSE);
                 this.uncheckedCount++;
+                this.fingerprint ^= key(element);
             }
         }
 
         @Override
-        public boolean checkIf(Predicate<E> checkPredicate) {
+        boolean checkIfImpl(Predicate<E> checkPredicate) {
             if (isComplete()) {
                 return true;
             }
@@ -657,6 +1252,7 @@ class CheckListImpl {
                 if (!v && checkPredicate.test(e)) {
                     this.checked.put(e, Boolean.TRUE);
                     this.uncheckedCount--;
+                    this.fingerprint ^= key(e);
                 }
             });
 
@@ -673,6 +1269,7 @@ class CheckListImpl {
                 if (v && checkPredicate.test(e)) {
                     this.checked.put(e, Boolean.FALSE);
                     this.uncheckedCount++;
+                    this.fingerprint ^= key(e);
                 }
             });
         }
@@ -684,7 +1281,9 @@ class CheckListImpl {
             }
 
             for (E element : elements) {
-                this.checked.put(element, Boolean.TRUE);
+                if (!this.checked.put(element, Boolean.TRUE)) {
+                    this.fingerprint ^= key(element);
+                }
             }
 
             this.uncheckedCount = 0;
@@ -701,10 +1300,25 @@ class CheckListImpl {
             }
 
             this.uncheckedCount = this.size;
+            this.fingerprint = 0;
         }
 
         @Override
-        public boolean isChecked(E element) {
+        public long stateFingerprint() {
+            return this.fingerprint;
+        }
+
+        private long key(E element) {
+            return this.keys.get(element);
+        }
+
+        @Override
+        public CheckList<E> copy() {
+            return new HashMapCheckList<>(this);
+        }
+
+        @Override
+        boolean isCheckedImpl(E element) {
             Boolean current = this.checked.get(element);
 
             if (current == null) {
@@ -715,12 +1329,12 @@ class CheckListImpl {
         }
 
         @Override
-        public boolean isComplete() {
+        boolean isCompleteImpl() {
             return this.uncheckedCount == 0;
         }
 
         @Override
-        public boolean isBlank() {
+        boolean isBlankImpl() {
             return this.uncheckedCount == this.size;
         }
 
@@ -881,6 +1495,159 @@ class CheckListImpl {
 
             return result;
         }
+
+        /**
+         * As the elements of this check list have no index, the keys are derived from the hash codes of the elements. The hash
+         * code alone would not do, as two elements with equal hash codes would get equal keys and cancel each other out.
+         * Thus, the upper 32 bits are the hash code and the lower 32 bits are the number of elements with the same hash code
+         * which precede the element in the iteration order of the element set.
+         */
+        static <E> Map<E, Long> createKeyMap(Set<E> elements) {
+            HashMap<E, Long> result = new HashMap<>(elements.size());
+            HashMap<Integer, Integer> hashCodeCounts = new HashMap<>();
+
+            for (E e : elements) {
+                int hashCode = e.hashCode();
+                int rank = hashCodeCounts.merge(hashCode, 1, Integer::sum) - 1;
+
+                result.put(e, Zobrist.key(((long) hashCode << 32) | rank));
+            }
+
+            return result;
+        }
+    }
+
+    /**
+     * Base class of the check list implementations. Like CheckTableImpl.AbstractCheckTable, the frequently called methods are final
+     * and dispatch with a switch on the kind field to the *Impl() methods. All implementation classes named in the switches are 
+     * final; thus, the calls are statically bound and the JIT can inline them even at call sites which see different check list 
+     * implementations. Only the kind OTHER uses virtual calls.
+     */
+    static abstract class AbstractCheckList<E> implements CheckList<E> {
+
+        static final byte TWO_ELEMENT = 0;
+        static final byte ARRAY = 1;
+        static final byte BIT_STORAGE = 2;
+        static final byte HASH_MAP = 3;
+        static final byte OTHER = 4;
+
+        final byte kind;
+
+        AbstractCheckList(byte kind) {
+            this.kind = kind;
+        }
+
+        @Override
+        public final boolean check(E element) {
+            switch (kind) {
+            case TWO_ELEMENT:
+                return ((TwoElementCheckList<E>) this).checkImpl(element);
+            case ARRAY:
+                return ((ArrayCheckList<E>) this).checkImpl(element);
+            case BIT_STORAGE:
+                return ((BitStorageCheckList<E>) this).checkImpl(element);
+            case HASH_MAP:
+                return ((HashMapCheckList<E>) this).checkImpl(element);
+            default:
+                return checkImpl(element);
+            }
+        }
+
+        @Override
+        public final void uncheck(E element) {
+            switch (kind) {
+            case TWO_ELEMENT:
+                ((TwoElementCheckList<E>) this).uncheckImpl(element);
+                break;
+            case ARRAY:
+                ((ArrayCheckList<E>) this).uncheckImpl(element);
+                break;
+            case BIT_STORAGE:
+                ((BitStorageCheckList<E>) this).uncheckImpl(element);
+                break;
+            case HASH_MAP:
+                ((HashMapCheckList<E>) this).uncheckImpl(element);
+                break;
+            default:
+                uncheckImpl(element);
+            }
+        }
+
+        @Override
+        public final boolean checkIf(Predicate<E> checkPredicate) {
+            switch (kind) {
+            case TWO_ELEMENT:
+                return ((TwoElementCheckList<E>) this).checkIfImpl(checkPredicate);
+            case ARRAY:
+                return ((ArrayCheckList<E>) this).checkIfImpl(checkPredicate);
+            case BIT_STORAGE:
+                return ((BitStorageCheckList<E>) this).checkIfImpl(checkPredicate);
+            case HASH_MAP:
+                return ((HashMapCheckList<E>) this).checkIfImpl(checkPredicate);
+            default:
+                return checkIfImpl(checkPredicate);
+            }
+        }
+
+        @Override
+        public final boolean isChecked(E element) {
+            switch (kind) {
+            case TWO_ELEMENT:
+                return ((TwoElementCheckList<E>) this).isCheckedImpl(element);
+            case ARRAY:
+                return ((ArrayCheckList<E>) this).isCheckedImpl(element);
+            case BIT_STORAGE:
+                return ((BitStorageCheckList<E>) this).isCheckedImpl(element);
+            case HASH_MAP:
+                return ((HashMapCheckList<E>) this).isCheckedImpl(element);
+            default:
+                return isCheckedImpl(element);
+            }
+        }
+
+        @Override
+        public final boolean isComplete() {
+            switch (kind) {
+            case TWO_ELEMENT:
+                return ((TwoElementCheckList<E>) this).isCompleteImpl();
+            case ARRAY:
+                return ((ArrayCheckList<E>) this).isCompleteImpl();
+            case BIT_STORAGE:
+                return ((BitStorageCheckList<E>) this).isCompleteImpl();
+            case HASH_MAP:
+                return ((HashMapCheckList<E>) this).isCompleteImpl();
+            default:
+                return isCompleteImpl();
+            }
+        }
+
+        @Override
+        public final boolean isBlank() {
+            switch (kind) {
+            case TWO_ELEMENT:
+                return ((TwoElementCheckList<E>) this).isBlankImpl();
+            case ARRAY:
+                return ((ArrayCheckList<E>) this).isBlankImpl();
+            case BIT_STORAGE:
+                return ((BitStorageCheckList<E>) this).isBlankImpl();
+            case HASH_MAP:
+                return ((HashMapCheckList<E>) this).isBlankImpl();
+            default:
+                return isBlankImpl();
+            }
+        }
+
+        abstract boolean checkImpl(E element);
+
+        abstract void uncheckImpl(E element);
+
+        abstract boolean checkIfImpl(Predicate<E> checkPredicate);
+
+        abstract boolean isCheckedImpl(E element);
+
+        abstract boolean isCompleteImpl();
+
+        abstract boolean isBlankImpl();
     }
 
 }
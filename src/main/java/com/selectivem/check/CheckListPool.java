@@ -0,0 +1,48 @@
+/* 
+ * Copyright 2024 Nils Bandener
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.selectivem.check;
+
+import java.util.Set;
+
+/**
+ * A pool of check lists which all have the same elements. The index of the elements is built only once, when the pool is created.
+ * 
+ * The acquire() method hands out a check list with all elements unchecked. Calling close() on the check list resets it and puts it
+ * back into the pool; afterwards, all calls on the check list throw an IllegalStateException, and further calls of close() are
+ * no-ops. Resetting a check list takes constant time, independently of the number of elements. Once the pool has been filled, 
+ * acquiring a check list only allocates a small handle object; the state of the elements is re-used.
+ * 
+ * Pools are thread safe; the check lists handed out by a pool are not.
+ */
+public interface CheckListPool<E> {
+
+    /**
+     * Creates a pool which keeps at most maxIdle check lists which are not in use.
+     */
+    static <E> CheckListPool<E> create(Set<E> elements, int maxIdle) {
+        return CheckListImpl.createPool(elements, maxIdle);
+    }
+
+    /**
+     * Returns a check list with all elements unchecked. The check list must be closed after use in order to return it to the pool.
+     */
+    CloseableCheckList<E> acquire();
+
+    Set<E> getElements();
+}
@@ -35,6 +35,7 @@ package com.selectivem.check;
 
 import java.util.Set;
 import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 
 /**
  * Specialized data structure which models a two-dimensional matrix. Each cell of the matrix can be marked as checked or unchecked.
@@ -75,6 +76,63 @@ public interface CheckTable<R, C> {
         return CheckTableImpl.create(rows, columns);
     }
 
+    /**
+     * Creates a new check table with the given rows and columns. All cells will be initially marked as unchecked.
+     * 
+     * The expectedDensity parameter is a hint about the fraction of cells which will be checked at most during the lifetime of the
+     * check table. For big tables with a low expected density, a sparse representation is used, which only occupies memory for the 
+     * checked cells. For big tables with a high expected density, the same representation only occupies memory for the unchecked
+     * cells, once most cells are checked. The hint does not limit the number of cells which can be checked.
+     * 
+     * @param expectedDensity A value between 0 and 1.
+     */
+    static <R, C> CheckTable<R, C> create(Set<R> rows, Set<C> columns, double expectedDensity) {
+        return CheckTableImpl.create(rows, columns, expectedDensity);
+    }
+
+    /**
+     * Creates a new check table with rows and columns which already carry dense ordinal numbers (like slot numbers or ids). 
+     * All cells will be initially marked as unchecked.
+     * 
+     * The check table does not build hash based indices of the rows and columns; instead, it uses the given indexers to look up
+     * rows and columns. Thus, no hashing is necessary, neither when creating the check table nor when checking cells.
+     * 
+     * @param rows The rows of the check table. The row with the ordinal number i must be stored at position i. The array must not
+     * contain null values. The check table uses the array without copying it; thus, it must not be modified afterwards.
+     * @param rowIndexer A function which returns the ordinal number of a row.
+     * @param columns The columns of the check table. The same requirements as for rows apply.
+     * @param columnIndexer A function which returns the ordinal number of a column.
+     * @throws IllegalArgumentException if an array contains null values or duplicates or if an indexer does not return the position
+     * of a row or column in its array.
+     */
+    static <R, C> CheckTable<R, C> create(R[] rows, ToIntFunction<R> rowIndexer, C[] columns, ToIntFunction<C> columnIndexer) {
+        return CheckTableImpl.create(rows, rowIndexer, columns, columnIndexer);
+    }
+
+    /**
+     * Creates a new check table with the given rows and columns, which keeps the state of its cells in direct memory outside of 
+     * the Java heap. All cells will be initially marked as unchecked.
+     * 
+     * This keeps big check tables out of the heap, so that they do not need to be visited by the garbage collector. The check table
+     * must be closed when it is no longer needed, which frees the direct memory; afterwards, the check table cannot be used any 
+     * more.
+     */
+    static <R, C> CloseableCheckTable<R, C> createOffHeap(Set<R> rows, Set<C> columns) {
+        return CheckTableImpl.createOffHeap(rows, columns);
+    }
+
+    /**
+     * Creates a new check table with the given rows and columns, which compares rows and columns by reference (==) instead of equals(). 
+     * All cells will be initially marked as unchecked.
+     * 
+     * This saves equals() calls when looking up cells. However, it may be only used if all callers use the canonical instances 
+     * of the rows and columns (like interned strings or singleton objects). Rows or columns which are equal to, but not identical with 
+     * a row or column of this check table are treated as unknown; methods like check() will throw an IllegalArgumentException for these.
+     */
+    static <R, C> CheckTable<R, C> createIdentityBased(Set<R> rows, Set<C> columns) {
+        return CheckTableImpl.createIdentityBased(rows, columns);
+    }
+
     /**
      * Marks the cell in the given row and column as checked. If that cell is already checked, this will be a no-op.
      * 
@@ -118,6 +176,28 @@ public interface CheckTable<R, C> {
      */
     boolean checkIf(Predicate<R> rowCheckPredicate, C column);
 
+    /**
+     * Marks all cells as checked whose row matches the given rowCheckPredicate and whose column matches the given 
+     * columnCheckPredicate. Each predicate is applied at most once per row or column, respectively; the predicates are not 
+     * applied if the check table is already complete.
+     * 
+     * @param rowCheckPredicate The predicate to be applied to the rows. 
+     * @param columnCheckPredicate The predicate to be applied to the columns. 
+     * @return Returns true, if the check table is complete. Returns false, if the check table is not yet complete.
+     */
+    boolean checkIf(Predicate<R> rowCheckPredicate, Predicate<C> columnCheckPredicate);
+
+    /**
+     * Returns a handle for the given row, which can be used to check several cells of the row. The row is resolved only once 
+     * when the handle is created; thus, using the handle is cheaper than repeated calls of check(row, column) with the same row.
+     * 
+     * The handle stays valid as long as this check table exists and reflects all modifications of this check table. 
+     * 
+     * @param row The row of the cells to be checked.
+     * @throws IllegalArgumentException If the supplied row is not known by this instance.
+     */
+    Row<R, C> row(R row);
+
     /**
      * Marks the cell in the given row and column as not checked. If that cell is not checked, this will be a no-op.
      * 
@@ -346,4 +426,85 @@ public interface CheckTable<R, C> {
      */
     Iterable<C> iterateUncheckedColumns(R row);
 
+    /**
+     * Returns a 64 bit fingerprint of the checked cells of this check table. The fingerprint is maintained
+     * incrementally on each modification; thus, this method takes constant time.
+     * 
+     * Instances with equal checked cells have equal fingerprints, provided they were created with the same rows and columns by the
+     * same factory method, or are copies of each other. Different states usually have different fingerprints; like with any hash,
+     * collisions are possible, though.
+     */
+    long stateFingerprint();
+
+    /**
+     * Returns a new check table with the same rows, columns and checked cells. The copy is independent of this instance;
+     * modifications of one do not affect the other one. 
+     * 
+     * The copy shares the immutable row and column sets with this instance; only the state of the cells is copied. The copy is 
+     * always kept on the heap; thus, copies of off-heap, pooled or persistent check tables do not need to be closed.
+     */
+    CheckTable<R, C> copy();
+
+    /**
+     * Returns a new check table with the same rows, columns and checked cells, like copy(). However, implementations may defer 
+     * copying the state of the cells until this instance or the returned instance is modified for the first time. This is useful
+     * if it is likely that the copy will be discarded without modifying it.
+     * 
+     * The default implementation just calls copy().
+     */
+    default CheckTable<R, C> fork() {
+        return copy();
+    }
+
+    /**
+     * Returns an immutable and thread safe snapshot of this check table. Subsequent modifications of this instance do not affect 
+     * the snapshot. 
+     * 
+     * Array based check tables hand over their cells to the snapshot in constant time; the check table copies its cells only when it
+     * is modified for the next time. Other implementations copy their cells.
+     */
+    default FrozenCheckTable<R, C> freeze() {
+        return CheckTableImpl.freeze(this);
+    }
+
+    /**
+     * A handle for a single row of a check table. See CheckTable.row().
+     */
+    interface Row<R, C> {
+
+        /**
+         * Returns the row represented by this handle.
+         */
+        R getRow();
+
+        /**
+         * Marks the cell in this row and the given column as checked. If that cell is already checked, this will be a no-op.
+         * 
+         * @param column The column of the cell to be checked.
+         * @return Returns true, if the whole check table is complete. Returns false, if the check table is not yet complete.
+         * @throws IllegalArgumentException If the supplied column is not known by the check table.
+         */
+        boolean check(C column);
+
+        /**
+         * Iterates through all unchecked cells of this row and applies the given columnCheckPredicate. 
+         * If the predicate returns true, the cell will be marked as checked.
+         * 
+         * @param columnCheckPredicate The predicate to be applied to the unchecked cells of the row. 
+         * @return Returns true, if the whole check table is complete. Returns false, if the check table is not yet complete.
+         */
+        boolean checkIf(Predicate<C> columnCheckPredicate);
+
+        /**
+         * Returns true if the cell in this row and the given column is checked.
+         * 
+         * @throws IllegalArgumentException if the given column is not known to the check table.
+         */
+        boolean isChecked(C column);
+
+        /**
+         * Returns true if all cells of this row are marked as checked.
+         */
+        boolean isComplete();
+    }
 }
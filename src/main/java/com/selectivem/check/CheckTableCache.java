@@ -0,0 +1,82 @@
+/* 
+ * Copyright 2024 Nils Bandener
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.selectivem.check;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * A bounded cache for evaluated check tables. This is useful if the same check table (same rows, same columns, same rules deciding
+ * which cells are checked) is built over and over again, for example for identical requests.
+ * 
+ * An entry is identified by:
+ * <ul>
+ * <li>a universe object, which is compared by identity. This is usually the object which owns the rules, like a compiled rule set.
+ * <li>a rule set version supplied by the caller. Incrementing the version makes all entries with older versions unreachable; 
+ * these are evicted eventually.
+ * <li>the rows and columns of the check table, which are compared by equals().
+ * </ul>
+ * 
+ * The cache stores frozen check tables; thus, cached results can be shared between threads. If the cache exceeds its maximum 
+ * size, an entry which has not been used recently is evicted. This approximates LRU with the CLOCK algorithm, so that neither
+ * hits nor evictions need to maintain a strict order of all entries.
+ * 
+ * Caches are thread safe. Hits do not take any locks. The evaluation of missing entries is performed without holding any locks; 
+ * thus, concurrent requests for the same missing entry might evaluate it more than once.
+ */
+public interface CheckTableCache<R, C> {
+
+    /**
+     * Creates a cache which keeps at most maxSize check tables.
+     */
+    static <R, C> CheckTableCache<R, C> create(int maxSize) {
+        return CheckTableImpl.createCache(maxSize);
+    }
+
+    /**
+     * Returns the cached check table for the given key. If there is no such check table, a new check table with the given rows and
+     * columns is created and passed to the evaluator, which is supposed to check the respective cells. Afterwards, the check table 
+     * is frozen, put into the cache and returned.
+     */
+    FrozenCheckTable<R, C> get(Object universe, long ruleSetVersion, Set<R> rows, Set<C> columns, Consumer<CheckTable<R, C>> evaluator);
+
+    /**
+     * Removes all entries from the cache. The statistics are not reset.
+     */
+    void clear();
+
+    /**
+     * Returns the number of check tables in the cache.
+     */
+    int size();
+
+    /**
+     * Returns the number of calls to get() which could be served from the cache.
+     */
+    long hitCount();
+
+    /**
+     * Returns the number of calls to get() which needed to evaluate a check table.
+     */
+    long missCount();
+
+    /**
+     * Returns the number of entries which were evicted because the cache exceeded its maximum size.
+     */
+    long evictionCount();
+}
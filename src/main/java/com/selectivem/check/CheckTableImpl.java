@@ -33,14 +33,45 @@
 
 package com.selectivem.check;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 
 class CheckTableImpl {
 
+    /**
+     * The maximum number of cells a table backed by a single array can have.
+     */
+    static final long MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * Tables with an expected density below this value (or above 1 minus this value) use a sparse representation. Sparse chunks
+     * need 2 bytes per checked (or unchecked) cell, while ArrayCheckTable needs 1 byte per cell.
+     */
+    static final double SPARSE_DENSITY_THRESHOLD = 0.05;
+
+    /**
+     * Tables with fewer cells than this are not worth a sparse representation.
+     */
+    static final long MIN_SPARSE_SIZE = BitStorage.Sparse.CHUNK_SIZE;
+
     static <R, C> CheckTable<R, C> create(R row, Set<C> columns) {
         int columnsSize = columns.size();
 
@@ -82,20 +113,130 @@ class CheckTableImpl {
             }
         } else if (columnsSize == 1) {
             return new CheckTableImpl.SingleColumnCheckTable<>(rows, columns.iterator().next());
+        } else {
+            return createIndexed(BackingCollections.IndexedUnmodifiableSet.of(rows), BackingCollections.IndexedUnmodifiableSet.of(columns));
+        }
+    }
+
+    /**
+     * Creates an ArrayCheckTable or, if there are more cells than a single array can hold, a BitStorageCheckTable. The sets 
+     * determine how rows and columns are looked up (by equals, by identity or by ordinal number).
+     */
+    static <R, C> CheckTable<R, C> createIndexed(BackingCollections.IndexedUnmodifiableSet<R> rows,
+            BackingCollections.IndexedUnmodifiableSet<C> columns) {
+        if ((long) rows.size() * (long) columns.size() > MAX_ARRAY_SIZE) {
+            return new CheckTableImpl.BitStorageCheckTable<>(rows, columns);
         } else {
             return new CheckTableImpl.ArrayCheckTable<>(rows, columns);
         }
     }
 
+    static <R, C> CheckTable<R, C> create(Set<R> rows, Set<C> columns, double expectedDensity) {
+        if (!(expectedDensity >= 0 && expectedDensity <= 1)) {
+            throw new IllegalArgumentException("Invalid expectedDensity: " + expectedDensity);
+        }
+
+        int rowsSize = rows.size();
+        int columnsSize = columns.size();
+        long size = (long) rowsSize * (long) columnsSize;
+
+        if (rowsSize > 1 && columnsSize > 1 && size >= MIN_SPARSE_SIZE
+                && (expectedDensity < SPARSE_DENSITY_THRESHOLD || expectedDensity > 1 - SPARSE_DENSITY_THRESHOLD)) {
+            return new CheckTableImpl.BitStorageCheckTable<>(BackingCollections.IndexedUnmodifiableSet.of(rows),
+                    BackingCollections.IndexedUnmodifiableSet.of(columns), new BitStorage.Sparse(size));
+        } else {
+            return create(rows, columns);
+        }
+    }
+
+    static <R, C> CloseableCheckTable<R, C> createOffHeap(Set<R> rows, Set<C> columns) {
+        if (rows.size() == 0 || columns.size() == 0) {
+            throw new IllegalArgumentException("Must contain at least one column and at least one row (got " + rows + "/" + columns + ")");
+        }
+
+        return new CheckTableImpl.DirectCheckTable<>(BackingCollections.IndexedUnmodifiableSet.of(rows),
+                BackingCollections.IndexedUnmodifiableSet.of(columns), new BitStorage.Direct((long) rows.size() * (long) columns.size()));
+    }
+
+    static <R, C> SpeculativeCheckTable<R, C> createSpeculative(Set<R> rows, Set<C> columns) {
+        if (rows.size() == 0 || columns.size() == 0) {
+            throw new IllegalArgumentException("Must contain at least one column and at least one row (got " + rows + "/" + columns + ")");
+        }
+
+        return new CheckTableImpl.JournaledCheckTable<>(BackingCollections.IndexedUnmodifiableSet.of(rows),
+                BackingCollections.IndexedUnmodifiableSet.of(columns), new BitStorage.Journaled((long) rows.size() * (long) columns.size()));
+    }
+
+    static <R, C> CheckTablePool<R, C> createPool(Set<R> rows, Set<C> columns, int maxIdle) {
+        if (rows.size() == 0 || columns.size() == 0) {
+            throw new IllegalArgumentException("Must contain at least one column and at least one row (got " + rows + "/" + columns + ")");
+        }
+
+        return new CheckTablePoolImpl<>(BackingCollections.IndexedUnmodifiableSet.of(rows), BackingCollections.IndexedUnmodifiableSet.of(columns),
+                maxIdle);
+    }
+
+    static <R, C> CheckTableCache<R, C> createCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Invalid maxSize: " + maxSize);
+        }
+
+        return new CheckTableCacheImpl<>(maxSize);
+    }
+
+    static <R, C> PersistentCheckTable<R, C> open(Path file, Set<R> rows, Set<C> columns) throws IOException {
+        if (rows.size() == 0 || columns.size() == 0) {
+            throw new IllegalArgumentException("Must contain at least one column and at least one row (got " + rows + "/" + columns + ")");
+        }
+
+        return MappedCheckTable.open(file, BackingCollections.IndexedUnmodifiableSet.of(rows), BackingCollections.IndexedUnmodifiableSet.of(columns));
+    }
+
+    static <R, C> FrozenCheckTable<R, C> freeze(CheckTable<R, C> table) {
+        return new FrozenCheckTableImpl<>(table.fork());
+    }
+
+    static <R, C> CheckTable<R, C> create(R[] rows, ToIntFunction<R> rowIndexer, C[] columns, ToIntFunction<C> columnIndexer) {
+        if (rows.length == 0 || columns.length == 0) {
+            throw new IllegalArgumentException(
+                    "Must contain at least one column and at least one row (got " + Arrays.toString(rows) + "/" + Arrays.toString(columns) + ")");
+        }
+
+        BackingCollections.OrdinalBackedSet<R> rowSet = new BackingCollections.OrdinalBackedSet<>(rows, rowIndexer);
+        BackingCollections.OrdinalBackedSet<C> columnSet = new BackingCollections.OrdinalBackedSet<>(columns, columnIndexer);
+
+        if (rows.length == 1) {
+            if (columns.length == 1) {
+                return new CheckTableImpl.SingleCellCheckTable<>(rows[0], columns[0], rowSet, columnSet);
+            } else {
+                return new CheckTableImpl.SingleRowCheckTable<>(rows[0], new CheckListImpl.ArrayCheckList<>(columnSet, "column"));
+            }
+        } else if (columns.length == 1) {
+            return new CheckTableImpl.SingleColumnCheckTable<>(new CheckListImpl.ArrayCheckList<>(rowSet, "row"), columns[0]);
+        } else {
+            return createIndexed(rowSet, columnSet);
+        }
+    }
+
+    static <R, C> CheckTable<R, C> createIdentityBased(Set<R> rows, Set<C> columns) {
+        if (rows.size() == 0 || columns.size() == 0) {
+            throw new IllegalArgumentException("Must contain at least one column and at least one row (got " + rows + "/" + columns + ")");
+        }
+
+        return createIndexed(BackingCollections.IndexedUnmodifiableSet.ofIdentity(rows),
+                BackingCollections.IndexedUnmodifiableSet.ofIdentity(columns));
+    }
+
     final static class SingleCellCheckTable<R, C> extends AbstractCheckTable<R, C> {
         private final R row;
         private final C column;
-        private final Set<R> rowSet;
-        private final Set<C> columnSet;
+        private final BackingCollections.IndexedUnmodifiableSet<R> rowSet;
+        private final BackingCollections.IndexedUnmodifiableSet<C> columnSet;
         private boolean checked = false;
 
         SingleCellCheckTable(R row, C column, BackingCollections.IndexedUnmodifiableSet<R> rowSet,
                 BackingCollections.IndexedUnmodifiableSet<C> columnSet) {
+            super(SINGLE_CELL);
             this.row = row;
             this.column = column;
             this.rowSet = rowSet;
@@ -103,7 +244,19 @@ class CheckTableImpl {
         }
 
         @Override
-        public boolean check(R row, C column) {
+        public long stateFingerprint() {
+            return checked ? Zobrist.key(0) : 0;
+        }
+
+        @Override
+        public CheckTable<R, C> copy() {
+            SingleCellCheckTable<R, C> result = new SingleCellCheckTable<>(row, column, rowSet, columnSet);
+            result.checked = this.checked;
+            return result;
+        }
+
+        @Override
+        boolean checkImpl(R row, C column) {
             if (!row.equals(this.row)) {
                 throw new IllegalArgumentException("Invalid row: " + row);
             }
@@ -120,7 +273,7 @@ class CheckTableImpl {
         }
 
         @Override
-        public void uncheck(R row, C column) {
+        void uncheckImpl(R row, C column) {
             if (!row.equals(this.row)) {
                 throw new IllegalArgumentException("Invalid row: " + row);
             }
@@ -135,17 +288,17 @@ class CheckTableImpl {
         }
 
         @Override
-        public boolean isComplete() {
+        boolean isCompleteImpl() {
             return checked;
         }
 
         @Override
-        public boolean isBlank() {
+        boolean isBlankImpl() {
             return !checked;
         }
 
         @Override
-        public boolean checkIf(R row, Predicate<C> columnCheckPredicate) {
+        boolean checkIfImpl(R row, Predicate<C> columnCheckPredicate) {
             if (!row.equals(this.row)) {
                 throw new IllegalArgumentException("Invalid row: " + row);
             }
@@ -178,6 +331,15 @@ class CheckTableImpl {
             return checked;
         }
 
+        @Override
+        public boolean checkIf(Predicate<R> rowCheckPredicate, Predicate<C> columnCheckPredicate) {
+            if (!checked && rowCheckPredicate.test(row) && columnCheckPredicate.test(column)) {
+                checked = true;
+            }
+
+            return checked;
+        }
+
         @Override
         public void uncheckIf(R row, Predicate<C> columnCheckPredicate) {
             if (!row.equals(this.row)) {
@@ -201,7 +363,7 @@ class CheckTableImpl {
         }
 
         @Override
-        public boolean isChecked(R row, C column) {
+        boolean isCheckedImpl(R row, C column) {
             if (!row.equals(this.row)) {
                 throw new IllegalArgumentException("Invalid row: " + row);
             }
@@ -419,12 +581,34 @@ class CheckTableImpl {
         private final CheckList<C> columns;
 
         SingleRowCheckTable(R row, Set<C> columns) {
+            super(SINGLE_ROW);
             this.row = row;
             this.columns = CheckListImpl.create(columns, "column");
         }
 
+        SingleRowCheckTable(R row, CheckList<C> columns) {
+            super(SINGLE_ROW);
+            this.row = row;
+            this.columns = columns;
+        }
+
+        @Override
+        public long stateFingerprint() {
+            return columns.stateFingerprint();
+        }
+
+        @Override
+        public CheckTable<R, C> copy() {
+            return new SingleRowCheckTable<>(row, columns.copy());
+        }
+
+        @Override
+        public CheckTable<R, C> fork() {
+            return new SingleRowCheckTable<>(row, columns.fork());
+        }
+
         @Override
-        public boolean check(R row, C column) {
+        boolean checkImpl(R row, C column) {
             if (!row.equals(this.row)) {
                 throw new IllegalArgumentException("Invalid row: " + row);
             }
@@ -433,7 +617,7 @@ class CheckTableImpl {
         }
 
         @Override
-        public void uncheck(R row, C column) {
+        void uncheckImpl(R row, C column) {
             if (!row.equals(this.row)) {
                 throw new IllegalArgumentException("Invalid row: " + row);
             }
@@ -442,17 +626,17 @@ class CheckTableImpl {
         }
 
         @Override
-        public boolean isComplete() {
+        boolean isCompleteImpl() {
             return this.columns.isComplete();
         }
 
         @Override
-        public boolean isBlank() {
+        boolean isBlankImpl() {
             return this.columns.isBlank();
         }
 
         @Override
-        public boolean checkIf(R row, Predicate<C> columnCheckPredicate) {
+        boolean checkIfImpl(R row, Predicate<C> columnCheckPredicate) {
             if (!row.equals(this.row)) {
                 throw new IllegalArgumentException("Invalid row: " + row);
             }
@@ -473,6 +657,28 @@ class CheckTableImpl {
             }
         }
 
+        @Override
+        public boolean checkIf(Predicate<R> rowCheckPredicate, Predicate<C> columnCheckPredicate) {
+            if (isComplete()) {
+                return true;
+            }
+
+            if (rowCheckPredicate.test(row)) {
+                return columns.checkIf(columnCheckPredicate);
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public Row<R, C> row(R row) {
+            if (!row.equals(this.row)) {
+                throw new IllegalArgumentException("Invalid row: " + row);
+            }
+
+            return new RowHandle();
+        }
+
         @Override
         public void uncheckIf(R row, Predicate<C> columnCheckPredicate) {
             if (!row.equals(this.row)) {
@@ -490,7 +696,7 @@ class CheckTableImpl {
         }
 
         @Override
-        public boolean isChecked(R row, C column) {
+        boolean isCheckedImpl(R row, C column) {
             if (!row.equals(this.row)) {
                 throw new IllegalArgumentException("Invalid row: " + row);
             }
@@ -679,6 +885,34 @@ class CheckTableImpl {
         public boolean containsCellFor(R row, C column) {
             return this.row.equals(row) && this.columns.getElements().contains(column);
         }
+
+        private class RowHandle implements Row<R, C> {
+
+            @Override
+            public R getRow() {
+                return row;
+            }
+
+            @Override
+            public boolean check(C column) {
+                return columns.check(column);
+            }
+
+            @Override
+            public boolean checkIf(Predicate<C> columnCheckPredicate) {
+                return columns.checkIf(columnCheckPredicate);
+            }
+
+            @Override
+            public boolean isChecked(C column) {
+                return columns.isChecked(column);
+            }
+
+            @Override
+            public boolean isComplete() {
+                return columns.isComplete();
+            }
+        }
     }
 
     final static class SingleColumnCheckTable<R, C> extends AbstractCheckTable<R, C> {
@@ -686,12 +920,34 @@ class CheckTableImpl {
         private final CheckList<R> rows;
 
         SingleColumnCheckTable(Set<R> rows, C column) {
+            super(SINGLE_COLUMN);
             this.column = column;
             this.rows = CheckListImpl.create(rows, "row");
         }
 
+        SingleColumnCheckTable(CheckList<R> rows, C column) {
+            super(SINGLE_COLUMN);
+            this.column = column;
+            this.rows = rows;
+        }
+
+        @Override
+        public long stateFingerprint() {
+            return rows.stateFingerprint();
+        }
+
         @Override
-        public boolean check(R row, C column) {
+        public CheckTable<R, C> copy() {
+            return new SingleColumnCheckTable<>(rows.copy(), column);
+        }
+
+        @Override
+        public CheckTable<R, C> fork() {
+            return new SingleColumnCheckTable<>(rows.fork(), column);
+        }
+
+        @Override
+        boolean checkImpl(R row, C column) {
             if (!column.equals(this.column)) {
                 throw new IllegalArgumentException("Invalid column: " + column);
             }
@@ -700,7 +956,7 @@ class CheckTableImpl {
         }
 
         @Override
-        public void uncheck(R row, C column) {
+        void uncheckImpl(R row, C column) {
             if (!column.equals(this.column)) {
                 throw new IllegalArgumentException("Invalid column: " + column);
             }
@@ -709,7 +965,7 @@ class CheckTableImpl {
         }
 
         @Override
-        public boolean checkIf(R row, Predicate<C> columnCheckPredicate) {
+        boolean checkIfImpl(R row, Predicate<C> columnCheckPredicate) {
             if (isComplete()) {
                 return true;
             }
@@ -730,6 +986,19 @@ class CheckTableImpl {
             return rows.checkIf(rowCheckPredicate);
         }
 
+        @Override
+        public boolean checkIf(Predicate<R> rowCheckPredicate, Predicate<C> columnCheckPredicate) {
+            if (isComplete()) {
+                return true;
+            }
+
+            if (columnCheckPredicate.test(column)) {
+                return rows.checkIf(rowCheckPredicate);
+            } else {
+                return false;
+            }
+        }
+
         @Override
         public void uncheckIf(R row, Predicate<C> columnCheckPredicate) {
             if (!rows.getElements().contains(row)) {
@@ -751,7 +1020,7 @@ class CheckTableImpl {
         }
 
         @Override
-        public boolean isChecked(R row, C column) {
+        boolean isCheckedImpl(R row, C column) {
             if (!column.equals(this.column)) {
                 throw new IllegalArgumentException("Invalid column: " + column);
             }
@@ -801,12 +1070,12 @@ class CheckTableImpl {
         }
 
         @Override
-        public boolean isComplete() {
+        boolean isCompleteImpl() {
             return this.rows.isComplete();
         }
 
         @Override
-        public boolean isBlank() {
+        boolean isBlankImpl() {
             return this.rows.isBlank();
         }
 
@@ -928,16 +1197,39 @@ class CheckTableImpl {
         private final BackingCollections.IndexedUnmodifiableSet<R> rows;
         private final BackingCollections.IndexedUnmodifiableSet<C> columns;
 
-        private final boolean[] table;
+        private boolean[] table;
         private int checkedCount = 0;
         private int uncheckedCount;
+        private long fingerprint;
         private final int size;
         private final int rowCount;
         private final int columnCount;
 
+        /**
+         * True if the table array might be also referenced by another instance created by fork(). In this case, the array must be
+         * copied before it is modified.
+         */
+        private boolean shared;
+
+        /**
+         * Buffer for the indices of the matching rows in checkIf(Predicate, Predicate); allocated on first use and then reused.
+         */
+        private int[] matchingRowsBuffer;
+
         ArrayCheckTable(Set<R> rows, Set<C> columns) {
-            this.rows = BackingCollections.IndexedUnmodifiableSet.of(rows);
-            this.columns = BackingCollections.IndexedUnmodifiableSet.of(columns);
+            this(BackingCollections.IndexedUnmodifiableSet.of(rows), BackingCollections.IndexedUnmodifiableSet.of(columns));
+        }
+
+        ArrayCheckTable(BackingCollections.IndexedUnmodifiableSet<R> rows, BackingCollections.IndexedUnmodifiableSet<C> columns) {
+            super(ARRAY);
+
+            if ((long) rows.size() * (long) columns.size() > MAX_ARRAY_SIZE) {
+                // The int index of a cell would overflow; use BitStorageCheckTable instead
+                throw new IllegalArgumentException("Too many cells for an ArrayCheckTable: " + rows.size() + " x " + columns.size());
+            }
+
+            this.rows = rows;
+            this.columns = columns;
             this.size = this.rows.size() * this.columns.size();
             this.table = new boolean[this.size];
             this.rowCount = this.rows.size();
@@ -945,12 +1237,57 @@ class CheckTableImpl {
             this.uncheckedCount = size;
         }
 
+        private ArrayCheckTable(ArrayCheckTable<R, C> source, boolean[] table, boolean shared) {
+            super(ARRAY);
+            this.rows = source.rows;
+            this.columns = source.columns;
+            this.size = source.size;
+            this.table = table;
+            this.shared = shared;
+            this.rowCount = source.rowCount;
+            this.columnCount = source.columnCount;
+            this.checkedCount = source.checkedCount;
+            this.uncheckedCount = source.uncheckedCount;
+            this.fingerprint = source.fingerprint;
+        }
+
         private int tableIndex(int rowIndex, int columnIndex) {
             return rowIndex + columnIndex * this.rowCount;
         }
 
         @Override
-        public boolean check(R row, C column) {
+        public long stateFingerprint() {
+            return this.fingerprint;
+        }
+
+        @Override
+        public CheckTable<R, C> copy() {
+            return new ArrayCheckTable<>(this, this.table.clone(), false);
+        }
+
+        /**
+         * Returns a new check table which initially shares the table array with this instance. Both instances copy the array
+         * before they modify it for the first time.
+         */
+        @Override
+        public CheckTable<R, C> fork() {
+            if (!this.shared) {
+                // Avoids writes on frozen instances, which might be read concurrently
+                this.shared = true;
+            }
+
+            return new ArrayCheckTable<>(this, this.table, true);
+        }
+
+        private void unshare() {
+            if (this.shared) {
+                this.table = this.table.clone();
+                this.shared = false;
+            }
+        }
+
+        @Override
+        boolean checkImpl(R row, C column) {
 
             int rowIndex = rows.elementToIndex(row);
 
@@ -967,7 +1304,9 @@ class CheckTableImpl {
             int i = tableIndex(rowIndex, columnIndex);
 
             if (!this.table[i]) {
+                unshare();
                 this.table[i] = true;
+                this.fingerprint ^= Zobrist.key(i);
                 this.checkedCount++;
                 this.uncheckedCount--;
             }
@@ -976,7 +1315,7 @@ class CheckTableImpl {
         }
 
         @Override
-        public void uncheck(R row, C column) {
+        void uncheckImpl(R row, C column) {
 
             int rowIndex = rows.elementToIndex(row);
 
@@ -993,7 +1332,9 @@ class CheckTableImpl {
             int i = tableIndex(rowIndex, columnIndex);
 
             if (this.table[i]) {
+                unshare();
                 this.table[i] = false;
+                this.fingerprint ^= Zobrist.key(i);
                 this.checkedCount--;
                 this.uncheckedCount++;
             }
@@ -1003,7 +1344,14 @@ class CheckTableImpl {
         public void uncheckAll() {
             this.checkedCount = 0;
             this.uncheckedCount = this.size;
-            Arrays.fill(this.table, false);
+            this.fingerprint = 0;
+
+            if (this.shared) {
+                this.table = new boolean[this.size];
+                this.shared = false;
+            } else {
+                Arrays.fill(this.table, false);
+            }
         }
 
         @Override
@@ -1020,7 +1368,9 @@ class CheckTableImpl {
                         int i = tableIndex(rowIndex, columnIndex);
 
                         if (this.table[i]) {
+                            unshare();
                             this.table[i] = false;
+                            this.fingerprint ^= Zobrist.key(i);
                             this.checkedCount--;
                             this.uncheckedCount++;
 
@@ -1049,7 +1399,9 @@ class CheckTableImpl {
                 int i = tableIndex(rowIndex, columnIndex);
 
                 if (this.table[i]) {
+                    unshare();
                     this.table[i] = false;
+                    this.fingerprint ^= Zobrist.key(i);
                     this.checkedCount--;
                     this.uncheckedCount++;
 
@@ -1076,7 +1428,9 @@ class CheckTableImpl {
                 int i = tableIndex(rowIndex, columnIndex);
 
                 if (this.table[i]) {
+                    unshare();
                     this.table[i] = false;
+                    this.fingerprint ^= Zobrist.key(i);
                     this.checkedCount--;
                     this.uncheckedCount++;
 
@@ -1088,17 +1442,17 @@ class CheckTableImpl {
         }
 
         @Override
-        public boolean isComplete() {
+        boolean isCompleteImpl() {
             return this.uncheckedCount == 0;
         }
 
         @Override
-        public boolean isBlank() {
+        boolean isBlankImpl() {
             return this.checkedCount == 0;
         }
 
         @Override
-        public boolean isChecked(R row, C column) {
+        boolean isCheckedImpl(R row, C column) {
             int rowIndex = rows.elementToIndex(row);
 
             if (rowIndex == -1) {
@@ -1117,7 +1471,7 @@ class CheckTableImpl {
         }
 
         @Override
-        public boolean checkIf(R row, Predicate<C> columnCheckPredicate) {
+        boolean checkIfImpl(R row, Predicate<C> columnCheckPredicate) {
             int rowIndex = rows.elementToIndex(row);
 
             if (rowIndex == -1) {
@@ -1129,7 +1483,9 @@ class CheckTableImpl {
 
                 if (!this.table[i]) {
                     if (columnCheckPredicate.test(this.columns.indexToElement(columnIndex))) {
+                        unshare();
                         this.table[i] = true;
+                        this.fingerprint ^= Zobrist.key(i);
                         this.checkedCount++;
                         this.uncheckedCount--;
 
@@ -1156,7 +1512,60 @@ class CheckTableImpl {
 
                 if (!this.table[i]) {
                     if (rowCheckPredicate.test(this.rows.indexToElement(rowIndex))) {
+                        unshare();
+                        this.table[i] = true;
+                        this.fingerprint ^= Zobrist.key(i);
+                        this.checkedCount++;
+                        this.uncheckedCount--;
+
+                        if (this.uncheckedCount == 0) {
+                            return true;
+                        }
+                    }
+                }
+            }
+
+            return this.uncheckedCount == 0;
+        }
+
+        @Override
+        public boolean checkIf(Predicate<R> rowCheckPredicate, Predicate<C> columnCheckPredicate) {
+            if (this.uncheckedCount == 0) {
+                return true;
+            }
+
+            int[] matchingRows = this.matchingRowsBuffer;
+
+            if (matchingRows == null) {
+                matchingRows = this.matchingRowsBuffer = new int[rowCount];
+            }
+
+            int matchingRowCount = 0;
+
+            for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+                if (rowCheckPredicate.test(this.rows.indexToElement(rowIndex))) {
+                    matchingRows[matchingRowCount++] = rowIndex;
+                }
+            }
+
+            if (matchingRowCount == 0) {
+                return false;
+            }
+
+            for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+                if (!columnCheckPredicate.test(this.columns.indexToElement(columnIndex))) {
+                    continue;
+                }
+
+                int offset = tableIndex(0, columnIndex);
+
+                for (int k = 0; k < matchingRowCount; k++) {
+                    int i = offset + matchingRows[k];
+
+                    if (!this.table[i]) {
+                        unshare();
                         this.table[i] = true;
+                        this.fingerprint ^= Zobrist.key(i);
                         this.checkedCount++;
                         this.uncheckedCount--;
 
@@ -1206,15 +1615,9 @@ class CheckTableImpl {
                         }
 
                         int findNext(int start) {
-                            for (int rowIndex = start; rowIndex < rowCount; rowIndex++) {
-                                int i = tableIndex(rowIndex, columnIndex);
-
-                                if (!table[i]) {
-                                    return rowIndex;
-                                }
-                            }
-
-                            return -1;
+                            int offset = tableIndex(0, columnIndex);
+                            int i = ArrayScans.indexOf(table, offset + start, offset + rowCount, false);
+                            return i != -1 ? i - offset : -1;
                         }
                     };
                 }
@@ -1308,15 +1711,9 @@ class CheckTableImpl {
                         }
 
                         int findNext(int start) {
-                            for (int rowIndex = start; rowIndex < rowCount; rowIndex++) {
-                                int i = tableIndex(rowIndex, columnIndex);
-
-                                if (table[i]) {
-                                    return rowIndex;
-                                }
-                            }
-
-                            return -1;
+                            int offset = tableIndex(0, columnIndex);
+                            int i = ArrayScans.indexOf(table, offset + start, offset + rowCount, true);
+                            return i != -1 ? i - offset : -1;
                         }
                     };
                 }
@@ -1391,7 +1788,9 @@ class CheckTableImpl {
 
                 if (this.table[i]) {
                     if (columnCheckPredicate.test(this.columns.indexToElement(columnIndex))) {
+                        unshare();
                         this.table[i] = false;
+                        this.fingerprint ^= Zobrist.key(i);
                         this.checkedCount--;
                         this.uncheckedCount++;
 
@@ -1420,7 +1819,9 @@ class CheckTableImpl {
 
                 if (this.table[i]) {
                     if (rowCheckPredicate.test(this.rows.indexToElement(rowIndex))) {
+                        unshare();
                         this.table[i] = false;
+                        this.fingerprint ^= Zobrist.key(i);
                         this.checkedCount--;
                         this.uncheckedCount++;
 
@@ -1432,51 +1833,6 @@ class CheckTableImpl {
             }
         }
 
-        @Override
-        public String toTableString(String checkedIndicator, String uncheckedIndicator) {
-            StringBuilder result = new StringBuilder();
-
-            int rowHeaderWidth = rows.stream().map((r) -> r.toString().length()).max(Comparator.naturalOrder()).get();
-
-            appendPadded("", rowHeaderWidth, ' ', result);
-            result.append("|");
-
-            int[] columnWidth = new int[columns.size()];
-
-            int i = 0;
-            for (C column : columns) {
-                String columnLabel = column.toString();
-
-                if (columnLabel.length() > STRING_TABLE_HEADER_WIDTH) {
-                    columnLabel = columnLabel.substring(0, STRING_TABLE_HEADER_WIDTH);
-                }
-
-                columnWidth[i] = columnLabel.length();
-                i++;
-                result.append(" ").append(columnLabel).append(" |");
-            }
-
-            result.append("\n");
-
-            for (R row : rows) {
-                appendPadded(row.toString(), rowHeaderWidth, ' ', result);
-                result.append("|");
-
-                i = 0;
-                for (C column : columns) {
-                    String v = isChecked(row, column) ? checkedIndicator : uncheckedIndicator;
-
-                    result.append(" ");
-                    appendPadded(v, columnWidth[i], ' ', result);
-                    result.append(" |");
-                    i++;
-                }
-                result.append("\n");
-            }
-
-            return result.toString();
-        }
-
         @Override
         public Set<R> getCompleteRows() {
             if (isBlank()) {
@@ -1487,11 +1843,12 @@ class CheckTableImpl {
                 return rows;
             }
 
+            boolean[] incompleteRows = incompleteRows();
             int estimatedRows = Math.min(checkedCount / columnCount + 12, rowCount - 1);
             BackingCollections.IndexedUnmodifiableSet.InternalBuilder<R> builder = BackingCollections.IndexedUnmodifiableSet.builder(estimatedRows);
 
             for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
-                if (isRowCompleted(rowIndex)) {
+                if (!incompleteRows[rowIndex]) {
                     R row = rows.indexToElement(rowIndex);
                     builder = builder.with(row);
                 }
@@ -1533,11 +1890,12 @@ class CheckTableImpl {
                 return rows;
             }
 
+            boolean[] incompleteRows = incompleteRows();
             int estimatedRows = Math.min(uncheckedCount / columnCount + 12, rowCount - 1);
             BackingCollections.IndexedUnmodifiableSet.InternalBuilder<R> builder = BackingCollections.IndexedUnmodifiableSet.builder(estimatedRows);
 
             for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
-                if (!isRowCompleted(rowIndex)) {
+                if (incompleteRows[rowIndex]) {
                     R row = rows.indexToElement(rowIndex);
                     builder = builder.with(row);
                 }
@@ -1657,15 +2015,1758 @@ class CheckTableImpl {
 
         private boolean isColumnCompleted(int columnIndex) {
             int start = tableIndex(0, columnIndex);
-            int end = tableIndex(rowCount - 1, columnIndex);
+            return ArrayScans.indexOf(this.table, start, start + rowCount, false) == -1;
+        }
 
-            for (int i = start; i <= end; i++) {
-                if (!this.table[i]) {
+        /**
+         * Scans the columns, which are stored consecutively, for unchecked cells and marks their rows as incomplete. Stops as soon as
+         * all rows are known to be incomplete.
+         */
+        private boolean[] incompleteRows() {
+            boolean[] result = new boolean[rowCount];
+            int incompleteCount = 0;
+
+            for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+                int start = tableIndex(0, columnIndex);
+                int end = start + rowCount;
+
+                for (int i = ArrayScans.indexOf(this.table, start, end, false); i != -1; i = ArrayScans.indexOf(this.table, i + 1, end, false)) {
+                    int rowIndex = i - start;
+
+                    if (!result[rowIndex]) {
+                        result[rowIndex] = true;
+                        incompleteCount++;
+
+                        if (incompleteCount == rowCount) {
+                            return result;
+                        }
+                    }
+                }
+            }
+
+            return result;
+        }
+
+        @Override
+        public Set<R> getRows() {
+            return rows;
+        }
+
+        @Override
+        public Set<C> getColumns() {
+            return columns;
+        }
+
+        @Override
+        public boolean containsCellFor(R row, C column) {
+            return this.rows.contains(row) && this.columns.contains(column);
+        }
+
+        @Override
+        public Row<R, C> row(R row) {
+            int rowIndex = rows.elementToIndex(row);
+
+            if (rowIndex == -1) {
+                throw new IllegalArgumentException("Invalid row: " + row);
+            }
+
+            return new RowHandle(row, rowIndex);
+        }
+
+        /**
+         * Row handle with the precomputed offset and stride of the row in the table array.
+         */
+        private class RowHandle implements Row<R, C> {
+            private final R row;
+            private final int rowIndex;
+            private final int offset;
+            private final int stride;
+
+            RowHandle(R row, int rowIndex) {
+                this.row = row;
+                this.rowIndex = rowIndex;
+                this.offset = tableIndex(rowIndex, 0);
+                this.stride = rowCount;
+            }
+
+            @Override
+            public R getRow() {
+                return row;
+            }
+
+            @Override
+            public boolean check(C column) {
+                int columnIndex = columns.elementToIndex(column);
+
+                if (columnIndex == -1) {
+                    throw new IllegalArgumentException("Invalid column: " + column);
+                }
+
+                int i = offset + columnIndex * stride;
+
+                if (!table[i]) {
+                    unshare();
+                    table[i] = true;
+                    fingerprint ^= Zobrist.key(i);
+                    checkedCount++;
+                    uncheckedCount--;
+                }
+
+                return uncheckedCount == 0;
+            }
+
+            @Override
+            public boolean checkIf(Predicate<C> columnCheckPredicate) {
+                for (int columnIndex = 0, i = offset; columnIndex < columnCount; columnIndex++, i += stride) {
+                    if (!table[i] && columnCheckPredicate.test(columns.indexToElement(columnIndex))) {
+                        unshare();
+                        table[i] = true;
+                        fingerprint ^= Zobrist.key(i);
+                        checkedCount++;
+                        uncheckedCount--;
+
+                        if (uncheckedCount == 0) {
+                            return true;
+                        }
+                    }
+                }
+
+                return uncheckedCount == 0;
+            }
+
+            @Override
+            public boolean isChecked(C column) {
+                int columnIndex = columns.elementToIndex(column);
+
+                if (columnIndex == -1) {
+                    throw new IllegalArgumentException("Invalid column: " + column);
+                }
+
+                return table[offset + columnIndex * stride];
+            }
+
+            @Override
+            public boolean isComplete() {
+                return isRowCompleted(rowIndex);
+            }
+        }
+    }
+
+    /**
+     * A check table which stores the state of its cells in a BitStorage. Cells are addressed by long indices, so this can be used for
+     * tables with more than 2^31 cells. The cells of a row are stored consecutively; thus, operations on rows are performed word-wise
+     * by the storage, while operations on columns need to visit every row.
+     */
+    static class BitStorageCheckTable<R, C> extends AbstractCheckTable<R, C> {
+        private final BackingCollections.IndexedUnmodifiableSet<R> rows;
+        private final BackingCollections.IndexedUnmodifiableSet<C> columns;
+
+        private final BitStorage table;
+        long checkedCount;
+        long fingerprint;
+        private final long size;
+        private final int rowCount;
+        private final int columnCount;
+
+        /**
+         * Buffers for the column mask and the newly set bits in checkIf(Predicate, Predicate); allocated on first use and then 
+         * reused.
+         */
+        private long[] columnMaskBuffer;
+        private long[] newlySetBuffer;
+
+        BitStorageCheckTable(Set<R> rows, Set<C> columns) {
+            this(BackingCollections.IndexedUnmodifiableSet.of(rows), BackingCollections.IndexedUnmodifiableSet.of(columns));
+        }
+
+        BitStorageCheckTable(BackingCollections.IndexedUnmodifiableSet<R> rows, BackingCollections.IndexedUnmodifiableSet<C> columns) {
+            this(rows, columns, new BitStorage.Segmented((long) rows.size() * (long) columns.size()));
+        }
+
+        BitStorageCheckTable(BackingCollections.IndexedUnmodifiableSet<R> rows, BackingCollections.IndexedUnmodifiableSet<C> columns,
+                BitStorage table) {
+            super(BIT_STORAGE);
+            this.rows = rows;
+            this.columns = columns;
+            this.rowCount = rows.size();
+            this.columnCount = columns.size();
+            this.size = (long) this.rowCount * (long) this.columnCount;
+            this.table = table;
+
+            if (table.size() != this.size) {
+                throw new IllegalArgumentException("Storage size " + table.size() + " does not match table size " + this.size);
+            }
+
+            this.checkedCount = table.cardinality();
+            this.fingerprint = Zobrist.of(table, 0, this.size);
+        }
+
+        private long tableIndex(int rowIndex, int columnIndex) {
+            return (long) rowIndex * this.columnCount + columnIndex;
+        }
+
+        private void clearRow(int rowIndex) {
+            long start = tableIndex(rowIndex, 0);
+            long end = start + columnCount;
+            this.fingerprint ^= Zobrist.of(this.table, start, end);
+            this.checkedCount -= this.table.clearRange(start, end);
+        }
+
+        private int rowIndex(R row) {
+            int rowIndex = rows.elementToIndex(row);
+
+            if (rowIndex == -1) {
+                throw new IllegalArgumentException("Invalid row: " + row);
+            }
+
+            return rowIndex;
+        }
+
+        private int columnIndex(C column) {
+            int columnIndex = columns.elementToIndex(column);
+
+            if (columnIndex == -1) {
+                throw new IllegalArgumentException("Invalid column: " + column);
+            }
+
+            return columnIndex;
+        }
+
+        @Override
+        public CheckTable<R, C> copy() {
+            return new BitStorageCheckTable<>(rows, columns, table.copy());
+        }
+
+        @Override
+        public long stateFingerprint() {
+            return this.fingerprint;
+        }
+
+        @Override
+        final boolean checkImpl(R row, C column) {
+            long i = tableIndex(rowIndex(row), columnIndex(column));
+
+            if (this.table.set(i)) {
+                this.checkedCount++;
+                this.fingerprint ^= Zobrist.key(i);
+            }
+
+            return this.checkedCount == this.size;
+        }
+
+        @Override
+        final void uncheckImpl(R row, C column) {
+            long i = tableIndex(rowIndex(row), columnIndex(column));
+
+            if (this.table.clear(i)) {
+                this.checkedCount--;
+                this.fingerprint ^= Zobrist.key(i);
+            }
+        }
+
+        @Override
+        public void uncheckAll() {
+            this.table.clearAll();
+            this.checkedCount = 0;
+            this.fingerprint = 0;
+        }
+
+        @Override
+        public void uncheckRowIf(Predicate<R> rowCheckPredicate) {
+            if (isBlank()) {
+                return;
+            }
+
+            for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+                R row = this.rows.indexToElement(rowIndex);
+
+                if (rowCheckPredicate.test(row)) {
+                    clearRow(rowIndex);
+
+                    if (this.checkedCount == 0) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void uncheckRow(R row) {
+            int rowIndex = rowIndex(row);
+
+            if (isBlank()) {
+                return;
+            }
+
+            clearRow(rowIndex);
+        }
+
+        @Override
+        public void uncheckRowIfPresent(R row) {
+            int rowIndex = rows.elementToIndex(row);
+
+            if (rowIndex == -1 || isBlank()) {
+                return;
+            }
+
+            clearRow(rowIndex);
+        }
+
+        @Override
+        final boolean isCompleteImpl() {
+            return this.checkedCount == this.size;
+        }
+
+        @Override
+        final boolean isBlankImpl() {
+            return this.checkedCount == 0;
+        }
+
+        @Override
+        final boolean isCheckedImpl(R row, C column) {
+            return this.table.get(tableIndex(rowIndex(row), columnIndex(column)));
+        }
+
+        @Override
+        final boolean checkIfImpl(R row, Predicate<C> columnCheckPredicate) {
+            int rowIndex = rowIndex(row);
+            long start = tableIndex(rowIndex, 0);
+            long end = start + columnCount;
+
+            for (long i = this.table.nextClear(start, end); i != -1; i = this.table.nextClear(i + 1, end)) {
+                if (columnCheckPredicate.test(this.columns.indexToElement((int) (i - start)))) {
+                    this.table.set(i);
+                    this.checkedCount++;
+                    this.fingerprint ^= Zobrist.key(i);
+
+                    if (this.checkedCount == this.size) {
+                        return true;
+                    }
+                }
+            }
+
+            return this.checkedCount == this.size;
+        }
+
+        @Override
+        public boolean checkIf(Predicate<R> rowCheckPredicate, C column) {
+            int columnIndex = columnIndex(column);
+
+            for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+                long i = tableIndex(rowIndex, columnIndex);
+
+                if (!this.table.get(i) && rowCheckPredicate.test(this.rows.indexToElement(rowIndex))) {
+                    this.table.set(i);
+                    this.checkedCount++;
+                    this.fingerprint ^= Zobrist.key(i);
+
+                    if (this.checkedCount == this.size) {
+                        return true;
+                    }
+                }
+            }
+
+            return this.checkedCount == this.size;
+        }
+
+        @Override
+        public boolean checkIf(Predicate<R> rowCheckPredicate, Predicate<C> columnCheckPredicate) {
+            if (this.checkedCount == this.size) {
+                return true;
+            }
+
+            long[] columnMask = this.columnMaskBuffer;
+            long[] newlySet = this.newlySetBuffer;
+
+            if (columnMask == null) {
+                columnMask = this.columnMaskBuffer = new long[(columnCount + 63) >>> 6];
+                newlySet = this.newlySetBuffer = new long[columnMask.length];
+            } else {
+                Arrays.fill(columnMask, 0);
+            }
+
+            boolean anyColumn = false;
+
+            for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+                if (columnCheckPredicate.test(this.columns.indexToElement(columnIndex))) {
+                    columnMask[columnIndex >>> 6] |= 1L << columnIndex;
+                    anyColumn = true;
+                }
+            }
+
+            if (!anyColumn) {
+                return false;
+            }
+
+            for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+                if (!rowCheckPredicate.test(this.rows.indexToElement(rowIndex))) {
+                    continue;
+                }
+
+                long start = tableIndex(rowIndex, 0);
+                this.table.setMasked(start, columnMask, newlySet);
+
+                for (int m = 0; m < newlySet.length; m++) {
+                    for (long bits = newlySet[m]; bits != 0; bits &= bits - 1) {
+                        this.checkedCount++;
+                        this.fingerprint ^= Zobrist.key(start + ((long) m << 6) + Long.numberOfTrailingZeros(bits));
+                    }
+                }
+
+                if (this.checkedCount == this.size) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        @Override
+        public void uncheckIf(R row, Predicate<C> columnCheckPredicate) {
+            int rowIndex = rowIndex(row);
+
+            if (this.checkedCount == 0) {
+                return;
+            }
+
+            long start = tableIndex(rowIndex, 0);
+            long end = start + columnCount;
+
+            for (long i = this.table.nextSet(start, end); i != -1; i = this.table.nextSet(i + 1, end)) {
+                if (columnCheckPredicate.test(this.columns.indexToElement((int) (i - start)))) {
+                    this.table.clear(i);
+                    this.checkedCount--;
+                    this.fingerprint ^= Zobrist.key(i);
+
+                    if (this.checkedCount == 0) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void uncheckIf(Predicate<R> rowCheckPredicate, C column) {
+            int columnIndex = columnIndex(column);
+
+            if (this.checkedCount == 0) {
+                return;
+            }
+
+            for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+                long i = tableIndex(rowIndex, columnIndex);
+
+                if (this.table.get(i) && rowCheckPredicate.test(this.rows.indexToElement(rowIndex))) {
+                    this.table.clear(i);
+                    this.checkedCount--;
+                    this.fingerprint ^= Zobrist.key(i);
+
+                    if (this.checkedCount == 0) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public Iterable<R> iterateUncheckedRows(C column) {
+            int columnIndex = columnIndex(column);
+
+            if (isComplete()) {
+                return BackingCollections.IndexedUnmodifiableSet.empty();
+            }
+
+            return () -> new ColumnIterator(columnIndex, false);
+        }
+
+        @Override
+        public Iterable<C> iterateUncheckedColumns(R row) {
+            int rowIndex = rowIndex(row);
+
+            if (isComplete()) {
+                return BackingCollections.IndexedUnmodifiableSet.empty();
+            }
+
+            return () -> new RowIterator(rowIndex, false);
+        }
+
+        @Override
+        public Iterable<R> iterateCheckedRows(C column) {
+            int columnIndex = columnIndex(column);
+
+            if (isComplete()) {
+                return rows;
+            }
+
+            return () -> new ColumnIterator(columnIndex, true);
+        }
+
+        @Override
+        public Iterable<C> iterateCheckedColumns(R row) {
+            int rowIndex = rowIndex(row);
+
+            if (isComplete()) {
+                return columns;
+            }
+
+            return () -> new RowIterator(rowIndex, true);
+        }
+
+        @Override
+        public Set<R> getCompleteRows() {
+            if (isBlank()) {
+                return BackingCollections.IndexedUnmodifiableSet.empty();
+            }
+
+            if (isComplete()) {
+                return rows;
+            }
+
+            int estimatedRows = (int) Math.min(checkedCount / columnCount + 12, rowCount - 1);
+            BackingCollections.IndexedUnmodifiableSet.InternalBuilder<R> builder = BackingCollections.IndexedUnmodifiableSet.builder(estimatedRows);
+
+            for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+                if (isRowCompleted(rowIndex)) {
+                    builder = builder.with(rows.indexToElement(rowIndex));
+                }
+            }
+
+            return builder.build();
+        }
+
+        @Override
+        public Set<R> getIncompleteRows() {
+            if (isComplete()) {
+                return BackingCollections.IndexedUnmodifiableSet.empty();
+            }
+
+            if (isBlank()) {
+                return rows;
+            }
+
+            int estimatedRows = (int) Math.min((size - checkedCount) / columnCount + 12, rowCount - 1);
+            BackingCollections.IndexedUnmodifiableSet.InternalBuilder<R> builder = BackingCollections.IndexedUnmodifiableSet.builder(estimatedRows);
+
+            // Jump from gap to gap; rows without gaps are skipped by the storage
+            for (long i = this.table.nextClear(0, size); i != -1;) {
+                int rowIndex = (int) (i / columnCount);
+                builder = builder.with(rows.indexToElement(rowIndex));
+                i = this.table.nextClear(tableIndex(rowIndex + 1, 0), size);
+            }
+
+            return builder.build();
+        }
+
+        @Override
+        public Set<C> getCompleteColumns() {
+            if (isBlank()) {
+                return BackingCollections.IndexedUnmodifiableSet.empty();
+            }
+
+            if (isComplete()) {
+                return columns;
+            }
+
+            boolean[] incompleteColumns = incompleteColumns();
+            int estimatedColumns = (int) Math.min(checkedCount / rowCount + 12, columnCount - 1);
+            BackingCollections.IndexedUnmodifiableSet.InternalBuilder<C> builder = BackingCollections.IndexedUnmodifiableSet
+                    .builder(estimatedColumns);
+
+            for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+                if (!incompleteColumns[columnIndex]) {
+                    builder = builder.with(columns.indexToElement(columnIndex));
+                }
+            }
+
+            return builder.build();
+        }
+
+        @Override
+        public Set<C> getIncompleteColumns() {
+            if (isComplete()) {
+                return BackingCollections.IndexedUnmodifiableSet.empty();
+            }
+
+            if (isBlank()) {
+                return columns;
+            }
+
+            boolean[] incompleteColumns = incompleteColumns();
+            int estimatedColumns = (int) Math.min((size - checkedCount) / rowCount + 12, columnCount - 1);
+            BackingCollections.IndexedUnmodifiableSet.InternalBuilder<C> builder = BackingCollections.IndexedUnmodifiableSet
+                    .builder(estimatedColumns);
+
+            for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+                if (incompleteColumns[columnIndex]) {
+                    builder = builder.with(columns.indexToElement(columnIndex));
+                }
+            }
+
+            return builder.build();
+        }
+
+        /**
+         * Visits the unchecked cells and marks their columns as incomplete. Stops as soon as all columns are known to be incomplete.
+         */
+        private boolean[] incompleteColumns() {
+            boolean[] result = new boolean[columnCount];
+            int incompleteCount = 0;
+
+            for (long i = this.table.nextClear(0, size); i != -1; i = this.table.nextClear(i + 1, size)) {
+                int columnIndex = (int) (i % columnCount);
+
+                if (!result[columnIndex]) {
+                    result[columnIndex] = true;
+                    incompleteCount++;
+
+                    if (incompleteCount == columnCount) {
+                        break;
+                    }
+                }
+            }
+
+            return result;
+        }
+
+        @Override
+        public boolean isRowComplete(R row) {
+            return isRowCompleted(rowIndex(row));
+        }
+
+        @Override
+        public boolean isColumnComplete(C column) {
+            int columnIndex = columnIndex(column);
+
+            for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+                if (!this.table.get(tableIndex(rowIndex, columnIndex))) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public Set<R> getCheckedRows(C column) {
+            int columnIndex = columnIndex(column);
+
+            if (checkedCount == 0) {
+                return BackingCollections.IndexedUnmodifiableSet.empty();
+            }
+
+            BackingCollections.IndexedUnmodifiableSet.InternalBuilder<R> builder = BackingCollections.IndexedUnmodifiableSet.builder(rowCount);
+
+            for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+                if (this.table.get(tableIndex(rowIndex, columnIndex))) {
+                    builder = builder.with(rows.indexToElement(rowIndex));
+                }
+            }
+
+            return builder.build();
+        }
+
+        @Override
+        public Set<C> getCheckedColumns(R row) {
+            int rowIndex = rowIndex(row);
+
+            if (checkedCount == 0) {
+                return BackingCollections.IndexedUnmodifiableSet.empty();
+            }
+
+            BackingCollections.IndexedUnmodifiableSet.InternalBuilder<C> builder = BackingCollections.IndexedUnmodifiableSet.builder(columnCount);
+            long start = tableIndex(rowIndex, 0);
+            long end = start + columnCount;
+
+            for (long i = this.table.nextSet(start, end); i != -1; i = this.table.nextSet(i + 1, end)) {
+                builder = builder.with(columns.indexToElement((int) (i - start)));
+            }
+
+            return builder.build();
+        }
+
+        private boolean isRowCompleted(int rowIndex) {
+            long start = tableIndex(rowIndex, 0);
+            return this.table.nextClear(start, start + columnCount) == -1;
+        }
+
+        @Override
+        public Set<R> getRows() {
+            return rows;
+        }
+
+        @Override
+        public Set<C> getColumns() {
+            return columns;
+        }
+
+        @Override
+        public boolean containsCellFor(R row, C column) {
+            return this.rows.contains(row) && this.columns.contains(column);
+        }
+
+        private class RowIterator implements Iterator<C> {
+            private final long start;
+            private final long end;
+            private final boolean checked;
+            private long next;
+
+            RowIterator(int rowIndex, boolean checked) {
+                this.start = tableIndex(rowIndex, 0);
+                this.end = this.start + columnCount;
+                this.checked = checked;
+                this.next = findNext(this.start);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != -1;
+            }
+
+            @Override
+            public C next() {
+                if (next == -1) {
+                    throw new NoSuchElementException();
+                }
+
+                C result = columns.indexToElement((int) (next - start));
+                next = findNext(next + 1);
+                return result;
+            }
+
+            private long findNext(long from) {
+                return checked ? table.nextSet(from, end) : table.nextClear(from, end);
+            }
+        }
+
+        private class ColumnIterator implements Iterator<R> {
+            private final int columnIndex;
+            private final boolean checked;
+            private int next;
+
+            ColumnIterator(int columnIndex, boolean checked) {
+                this.columnIndex = columnIndex;
+                this.checked = checked;
+                this.next = findNext(0);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != -1;
+            }
+
+            @Override
+            public R next() {
+                if (next == -1) {
+                    throw new NoSuchElementException();
+                }
+
+                R result = rows.indexToElement(next);
+                next = findNext(next + 1);
+                return result;
+            }
+
+            private int findNext(int start) {
+                for (int rowIndex = start; rowIndex < rowCount; rowIndex++) {
+                    if (table.get(tableIndex(rowIndex, columnIndex)) == checked) {
+                        return rowIndex;
+                    }
+                }
+
+                return -1;
+            }
+        }
+
+        @Override
+        public Row<R, C> row(R row) {
+            return new RowHandle(row, rowIndex(row));
+        }
+
+        /**
+         * Row handle with the precomputed start of the row in the bit storage.
+         */
+        private class RowHandle implements Row<R, C> {
+            private final R row;
+            private final int rowIndex;
+            private final long start;
+
+            RowHandle(R row, int rowIndex) {
+                this.row = row;
+                this.rowIndex = rowIndex;
+                this.start = tableIndex(rowIndex, 0);
+            }
+
+            @Override
+            public R getRow() {
+                return row;
+            }
+
+            @Override
+            public boolean check(C column) {
+                long i = start + columnIndex(column);
+
+                if (table.set(i)) {
+                    checkedCount++;
+                    fingerprint ^= Zobrist.key(i);
+                }
+
+                return checkedCount == size;
+            }
+
+            @Override
+            public boolean checkIf(Predicate<C> columnCheckPredicate) {
+                long end = start + columnCount;
+
+                for (long i = table.nextClear(start, end); i != -1; i = table.nextClear(i + 1, end)) {
+                    if (columnCheckPredicate.test(columns.indexToElement((int) (i - start)))) {
+                        table.set(i);
+                        checkedCount++;
+                        fingerprint ^= Zobrist.key(i);
+
+                        if (checkedCount == size) {
+                            return true;
+                        }
+                    }
+                }
+
+                return checkedCount == size;
+            }
+
+            @Override
+            public boolean isChecked(C column) {
+                return table.get(start + columnIndex(column));
+            }
+
+            @Override
+            public boolean isComplete() {
+                return isRowCompleted(rowIndex);
+            }
+        }
+    }
+
+    /**
+     * A check table which keeps the state of its cells in direct memory outside of the heap. Calling close() frees the memory
+     * immediately.
+     */
+    final static class DirectCheckTable<R, C> extends DelegatingCheckTable<R, C> implements CloseableCheckTable<R, C> {
+        private final BitStorage.Direct storage;
+
+        DirectCheckTable(BackingCollections.IndexedUnmodifiableSet<R> rows, BackingCollections.IndexedUnmodifiableSet<C> columns,
+                BitStorage.Direct storage) {
+            super(new BitStorageCheckTable<>(rows, columns, storage));
+            this.storage = storage;
+        }
+
+        @Override
+        public void close() {
+            if (detach() != null) {
+                this.storage.close();
+            }
+        }
+    }
+
+    /**
+     * A check table which is handed out by a pool. Each call of acquire() creates a new instance of this class, which forwards
+     * all calls to a blank check table taken from the pool. Calling close() resets the check table and puts it back into the 
+     * pool. As the check table is detached from this instance before, a stale reference cannot modify or release a check table 
+     * which has been handed out again.
+     */
+    final static class PooledCheckTable<R, C> extends DelegatingCheckTable<R, C> implements CloseableCheckTable<R, C> {
+        private final Pool<BitStorageCheckTable<R, C>> pool;
+
+        PooledCheckTable(BitStorageCheckTable<R, C> table, Pool<BitStorageCheckTable<R, C>> pool) {
+            super(table);
+            this.pool = pool;
+        }
+
+        @Override
+        public void close() {
+            BitStorageCheckTable<R, C> table = detach();
+
+            if (table == null) {
+                return;
+            }
+
+            if (!table.isBlank()) {
+                table.uncheckAll();
+            }
+
+            pool.release(table);
+        }
+    }
+
+    /**
+     * Forwards all calls to a check table until detach() is called. Afterwards, all calls throw an IllegalStateException. This is 
+     * the base for the closeable check tables; their close() methods detach the check table first and release its resources only 
+     * if it was still attached. Thus, further calls of close() are no-ops.
+     */
+    static abstract class DelegatingCheckTable<R, C> extends AbstractCheckTable<R, C> {
+        private BitStorageCheckTable<R, C> table;
+
+        DelegatingCheckTable(BitStorageCheckTable<R, C> table) {
+            super(OTHER);
+            this.table = table;
+        }
+
+        /**
+         * Detaches the check table from this instance and returns it; returns null if it has been already detached.
+         */
+        BitStorageCheckTable<R, C> detach() {
+            BitStorageCheckTable<R, C> table = this.table;
+            this.table = null;
+            return table;
+        }
+
+        @Override
+        boolean checkImpl(R row, C column) {
+            return table().check(row, column);
+        }
+
+        @Override
+        boolean checkIfImpl(R row, Predicate<C> columnCheckPredicate) {
+            return table().checkIf(row, columnCheckPredicate);
+        }
+
+        @Override
+        public boolean checkIf(Iterable<R> rows, Predicate<C> columnCheckPredicate) {
+            return table().checkIf(rows, columnCheckPredicate);
+        }
+
+        @Override
+        public boolean checkIf(Predicate<R> rowCheckPredicate, C column) {
+            return table().checkIf(rowCheckPredicate, column);
+        }
+
+        @Override
+        public boolean checkIf(Predicate<R> rowCheckPredicate, Predicate<C> columnCheckPredicate) {
+            return table().checkIf(rowCheckPredicate, columnCheckPredicate);
+        }
+
+        /**
+         * Keeps the precomputed row handle of the delegate, but checks on every call that this instance is still attached. 
+         * Otherwise, a handle used after close() would modify the next owner of a pooled check table.
+         */
+        @Override
+        public Row<R, C> row(R row) {
+            Row<R, C> delegate = table().row(row);
+
+            return new Row<R, C>() {
+                @Override
+                public R getRow() {
+                    return delegate.getRow();
+                }
+
+                @Override
+                public boolean check(C column) {
+                    table();
+                    return delegate.check(column);
+                }
+
+                @Override
+                public boolean checkIf(Predicate<C> columnCheckPredicate) {
+                    table();
+                    return delegate.checkIf(columnCheckPredicate);
+                }
+
+                @Override
+                public boolean isChecked(C column) {
+                    table();
+                    return delegate.isChecked(column);
+                }
+
+                @Override
+                public boolean isComplete() {
+                    table();
+                    return delegate.isComplete();
+                }
+            };
+        }
+
+        @Override
+        void uncheckImpl(R row, C column) {
+            table().uncheck(row, column);
+        }
+
+        @Override
+        public void uncheckIf(R row, Predicate<C> columnCheckPredicate) {
+            table().uncheckIf(row, columnCheckPredicate);
+        }
+
+        @Override
+        public void uncheckIf(Iterable<R> rows, Predicate<C> columnCheckPredicate) {
+            table().uncheckIf(rows, columnCheckPredicate);
+        }
+
+        @Override
+        public void uncheckIf(Predicate<R> rowCheckPredicate, C column) {
+            table().uncheckIf(rowCheckPredicate, column);
+        }
+
+        @Override
+        public void uncheckIf(Predicate<R> rowCheckPredicate, Iterable<C> columns) {
+            table().uncheckIf(rowCheckPredicate, columns);
+        }
+
+        @Override
+        public void uncheckRow(R row) {
+            table().uncheckRow(row);
+        }
+
+        @Override
+        public void uncheckRowIfPresent(R row) {
+            table().uncheckRowIfPresent(row);
+        }
+
+        @Override
+        public void uncheckRowIf(Predicate<R> rowCheckPredicate) {
+            table().uncheckRowIf(rowCheckPredicate);
+        }
+
+        @Override
+        public void uncheckAll() {
+            table().uncheckAll();
+        }
+
+        @Override
+        boolean isCheckedImpl(R row, C column) {
+            return table().isChecked(row, column);
+        }
+
+        @Override
+        public boolean isRowComplete(R row) {
+            return table().isRowComplete(row);
+        }
+
+        @Override
+        public boolean isColumnComplete(C column) {
+            return table().isColumnComplete(column);
+        }
+
+        @Override
+        public boolean isRowIncomplete(R row) {
+            return table().isRowIncomplete(row);
+        }
+
+        @Override
+        public boolean isColumnIncomplete(C column) {
+            return table().isColumnIncomplete(column);
+        }
+
+        @Override
+        boolean isCompleteImpl() {
+            return table().isComplete();
+        }
+
+        @Override
+        boolean isBlankImpl() {
+            return table().isBlank();
+        }
+
+        @Override
+        public boolean containsCellFor(R row, C column) {
+            return table().containsCellFor(row, column);
+        }
+
+        @Override
+        public String toString() {
+            return table().toString();
+        }
+
+        @Override
+        public String toString(String checkedIndicator, String uncheckedIndicator) {
+            return table().toString(checkedIndicator, uncheckedIndicator);
+        }
+
+        @Override
+        public String toTableString() {
+            return table().toTableString();
+        }
+
+        @Override
+        public String toTableString(String checkedIndicator, String uncheckedIndicator) {
+            return table().toTableString(checkedIndicator, uncheckedIndicator);
+        }
+
+        @Override
+        public Set<R> getRows() {
+            return table().getRows();
+        }
+
+        @Override
+        public Set<C> getColumns() {
+            return table().getColumns();
+        }
+
+        @Override
+        public Set<R> getCompleteRows() {
+            return table().getCompleteRows();
+        }
+
+        @Override
+        public Set<C> getCompleteColumns() {
+            return table().getCompleteColumns();
+        }
+
+        @Override
+        public Set<R> getIncompleteRows() {
+            return table().getIncompleteRows();
+        }
+
+        @Override
+        public Set<C> getIncompleteColumns() {
+            return table().getIncompleteColumns();
+        }
+
+        @Override
+        public Set<R> getCheckedRows(C column) {
+            return table().getCheckedRows(column);
+        }
+
+        @Override
+        public Set<C> getCheckedColumns(R row) {
+            return table().getCheckedColumns(row);
+        }
+
+        @Override
+        public Iterable<R> iterateCheckedRows(C column) {
+            return attached(table().iterateCheckedRows(column));
+        }
+
+        @Override
+        public Iterable<C> iterateCheckedColumns(R row) {
+            return attached(table().iterateCheckedColumns(row));
+        }
+
+        @Override
+        public Iterable<R> iterateUncheckedRows(C column) {
+            return attached(table().iterateUncheckedRows(column));
+        }
+
+        @Override
+        public Iterable<C> iterateUncheckedColumns(R row) {
+            return attached(table().iterateUncheckedColumns(row));
+        }
+
+        @Override
+        public long stateFingerprint() {
+            return table().stateFingerprint();
+        }
+
+        @Override
+        public CheckTable<R, C> copy() {
+            return table().copy();
+        }
+
+        BitStorageCheckTable<R, C> table() {
+            BitStorageCheckTable<R, C> table = this.table;
+
+            if (table == null) {
+                throw new IllegalStateException("The check table has been already closed");
+            }
+
+            return table;
+        }
+
+        /**
+         * The iterables of the delegate are lazy; without this wrapper, they would read the state of the next owner of a pooled 
+         * check table. The wrapper fails on any access once this instance has been detached.
+         */
+        private <E> Iterable<E> attached(Iterable<E> iterable) {
+            return () -> {
+                table();
+                Iterator<E> iterator = iterable.iterator();
+
+                return new Iterator<E>() {
+                    @Override
+                    public boolean hasNext() {
+                        table();
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public E next() {
+                        table();
+                        return iterator.next();
+                    }
+                };
+            };
+        }
+    }
+
+    final static class CheckTablePoolImpl<R, C> implements CheckTablePool<R, C> {
+        private final BackingCollections.IndexedUnmodifiableSet<R> rows;
+        private final BackingCollections.IndexedUnmodifiableSet<C> columns;
+        private final Pool<BitStorageCheckTable<R, C>> pool;
+
+        CheckTablePoolImpl(BackingCollections.IndexedUnmodifiableSet<R> rows, BackingCollections.IndexedUnmodifiableSet<C> columns, int maxIdle) {
+            this.rows = rows;
+            this.columns = columns;
+            this.pool = new Pool<>(maxIdle, this::createTable);
+        }
+
+        @Override
+        public CloseableCheckTable<R, C> acquire() {
+            return new PooledCheckTable<>(pool.acquire(), pool);
+        }
+
+        @Override
+        public Set<R> getRows() {
+            return rows;
+        }
+
+        @Override
+        public Set<C> getColumns() {
+            return columns;
+        }
+
+        int idleCount() {
+            return pool.idleCount();
+        }
+
+        private BitStorageCheckTable<R, C> createTable() {
+            return new BitStorageCheckTable<>(rows, columns, new BitStorage.Stamped((long) rows.size() * (long) columns.size()));
+        }
+    }
+
+    /**
+     * Hits do not take any locks: the entries are kept in a ConcurrentHashMap and a hit just marks its entry as referenced. 
+     * Evictions follow the CLOCK algorithm, an approximation of LRU: the entries are additionally kept in a ring; a hand moves
+     * over the ring, clears the referenced marks and evicts the first entry which has not been referenced since the last pass 
+     * of the hand. Thus, an eviction takes amortized constant time. Insertions and evictions are done under a lock; only misses 
+     * take it, after the missing check table has been evaluated.
+     */
+    final static class CheckTableCacheImpl<R, C> implements CheckTableCache<R, C> {
+        private final int maxSize;
+        private final ConcurrentHashMap<CacheKey, Entry<R, C>> entries = new ConcurrentHashMap<>();
+        private final LongAdder hitCount = new LongAdder();
+        private final LongAdder missCount = new LongAdder();
+        private final LongAdder evictionCount = new LongAdder();
+
+        /**
+         * The entries in the order of their insertion into the ring; the first ringSize slots are used. Guarded by this.
+         */
+        private final Entry<R, C>[] ring;
+        private int ringSize;
+        private int hand;
+
+        @SuppressWarnings("unchecked")
+        CheckTableCacheImpl(int maxSize) {
+            this.maxSize = maxSize;
+            this.ring = new Entry[maxSize];
+        }
+
+        @Override
+        public FrozenCheckTable<R, C> get(Object universe, long ruleSetVersion, Set<R> rows, Set<C> columns,
+                Consumer<CheckTable<R, C>> evaluator) {
+            CacheKey key = new CacheKey(universe, ruleSetVersion, rows, columns);
+            Entry<R, C> entry = entries.get(key);
+
+            if (entry != null) {
+                hitCount.increment();
+                entry.reference();
+                return entry.table;
+            }
+
+            missCount.increment();
+
+            CheckTable<R, C> table = CheckTable.create(rows, columns);
+            evaluator.accept(table);
+            FrozenCheckTable<R, C> result = table.freeze();
+
+            // The key keeps the immutable sets of the check table, as the sets of the caller might be modified later. 
+            // Equal sets have equal hash codes; thus, the hash code of the request key can be reused.
+            CacheKey storedKey = new CacheKey(universe, ruleSetVersion, result.getRows(), result.getColumns(), key.hashCode);
+
+            put(new Entry<>(storedKey, result));
+
+            return result;
+        }
+
+        @Override
+        public synchronized void clear() {
+            entries.clear();
+            Arrays.fill(ring, null);
+            ringSize = 0;
+            hand = 0;
+        }
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+
+        @Override
+        public long hitCount() {
+            return hitCount.sum();
+        }
+
+        @Override
+        public long missCount() {
+            return missCount.sum();
+        }
+
+        @Override
+        public long evictionCount() {
+            return evictionCount.sum();
+        }
+
+        private synchronized void put(Entry<R, C> entry) {
+            Entry<R, C> previous = entries.put(entry.key, entry);
+
+            if (previous != null) {
+                // Another thread evaluated the same check table concurrently; the new entry takes over its slot
+                entry.slot = previous.slot;
+                ring[entry.slot] = entry;
+            } else if (ringSize < maxSize) {
+                entry.slot = ringSize;
+                ring[ringSize++] = entry;
+            } else {
+                int slot = evictionSlot();
+                Entry<R, C> evicted = ring[slot];
+                entries.remove(evicted.key);
+                evictionCount.increment();
+
+                entry.slot = slot;
+                ring[slot] = entry;
+            }
+        }
+
+        /**
+         * Moves the hand until it points to an entry which has not been referenced since the last pass; returns the slot of that
+         * entry. The hand is left on the following slot. This terminates after at most one full turn, as it clears the marks.
+         */
+        private int evictionSlot() {
+            for (;;) {
+                int slot = hand;
+                Entry<R, C> candidate = ring[slot];
+                hand = slot + 1 == maxSize ? 0 : slot + 1;
+
+                if (candidate.referenced) {
+                    candidate.referenced = false;
+                } else {
+                    return slot;
+                }
+            }
+        }
+
+        static final class Entry<R, C> {
+            final CacheKey key;
+            final FrozenCheckTable<R, C> table;
+            volatile boolean referenced;
+            /**
+             * The position of this entry in the ring. Guarded by the cache.
+             */
+            int slot;
+
+            Entry(CacheKey key, FrozenCheckTable<R, C> table) {
+                this.key = key;
+                this.table = table;
+            }
+
+            void reference() {
+                // Avoids writing to the shared entry if it is already marked
+                if (!this.referenced) {
+                    this.referenced = true;
+                }
+            }
+        }
+
+        static final class CacheKey {
+            private final Object universe;
+            private final long ruleSetVersion;
+            private final Set<?> rows;
+            private final Set<?> columns;
+            private final int hashCode;
+
+            CacheKey(Object universe, long ruleSetVersion, Set<?> rows, Set<?> columns) {
+                this(universe, ruleSetVersion, rows, columns,
+                        31 * (31 * (31 * System.identityHashCode(universe) + Long.hashCode(ruleSetVersion)) + rows.hashCode())
+                                + columns.hashCode());
+            }
+
+            CacheKey(Object universe, long ruleSetVersion, Set<?> rows, Set<?> columns, int hashCode) {
+                this.universe = universe;
+                this.ruleSetVersion = ruleSetVersion;
+                this.rows = rows;
+                this.columns = columns;
+                this.hashCode = hashCode;
+            }
+
+            @Override
+            public int hashCode() {
+                return hashCode;
+            }
+
+            @Override
+            public boolean equals(Object obj) {
+                if (this == obj) {
+                    return true;
+                }
+
+                if (!(obj instanceof CacheKey)) {
                     return false;
                 }
+
+                CacheKey other = (CacheKey) obj;
+
+                return this.universe == other.universe && this.ruleSetVersion == other.ruleSetVersion && this.hashCode == other.hashCode
+                        && this.rows.equals(other.rows) && this.columns.equals(other.columns);
+            }
+        }
+    }
+
+    /**
+     * A BitStorageCheckTable which records the changes made after a savepoint in the undo log of its storage.
+     */
+    final static class JournaledCheckTable<R, C> extends BitStorageCheckTable<R, C> implements SpeculativeCheckTable<R, C> {
+        private final BitStorage.Journaled storage;
+        private final ArrayList<SavepointImpl> savepoints = new ArrayList<>();
+
+        JournaledCheckTable(BackingCollections.IndexedUnmodifiableSet<R> rows, BackingCollections.IndexedUnmodifiableSet<C> columns,
+                BitStorage.Journaled storage) {
+            super(rows, columns, storage);
+            this.storage = storage;
+        }
+
+        @Override
+        public Savepoint savepoint() {
+            SavepointImpl result = new SavepointImpl(storage.logPosition(), checkedCount, fingerprint);
+            savepoints.add(result);
+            storage.setJournaling(true);
+            return result;
+        }
+
+        @Override
+        public void rollbackTo(Savepoint savepoint) {
+            int i = indexOf(savepoint);
+            SavepointImpl savepointImpl = savepoints.get(i);
+
+            storage.rollback(savepointImpl.logPosition);
+            checkedCount = savepointImpl.checkedCount;
+            fingerprint = savepointImpl.fingerprint;
+            removeFrom(i + 1);
+        }
+
+        @Override
+        public void releaseSavepoint(Savepoint savepoint) {
+            removeFrom(indexOf(savepoint));
+
+            if (savepoints.isEmpty()) {
+                storage.setJournaling(false);
+            }
+        }
+
+        private int indexOf(Savepoint savepoint) {
+            for (int i = savepoints.size() - 1; i >= 0; i--) {
+                if (savepoints.get(i) == savepoint) {
+                    return i;
+                }
+            }
+
+            throw new IllegalArgumentException("Unknown savepoint: " + savepoint);
+        }
+
+        private void removeFrom(int i) {
+            while (savepoints.size() > i) {
+                savepoints.remove(savepoints.size() - 1);
+            }
+        }
+
+        static final class SavepointImpl implements Savepoint {
+            final int logPosition;
+            final long checkedCount;
+            final long fingerprint;
+
+            SavepointImpl(int logPosition, long checkedCount, long fingerprint) {
+                this.logPosition = logPosition;
+                this.checkedCount = checkedCount;
+                this.fingerprint = fingerprint;
+            }
+
+            @Override
+            public String toString() {
+                return "Savepoint " + logPosition;
+            }
+        }
+    }
+
+    /**
+     * A check table backed by a BitStorageCheckTable which uses a file mapped into memory as storage. The file starts with a header
+     * of HEADER_SIZE bytes, which is followed by the words of the storage.
+     */
+    final static class MappedCheckTable<R, C> extends DelegatingCheckTable<R, C> implements PersistentCheckTable<R, C> {
+        static final long MAGIC = 0x53454c43484b5442L;
+        static final int VERSION = 1;
+        static final int HEADER_SIZE = 64;
+
+        private final FileChannel channel;
+        private final BitStorage.Mapped storage;
+
+        /**
+         * @param channel an open channel on the file; this must hold an exclusive lock on the file, which is released by close().
+         */
+        MappedCheckTable(BackingCollections.IndexedUnmodifiableSet<R> rows, BackingCollections.IndexedUnmodifiableSet<C> columns,
+                FileChannel channel, BitStorage.Mapped storage) {
+            super(new BitStorageCheckTable<>(rows, columns, storage));
+            this.channel = channel;
+            this.storage = storage;
+        }
+
+        @Override
+        public void force() {
+            // Fails if the check table has been closed
+            table();
+
+            this.storage.force();
+        }
+
+        /**
+         * Closing the channel also releases the lock on the file. The mapping of the file stays valid until it is garbage collected;
+         * thus, this instance must reject all further modifications.
+         */
+        @Override
+        public void close() throws IOException {
+            if (detach() != null) {
+                this.channel.close();
+            }
+        }
+
+        static <R, C> MappedCheckTable<R, C> open(Path file, BackingCollections.IndexedUnmodifiableSet<R> rows,
+                BackingCollections.IndexedUnmodifiableSet<C> columns) throws IOException {
+            long size = (long) rows.size() * (long) columns.size();
+            long fingerprint = universeFingerprint(rows, columns);
+
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+
+            try {
+                if (!lock(channel)) {
+                    throw new IOException("The file " + file + " is already opened by another check table");
+                }
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+                if (channel.size() == 0) {
+                    header.putLong(0, MAGIC);
+                    header.putInt(8, VERSION);
+                    header.putInt(12, rows.size());
+                    header.putInt(16, columns.size());
+                    header.putLong(24, fingerprint);
+                    writeFully(channel, header);
+                } else {
+                    readFully(channel, header);
+
+                    if (header.getLong(0) != MAGIC || header.getInt(8) != VERSION) {
+                        throw new IOException("Not a check table file: " + file);
+                    }
+
+                    if (header.getInt(12) != rows.size() || header.getInt(16) != columns.size() || header.getLong(24) != fingerprint) {
+                        throw new IllegalArgumentException("The file " + file + " was created for a check table with other rows or columns");
+                    }
+                }
+
+                return new MappedCheckTable<>(rows, columns, channel, new BitStorage.Mapped(channel, HEADER_SIZE, size));
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Takes an exclusive lock on the whole file. Returns false if the file is already locked by this or another process.
+         */
+        private static boolean lock(FileChannel channel) throws IOException {
+            try {
+                return channel.tryLock() != null;
+            } catch (OverlappingFileLockException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Combines the hash codes of the rows and columns in the order of their indices.
+         */
+        static long universeFingerprint(BackingCollections.IndexedUnmodifiableSet<?> rows, BackingCollections.IndexedUnmodifiableSet<?> columns) {
+            long result = 1125899906842597L;
+
+            for (int i = 0; i < rows.size(); i++) {
+                result = 31 * result + rows.indexToElement(i).hashCode();
+            }
+
+            result = 31 * result + rows.size();
+
+            for (int i = 0; i < columns.size(); i++) {
+                result = 31 * result + columns.indexToElement(i).hashCode();
+            }
+
+            result = 31 * result + columns.size();
+
+            // Finalization step of MurmurHash3
+            result ^= result >>> 33;
+            result *= 0xff51afd7ed558ccdL;
+            result ^= result >>> 33;
+            result *= 0xc4ceb9fe1a85ec53L;
+            result ^= result >>> 33;
+            return result;
+        }
+
+        /**
+         * Writes the buffer to the start of the file.
+         */
+        private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, buffer.position());
+            }
+        }
+
+        /**
+         * Fills the buffer with the start of the file.
+         */
+        private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, buffer.position()) == -1) {
+                    throw new EOFException();
+                }
             }
+        }
+    }
 
-            return true;
+    /**
+     * An immutable view on a check table which is exclusively owned by this instance. As the owned check table is never modified
+     * after construction, it can be safely read by several threads. The complete and incomplete rows and columns are computed 
+     * eagerly.
+     */
+    final static class FrozenCheckTableImpl<R, C> extends AbstractCheckTable<R, C> implements FrozenCheckTable<R, C> {
+        private final CheckTable<R, C> table;
+        private final Set<R> rows;
+        private final Set<C> columns;
+        private final Set<R> completeRows;
+        private final Set<C> completeColumns;
+        private final Set<R> incompleteRows;
+        private final Set<C> incompleteColumns;
+        private final boolean complete;
+        private final boolean blank;
+
+        /**
+         * @param table the check table to be frozen. The caller must not modify or expose it afterwards.
+         */
+        FrozenCheckTableImpl(CheckTable<R, C> table) {
+            super(OTHER);
+            this.table = table;
+            this.rows = table.getRows();
+            this.columns = table.getColumns();
+            this.complete = table.isComplete();
+            this.blank = table.isBlank();
+            this.completeRows = immutableSubset(table.getCompleteRows(), this.rows);
+            this.completeColumns = immutableSubset(table.getCompleteColumns(), this.columns);
+            this.incompleteRows = immutableSubset(table.getIncompleteRows(), this.rows);
+            this.incompleteColumns = immutableSubset(table.getIncompleteColumns(), this.columns);
+        }
+
+        @Override
+        boolean checkImpl(R row, C column) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        boolean checkIfImpl(R row, Predicate<C> columnCheckPredicate) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean checkIf(Iterable<R> rows, Predicate<C> columnCheckPredicate) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean checkIf(Predicate<R> rowCheckPredicate, C column) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean checkIf(Predicate<R> rowCheckPredicate, Predicate<C> columnCheckPredicate) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        void uncheckImpl(R row, C column) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void uncheckIf(R row, Predicate<C> columnCheckPredicate) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void uncheckIf(Iterable<R> rows, Predicate<C> columnCheckPredicate) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void uncheckIf(Predicate<R> rowCheckPredicate, C column) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void uncheckIf(Predicate<R> rowCheckPredicate, Iterable<C> columns) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void uncheckRow(R row) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void uncheckRowIfPresent(R row) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void uncheckRowIf(Predicate<R> rowCheckPredicate) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void uncheckAll() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        boolean isCheckedImpl(R row, C column) {
+            return table.isChecked(row, column);
+        }
+
+        @Override
+        public boolean isRowComplete(R row) {
+            if (!rows.contains(row)) {
+                throw new IllegalArgumentException("Invalid row: " + row);
+            }
+
+            return completeRows.contains(row);
+        }
+
+        @Override
+        public boolean isColumnComplete(C column) {
+            if (!columns.contains(column)) {
+                throw new IllegalArgumentException("Invalid column: " + column);
+            }
+
+            return completeColumns.contains(column);
+        }
+
+        @Override
+        boolean isCompleteImpl() {
+            return complete;
+        }
+
+        @Override
+        boolean isBlankImpl() {
+            return blank;
+        }
+
+        @Override
+        public boolean containsCellFor(R row, C column) {
+            return table.containsCellFor(row, column);
         }
 
         @Override
@@ -1679,15 +3780,252 @@ class CheckTableImpl {
         }
 
         @Override
-        public boolean containsCellFor(R row, C column) {
-            return this.rows.contains(row) && this.columns.contains(column);
+        public Set<R> getCompleteRows() {
+            return completeRows;
+        }
+
+        @Override
+        public Set<C> getCompleteColumns() {
+            return completeColumns;
+        }
+
+        @Override
+        public Set<R> getIncompleteRows() {
+            return incompleteRows;
+        }
+
+        @Override
+        public Set<C> getIncompleteColumns() {
+            return incompleteColumns;
+        }
+
+        @Override
+        public Set<R> getCheckedRows(C column) {
+            return table.getCheckedRows(column);
+        }
+
+        @Override
+        public Set<C> getCheckedColumns(R row) {
+            return table.getCheckedColumns(row);
+        }
+
+        @Override
+        public Iterable<R> iterateCheckedRows(C column) {
+            return table.iterateCheckedRows(column);
+        }
+
+        @Override
+        public Iterable<C> iterateCheckedColumns(R row) {
+            return table.iterateCheckedColumns(row);
+        }
+
+        @Override
+        public Iterable<R> iterateUncheckedRows(C column) {
+            return table.iterateUncheckedRows(column);
+        }
+
+        @Override
+        public Iterable<C> iterateUncheckedColumns(R row) {
+            return table.iterateUncheckedColumns(row);
+        }
+
+        @Override
+        public long stateFingerprint() {
+            return table.stateFingerprint();
+        }
+
+        @Override
+        public CheckTable<R, C> copy() {
+            return table.copy();
+        }
+
+        @Override
+        public CheckTable<R, C> fork() {
+            return table.fork();
+        }
+
+        @Override
+        public FrozenCheckTable<R, C> freeze() {
+            return this;
+        }
+
+        /**
+         * Converts a set which might be backed by the state of a check table into a set which only depends on immutable data. 
+         */
+        private static <E> Set<E> immutableSubset(Set<E> subset, Set<E> all) {
+            int size = subset.size();
+
+            if (size == all.size()) {
+                return all;
+            } else if (size == 0) {
+                return BackingCollections.IndexedUnmodifiableSet.empty();
+            } else {
+                return BackingCollections.IndexedUnmodifiableSet.of(subset);
+            }
         }
     }
 
+    /**
+     * Base class of all check table implementations.
+     * 
+     * The frequently called methods like check() are final here; they dispatch with a switch on the final kind field to the
+     * package private *Impl() methods of the implementation classes. These calls are statically bound and can be inlined by the 
+     * JIT: the implementation classes are final, except for BitStorageCheckTable, which is extended by JournaledCheckTable; its 
+     * *Impl() methods are final instead. Only the kind OTHER uses virtual calls. Additionally, as this is the only class directly implementing CheckTable,
+     * the JIT can bind calls on the CheckTable interface to the final methods of this class. This keeps call sites which see
+     * check tables of different shapes (and thus of different classes) from becoming megamorphic.
+     */
     static abstract class AbstractCheckTable<R, C> implements CheckTable<R, C> {
 
         static final int STRING_TABLE_HEADER_WIDTH = 40;
 
+        static final byte SINGLE_CELL = 0;
+        static final byte SINGLE_ROW = 1;
+        static final byte SINGLE_COLUMN = 2;
+        static final byte ARRAY = 3;
+        static final byte BIT_STORAGE = 4;
+        static final byte OTHER = 5;
+
+        final byte kind;
+
+        AbstractCheckTable(byte kind) {
+            this.kind = kind;
+        }
+
+        @Override
+        public final boolean check(R row, C column) {
+            switch (kind) {
+            case SINGLE_CELL:
+                return ((SingleCellCheckTable<R, C>) this).checkImpl(row, column);
+            case SINGLE_ROW:
+                return ((SingleRowCheckTable<R, C>) this).checkImpl(row, column);
+            case SINGLE_COLUMN:
+                return ((SingleColumnCheckTable<R, C>) this).checkImpl(row, column);
+            case ARRAY:
+                return ((ArrayCheckTable<R, C>) this).checkImpl(row, column);
+            case BIT_STORAGE:
+                return ((BitStorageCheckTable<R, C>) this).checkImpl(row, column);
+            default:
+                return checkImpl(row, column);
+            }
+        }
+
+        @Override
+        public final void uncheck(R row, C column) {
+            switch (kind) {
+            case SINGLE_CELL:
+                ((SingleCellCheckTable<R, C>) this).uncheckImpl(row, column);
+                break;
+            case SINGLE_ROW:
+                ((SingleRowCheckTable<R, C>) this).uncheckImpl(row, column);
+                break;
+            case SINGLE_COLUMN:
+                ((SingleColumnCheckTable<R, C>) this).uncheckImpl(row, column);
+                break;
+            case ARRAY:
+                ((ArrayCheckTable<R, C>) this).uncheckImpl(row, column);
+                break;
+            case BIT_STORAGE:
+                ((BitStorageCheckTable<R, C>) this).uncheckImpl(row, column);
+                break;
+            default:
+                uncheckImpl(row, column);
+            }
+        }
+
+        @Override
+        public final boolean isChecked(R row, C column) {
+            switch (kind) {
+            case SINGLE_CELL:
+                return ((SingleCellCheckTable<R, C>) this).isCheckedImpl(row, column);
+            case SINGLE_ROW:
+                return ((SingleRowCheckTable<R, C>) this).isCheckedImpl(row, column);
+            case SINGLE_COLUMN:
+                return ((SingleColumnCheckTable<R, C>) this).isCheckedImpl(row, column);
+            case ARRAY:
+                return ((ArrayCheckTable<R, C>) this).isCheckedImpl(row, column);
+            case BIT_STORAGE:
+                return ((BitStorageCheckTable<R, C>) this).isCheckedImpl(row, column);
+            default:
+                return isCheckedImpl(row, column);
+            }
+        }
+
+        @Override
+        public final boolean checkIf(R row, Predicate<C> columnCheckPredicate) {
+            switch (kind) {
+            case SINGLE_CELL:
+                return ((SingleCellCheckTable<R, C>) this).checkIfImpl(row, columnCheckPredicate);
+            case SINGLE_ROW:
+                return ((SingleRowCheckTable<R, C>) this).checkIfImpl(row, columnCheckPredicate);
+            case SINGLE_COLUMN:
+                return ((SingleColumnCheckTable<R, C>) this).checkIfImpl(row, columnCheckPredicate);
+            case ARRAY:
+                return ((ArrayCheckTable<R, C>) this).checkIfImpl(row, columnCheckPredicate);
+            case BIT_STORAGE:
+                return ((BitStorageCheckTable<R, C>) this).checkIfImpl(row, columnCheckPredicate);
+            default:
+                return checkIfImpl(row, columnCheckPredicate);
+            }
+        }
+
+        @Override
+        public final boolean isComplete() {
+            switch (kind) {
+            case SINGLE_CELL:
+                return ((SingleCellCheckTable<R, C>) this).isCompleteImpl();
+            case SINGLE_ROW:
+                return ((SingleRowCheckTable<R, C>) this).isCompleteImpl();
+            case SINGLE_COLUMN:
+                return ((SingleColumnCheckTable<R, C>) this).isCompleteImpl();
+            case ARRAY:
+                return ((ArrayCheckTable<R, C>) this).isCompleteImpl();
+            case BIT_STORAGE:
+                return ((BitStorageCheckTable<R, C>) this).isCompleteImpl();
+            default:
+                return isCompleteImpl();
+            }
+        }
+
+        @Override
+        public final boolean isBlank() {
+            switch (kind) {
+            case SINGLE_CELL:
+                return ((SingleCellCheckTable<R, C>) this).isBlankImpl();
+            case SINGLE_ROW:
+                return ((SingleRowCheckTable<R, C>) this).isBlankImpl();
+            case SINGLE_COLUMN:
+                return ((SingleColumnCheckTable<R, C>) this).isBlankImpl();
+            case ARRAY:
+                return ((ArrayCheckTable<R, C>) this).isBlankImpl();
+            case BIT_STORAGE:
+                return ((BitStorageCheckTable<R, C>) this).isBlankImpl();
+            default:
+                return isBlankImpl();
+            }
+        }
+
+        abstract boolean checkImpl(R row, C column);
+
+        abstract void uncheckImpl(R row, C column);
+
+        abstract boolean isCheckedImpl(R row, C column);
+
+        abstract boolean checkIfImpl(R row, Predicate<C> columnCheckPredicate);
+
+        abstract boolean isCompleteImpl();
+
+        abstract boolean isBlankImpl();
+
+        @Override
+        public Row<R, C> row(R row) {
+            if (!getRows().contains(row)) {
+                throw new IllegalArgumentException("Invalid row: " + row);
+            }
+
+            return new DelegatingRow<>(this, row);
+        }
+
         @Override
         public boolean checkIf(Iterable<R> rows, Predicate<C> columnCheckPredicate) {
 
@@ -1767,6 +4105,51 @@ class CheckTableImpl {
             return toTableString(checkedIndicator, uncheckedIndicator);
         }
 
+        @Override
+        public String toTableString(String checkedIndicator, String uncheckedIndicator) {
+            StringBuilder result = new StringBuilder();
+
+            int rowHeaderWidth = getRows().stream().map((r) -> r.toString().length()).max(Comparator.naturalOrder()).get();
+
+            appendPadded("", rowHeaderWidth, ' ', result);
+            result.append("|");
+
+            int[] columnWidth = new int[getColumns().size()];
+
+            int i = 0;
+            for (C column : getColumns()) {
+                String columnLabel = column.toString();
+
+                if (columnLabel.length() > STRING_TABLE_HEADER_WIDTH) {
+                    columnLabel = columnLabel.substring(0, STRING_TABLE_HEADER_WIDTH);
+                }
+
+                columnWidth[i] = columnLabel.length();
+                i++;
+                result.append(" ").append(columnLabel).append(" |");
+            }
+
+            result.append("\n");
+
+            for (R row : getRows()) {
+                appendPadded(row.toString(), rowHeaderWidth, ' ', result);
+                result.append("|");
+
+                i = 0;
+                for (C column : getColumns()) {
+                    String v = isChecked(row, column) ? checkedIndicator : uncheckedIndicator;
+
+                    result.append(" ");
+                    appendPadded(v, columnWidth[i], ' ', result);
+                    result.append(" |");
+                    i++;
+                }
+                result.append("\n");
+            }
+
+            return result.toString();
+        }
+
         static void appendPadded(String string, int width, char paddingChar, StringBuilder resultBuilder) {
             resultBuilder.append(string);
 
@@ -1778,4 +4161,43 @@ class CheckTableImpl {
             }
         }
     }
+
+    /**
+     * Row handle which just delegates to the methods of the check table. Used by implementations which do not benefit from 
+     * resolving the row in advance.
+     */
+    final static class DelegatingRow<R, C> implements CheckTable.Row<R, C> {
+        private final CheckTable<R, C> table;
+        private final R row;
+
+        DelegatingRow(CheckTable<R, C> table, R row) {
+            this.table = table;
+            this.row = row;
+        }
+
+        @Override
+        public R getRow() {
+            return row;
+        }
+
+        @Override
+        public boolean check(C column) {
+            return table.check(row, column);
+        }
+
+        @Override
+        public boolean checkIf(Predicate<C> columnCheckPredicate) {
+            return table.checkIf(row, columnCheckPredicate);
+        }
+
+        @Override
+        public boolean isChecked(C column) {
+            return table.isChecked(row, column);
+        }
+
+        @Override
+        public boolean isComplete() {
+            return table.isRowComplete(row);
+        }
+    }
 }
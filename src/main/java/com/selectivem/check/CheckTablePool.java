@@ -0,0 +1,51 @@
+/* 
+ * Copyright 2024 Nils Bandener
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.selectivem.check;
+
+import java.util.Set;
+
+/**
+ * A pool of check tables which all have the same rows and columns. The indices of the rows and columns are built only once, when
+ * the pool is created.
+ * 
+ * The acquire() method hands out a check table with all cells unchecked. Calling close() on the check table resets it and puts it
+ * back into the pool; afterwards, all calls on the check table throw an IllegalStateException, and further calls of close() are
+ * no-ops. Resetting a check table takes constant time, independently of the number of cells. Once the pool has been filled, 
+ * acquiring a check table only allocates a small handle object; the cells are re-used.
+ * 
+ * Pools are thread safe; the check tables handed out by a pool are not.
+ */
+public interface CheckTablePool<R, C> {
+
+    /**
+     * Creates a pool which keeps at most maxIdle check tables which are not in use.
+     */
+    static <R, C> CheckTablePool<R, C> create(Set<R> rows, Set<C> columns, int maxIdle) {
+        return CheckTableImpl.createPool(rows, columns, maxIdle);
+    }
+
+    /**
+     * Returns a check table with all cells unchecked. The check table must be closed after use in order to return it to the pool.
+     */
+    CloseableCheckTable<R, C> acquire();
+
+    Set<R> getRows();
+
+    Set<C> getColumns();
+}
@@ -0,0 +1,35 @@
+/* 
+ * Copyright 2024 Nils Bandener
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.selectivem.check;
+
+/**
+ * A check list which holds resources which need to be released explicitly by calling close().
+ * 
+ * After close() has been called, all methods except close() throw an IllegalStateException. This also applies to iterables
+ * obtained from the check list.
+ */
+public interface CloseableCheckList<E> extends CheckList<E>, AutoCloseable {
+
+    /**
+     * Releases the resources held by this check list: off-heap check lists free their memory immediately; pooled check lists are reset and
+     * returned to their pool. Calling close() again has no effect.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,36 @@
+/* 
+ * Copyright 2024 Nils Bandener
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.selectivem.check;
+
+/**
+ * An immutable check table, as returned by CheckTable.freeze(). The state of the cells is fixed at the time the table was frozen.
+ * 
+ * In contrast to the other check tables, instances of this interface are thread safe. Thus, they can be published to and read by 
+ * several threads without further synchronization. All methods which would modify the table throw an UnsupportedOperationException.
+ * 
+ * The complete and incomplete rows and columns are computed once while freezing the table. Thus, methods like getCompleteRows() do 
+ * not need to inspect the cells.
+ */
+public interface FrozenCheckTable<R, C> extends CheckTable<R, C> {
+
+    /**
+     * Returns this instance, as it is already immutable.
+     */
+    @Override
+    FrozenCheckTable<R, C> freeze();
+}
@@ -0,0 +1,63 @@
+/* 
+ * Copyright 2024 Nils Bandener
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.selectivem.check;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * A check table which stores the state of its cells in a file. The file is mapped into memory; changes to cells are written 
+ * in place. Thus, the cells do not occupy heap memory and the state survives restarts of the process.
+ * 
+ * The file records a fingerprint of the rows and columns. Opening an existing file is only possible with rows and columns 
+ * which have the same fingerprint. The fingerprint is based on the order and the hash codes of the rows and columns; thus, these
+ * must have a stable iteration order and hash codes which stay the same across processes (like the ones of strings).
+ * 
+ * While a check table is open, it holds an exclusive lock on its file. A file can thus not be opened by two check tables at the 
+ * same time, neither in the same process nor in different processes. Note that on some operating systems, file locks are only
+ * advisory; processes which do not use this class may still modify the file. After close() has been called, all methods except 
+ * close() throw an IllegalStateException.
+ */
+public interface PersistentCheckTable<R, C> extends CheckTable<R, C>, AutoCloseable {
+
+    /**
+     * Opens the check table stored in the given file. If the file does not exist or is empty, a new check table with all cells 
+     * unchecked will be created.
+     * 
+     * @throws IllegalArgumentException If the file was created for other rows or columns.
+     * @throws IOException If the file cannot be opened, is not a check table file or is already opened by another check table.
+     */
+    static <R, C> PersistentCheckTable<R, C> open(Path file, Set<R> rows, Set<C> columns) throws IOException {
+        return CheckTableImpl.open(file, rows, columns);
+    }
+
+    /**
+     * Writes all changes to the storage device. Without calling this method, the operating system decides when changes are written;
+     * changes might be lost in case of a system crash.
+     */
+    void force();
+
+    /**
+     * Closes the file and releases the lock on it. This does not write the changes to the storage device; use force() for this.
+     * Calling close() again has no effect.
+     */
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,80 @@
+/* 
+ * Copyright 2024 Nils Bandener
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.selectivem.check;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * A bounded pool of idle objects. The pool does not use locks; thus, it can be also used from virtual threads without pinning
+ * these to their carrier threads.
+ */
+final class Pool<T> {
+    private final AtomicReferenceArray<T> idle;
+    private final Supplier<T> factory;
+
+    Pool(int maxIdle, Supplier<T> factory) {
+        if (maxIdle < 0) {
+            throw new IllegalArgumentException("Invalid maxIdle: " + maxIdle);
+        }
+
+        this.idle = new AtomicReferenceArray<>(maxIdle);
+        this.factory = factory;
+    }
+
+    /**
+     * Returns an idle object from the pool. If there is no idle object, a new one is created.
+     */
+    T acquire() {
+        for (int i = 0; i < idle.length(); i++) {
+            if (idle.get(i) != null) {
+                T result = idle.getAndSet(i, null);
+
+                if (result != null) {
+                    return result;
+                }
+            }
+        }
+
+        return factory.get();
+    }
+
+    /**
+     * Puts an idle object back into the pool. If the pool is full, the object is left to the garbage collector.
+     */
+    void release(T object) {
+        for (int i = 0; i < idle.length(); i++) {
+            if (idle.get(i) == null && idle.compareAndSet(i, null, object)) {
+                return;
+            }
+        }
+    }
+
+    int idleCount() {
+        int result = 0;
+
+        for (int i = 0; i < idle.length(); i++) {
+            if (idle.get(i) != null) {
+                result++;
+            }
+        }
+
+        return result;
+    }
+}
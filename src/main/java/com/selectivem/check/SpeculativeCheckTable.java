@@ -0,0 +1,66 @@
+/* 
+ * Copyright 2024 Nils Bandener
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.selectivem.check;
+
+import java.util.Set;
+
+/**
+ * A check table which supports savepoints. After a savepoint has been created, all changes are recorded in an undo log. Rolling
+ * back to the savepoint undoes these changes. Thus, a caller can apply changes tentatively and revert them if they turn out to be
+ * wrong. The costs of recording and rolling back are proportional to the number of changed cells, not to the size of the table.
+ * 
+ * Savepoints can be nested. Rolling back to a savepoint discards all savepoints which were created later; the savepoint itself 
+ * stays valid and can be used for further rollbacks. Releasing a savepoint discards it and all later savepoints, but keeps the 
+ * changes. When no savepoints are left, changes are no longer recorded.
+ */
+public interface SpeculativeCheckTable<R, C> extends CheckTable<R, C> {
+
+    /**
+     * Creates a new check table with the given rows and columns, which supports savepoints. All cells will be initially marked as 
+     * unchecked.
+     */
+    static <R, C> SpeculativeCheckTable<R, C> create(Set<R> rows, Set<C> columns) {
+        return CheckTableImpl.createSpeculative(rows, columns);
+    }
+
+    /**
+     * Creates a savepoint which records the current state of the check table.
+     */
+    Savepoint savepoint();
+
+    /**
+     * Restores the state the check table had when the given savepoint was created.
+     * 
+     * @throws IllegalArgumentException If the savepoint was not created by this instance or was already discarded.
+     */
+    void rollbackTo(Savepoint savepoint);
+
+    /**
+     * Discards the given savepoint and all savepoints created after it. The changes made since the savepoint are kept.
+     * 
+     * @throws IllegalArgumentException If the savepoint was not created by this instance or was already discarded.
+     */
+    void releaseSavepoint(Savepoint savepoint);
+
+    /**
+     * Represents the state of a check table at a particular point in time.
+     */
+    interface Savepoint {
+    }
+}
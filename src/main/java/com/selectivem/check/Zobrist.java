@@ -0,0 +1,52 @@
+/* 
+ * Copyright 2024 Nils Bandener
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.selectivem.check;
+
+/**
+ * Provides the keys for the Zobrist style state fingerprints of check tables and check lists. The fingerprint of a state is the 
+ * XOR of the keys of all checked cells. Thus, checking or unchecking a cell just needs to XOR the key of the cell into the 
+ * fingerprint.
+ * 
+ * Instead of keeping a table of random keys, the keys are derived from the cell index using the finalizer of the SplitMix64
+ * generator. This needs no memory and yields well distributed keys even for consecutive indices.
+ */
+final class Zobrist {
+
+    private Zobrist() {
+    }
+
+    static long key(long index) {
+        long z = (index + 1) * 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Returns the XOR of the keys of all set bits in the given range of the storage.
+     */
+    static long of(BitStorage storage, long from, long to) {
+        long result = 0;
+
+        for (long i = storage.nextSet(from, to); i != -1; i = storage.nextSet(i + 1, to)) {
+            result ^= key(i);
+        }
+
+        return result;
+    }
+}
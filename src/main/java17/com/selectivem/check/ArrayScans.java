@@ -0,0 +1,107 @@
+/* 
+ * Copyright 2024 Nils Bandener
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.selectivem.check;
+
+import java.util.Arrays;
+
+/**
+ * Linear scans over the arrays used by ArrayCheckList, ArrayCheckTable and BitStorage.Segmented.
+ * 
+ * This is the version for Java 17 and later. It compares longer ranges with constant arrays using Arrays.mismatch(), which the
+ * JIT compiles to SIMD instructions. The first elements of a range are checked with a plain loop, as this is faster than the
+ * setup of the vectorized comparison if the searched element is close to the start.
+ */
+final class ArrayScans {
+
+    /**
+     * The number of elements which are checked with a plain loop before switching to Arrays.mismatch().
+     */
+    static final int LINEAR_SCAN_LENGTH = 32;
+
+    /**
+     * The maximum number of elements compared with a single Arrays.mismatch() call; this is the length of the constant arrays.
+     */
+    static final int CHUNK_LENGTH = 512;
+
+    private static final boolean[] TRUE_CHUNK = new boolean[CHUNK_LENGTH];
+    private static final boolean[] FALSE_CHUNK = new boolean[CHUNK_LENGTH];
+    private static final long[] ZERO_CHUNK = new long[CHUNK_LENGTH];
+    private static final long[] ONES_CHUNK = new long[CHUNK_LENGTH];
+
+    static {
+        Arrays.fill(TRUE_CHUNK, true);
+        Arrays.fill(ONES_CHUNK, -1L);
+    }
+
+    private ArrayScans() {
+    }
+
+    /**
+     * Returns the index of the first element in the range from (inclusive) to to (exclusive) which equals the given value; or -1
+     * if there is no such element.
+     */
+    static int indexOf(boolean[] array, int from, int to, boolean value) {
+        int linearEnd = Math.min(to, from + LINEAR_SCAN_LENGTH);
+
+        for (int i = from; i < linearEnd; i++) {
+            if (array[i] == value) {
+                return i;
+            }
+        }
+
+        boolean[] other = value ? FALSE_CHUNK : TRUE_CHUNK;
+
+        for (int i = linearEnd; i < to; i += CHUNK_LENGTH) {
+            int length = Math.min(CHUNK_LENGTH, to - i);
+            int mismatch = Arrays.mismatch(array, i, i + length, other, 0, length);
+
+            if (mismatch != -1) {
+                return i + mismatch;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the index of the first element in the range from (inclusive) to to (exclusive) which does not equal the given value;
+     * or -1 if there is no such element.
+     */
+    static int indexOfNot(long[] array, int from, int to, long value) {
+        int linearEnd = value == 0 || value == -1L ? Math.min(to, from + LINEAR_SCAN_LENGTH) : to;
+
+        for (int i = from; i < linearEnd; i++) {
+            if (array[i] != value) {
+                return i;
+            }
+        }
+
+        long[] other = value == 0 ? ZERO_CHUNK : ONES_CHUNK;
+
+        for (int i = linearEnd; i < to; i += CHUNK_LENGTH) {
+            int length = Math.min(CHUNK_LENGTH, to - i);
+            int mismatch = Arrays.mismatch(array, i, i + length, other, 0, length);
+
+            if (mismatch != -1) {
+                return i + mismatch;
+            }
+        }
+
+        return -1;
+    }
+}
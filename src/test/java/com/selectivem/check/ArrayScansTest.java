@@ -0,0 +1,221 @@
+/* 
+ * Copyright 2024 Nils Bandener
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.selectivem.check;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Tests the Java 8 version of ArrayScans and, if the build produced it, the version in META-INF/versions/17. As the tests run on
+ * the class directory instead of the multi-release JAR, the latter is loaded with a separate class loader.
+ */
+@RunWith(Parameterized.class)
+public class ArrayScansTest {
+    static final String VERSIONED_CLASS = "META-INF/versions/17/com/selectivem/check/ArrayScans.class";
+
+    final String version;
+    final int size;
+    final Method indexOf;
+    final Method indexOfNot;
+
+    @Parameters(name = "{0}; size: {1}")
+    public static Collection<Object[]> params() throws Exception {
+        ArrayList<Object[]> result = new ArrayList<>();
+        boolean versioned = ArrayScansTest.class.getClassLoader().getResource(VERSIONED_CLASS) != null
+                && !System.getProperty("java.specification.version").startsWith("1.");
+
+        for (int size : new int[] { 0, 1, 31, 32, 33, 100, 511, 512, 513, 1500 }) {
+            result.add(new Object[] { "java8", size });
+
+            if (versioned) {
+                result.add(new Object[] { "java17", size });
+            }
+        }
+
+        return result;
+    }
+
+    public ArrayScansTest(String version, int size) throws Exception {
+        this.version = version;
+        this.size = size;
+
+        Class<?> scans = version.equals("java17") ? new VersionedClassLoader().loadClass(ArrayScans.class.getName()) : ArrayScans.class;
+        this.indexOf = scans.getDeclaredMethod("indexOf", boolean[].class, int.class, int.class, boolean.class);
+        this.indexOfNot = scans.getDeclaredMethod("indexOfNot", long[].class, int.class, int.class, long.class);
+        this.indexOf.setAccessible(true);
+        this.indexOfNot.setAccessible(true);
+    }
+
+    @Test
+    public void indexOf() throws Exception {
+        Random random = new Random(size);
+
+        for (int density : new int[] { 0, 1, 50, 99, 100 }) {
+            boolean[] array = new boolean[size];
+
+            for (int i = 0; i < size; i++) {
+                array[i] = random.nextInt(100) < density;
+            }
+
+            for (int k = 0; k < 50; k++) {
+                int from = size == 0 ? 0 : random.nextInt(size + 1);
+                int to = from + random.nextInt(size - from + 1);
+
+                for (boolean value : new boolean[] { true, false }) {
+                    Assert.assertEquals("density: " + density + "; from: " + from + "; to: " + to + "; value: " + value,
+                            reference(array, from, to, value), indexOf(array, from, to, value));
+                }
+            }
+
+            for (boolean value : new boolean[] { true, false }) {
+                Assert.assertEquals(reference(array, 0, size, value), indexOf(array, 0, size, value));
+            }
+        }
+    }
+
+    @Test
+    public void indexOf_lastElement() throws Exception {
+        if (size == 0) {
+            return;
+        }
+
+        boolean[] array = new boolean[size];
+        Arrays.fill(array, true);
+        array[size - 1] = false;
+
+        Assert.assertEquals(size - 1, indexOf(array, 0, size, false));
+        Assert.assertEquals(-1, indexOf(array, 0, size - 1, false));
+        Assert.assertEquals(size > 1 ? 0 : -1, indexOf(array, 0, size, true));
+    }
+
+    @Test
+    public void indexOfNot() throws Exception {
+        Random random = new Random(size);
+
+        for (long value : new long[] { 0, -1L, 0x5555L }) {
+            for (int density : new int[] { 0, 1, 50, 100 }) {
+                long[] array = new long[size];
+
+                for (int i = 0; i < size; i++) {
+                    array[i] = random.nextInt(100) < density ? random.nextLong() : value;
+                }
+
+                for (int k = 0; k < 50; k++) {
+                    int from = size == 0 ? 0 : random.nextInt(size + 1);
+                    int to = from + random.nextInt(size - from + 1);
+
+                    Assert.assertEquals("value: " + value + "; density: " + density + "; from: " + from + "; to: " + to,
+                            reference(array, from, to, value), indexOfNot(array, from, to, value));
+                }
+
+                Assert.assertEquals(reference(array, 0, size, value), indexOfNot(array, 0, size, value));
+            }
+        }
+    }
+
+    private int indexOf(boolean[] array, int from, int to, boolean value) throws Exception {
+        return (Integer) invoke(indexOf, array, from, to, value);
+    }
+
+    private int indexOfNot(long[] array, int from, int to, long value) throws Exception {
+        return (Integer) invoke(indexOfNot, array, from, to, value);
+    }
+
+    private static Object invoke(Method method, Object... args) throws Exception {
+        try {
+            return method.invoke(null, args);
+        } catch (InvocationTargetException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+
+    private static int reference(boolean[] array, int from, int to, boolean value) {
+        for (int i = from; i < to; i++) {
+            if (array[i] == value) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static int reference(long[] array, int from, int to, long value) {
+        for (int i = from; i < to; i++) {
+            if (array[i] != value) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Defines ArrayScans from the versioned class file; all other classes are delegated to the parent class loader.
+     */
+    static class VersionedClassLoader extends ClassLoader {
+        VersionedClassLoader() {
+            super(ArrayScansTest.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(ArrayScans.class.getName())) {
+                return super.loadClass(name, resolve);
+            }
+
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> result = findLoadedClass(name);
+
+                if (result == null) {
+                    byte[] bytes = read(VERSIONED_CLASS);
+                    result = defineClass(name, bytes, 0, bytes.length);
+                }
+
+                return result;
+            }
+        }
+
+        private byte[] read(String resource) throws ClassNotFoundException {
+            try (InputStream in = getParent().getResourceAsStream(resource)) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+
+                for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                    out.write(buffer, 0, read);
+                }
+
+                return out.toByteArray();
+            } catch (IOException e) {
+                throw new ClassNotFoundException(resource, e);
+            }
+        }
+    }
+}
@@ -50,7 +50,8 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({BackingCollectionsTest.IndexedImmutableSet.RandomizedTestBig.class,
         BackingCollectionsTest.IndexedImmutableSet.ImmutableSetRandomizedTestSmall.class, BackingCollectionsTest.IndexedImmutableSet.ImmutableSetTest.class,
-BackingCollectionsTest.IndexedImmutableSet.ImmutableSetParameterizedTest.class})
+BackingCollectionsTest.IndexedImmutableSet.ImmutableSetParameterizedTest.class,
+        BackingCollectionsTest.IndexedImmutableSet.PerfectHashBackedSetTest.class})
 public class BackingCollectionsTest {
 
     public static class IndexedImmutableSet {
@@ -394,6 +395,41 @@ public class BackingCollectionsTest {
                 Assert.assertFalse(builder.contains("xyz"));
             }
 
+            @Test
+            public void ofIdentity() {
+                for (int size : Arrays.asList(1, 5, 8, 9, 100, 1000)) {
+                    List<String> elements = IntStream.range(0, size).mapToObj((i) -> "element_" + i).collect(Collectors.toList());
+                    BackingCollections.IndexedUnmodifiableSet<String> subject = BackingCollections.IndexedUnmodifiableSet
+                            .ofIdentity(new LinkedHashSet<>(elements));
+
+                    for (int i = 0; i < size; i++) {
+                        String element = elements.get(i);
+                        Assert.assertEquals(i, subject.elementToIndex(element));
+                        Assert.assertTrue(subject.contains(element));
+                        Assert.assertEquals(-1, subject.elementToIndex(new String(element)));
+                        Assert.assertFalse(subject.contains(new String(element)));
+                    }
+                }
+            }
+
+            @Test
+            public void ofIdentity_setBacked() {
+                // Used by ofIdentity() if no perfect hash function can be found
+                String[] elements = IntStream.range(0, 1000).mapToObj((i) -> "element_" + i).toArray(String[]::new);
+                BackingCollections.IndexedUnmodifiableSet<String> subject = BackingCollections.SetBackedSet.ofIdentity(elements);
+
+                Assert.assertEquals(elements.length, subject.size());
+
+                for (int i = 0; i < elements.length; i++) {
+                    String element = elements[i];
+                    Assert.assertEquals(i, subject.elementToIndex(element));
+                    Assert.assertSame(element, subject.indexToElement(i));
+                    Assert.assertTrue(subject.contains(element));
+                    Assert.assertEquals(-1, subject.elementToIndex(new String(element)));
+                    Assert.assertFalse(subject.contains(new String(element)));
+                }
+            }
+
             @Test
             public void builder_iterator_empty() {
                 BackingCollections.IndexedUnmodifiableSet.InternalBuilder<String> builder = BackingCollections.IndexedUnmodifiableSet.builder(10);
@@ -525,6 +561,106 @@ public class BackingCollectionsTest {
 
         }
 
+        public static class PerfectHashBackedSetTest {
+            @Test
+            public void elementToIndex_strings() {
+                for (int size : Arrays.asList(3, 10, 801, 5000, 100000)) {
+                    String[] flat = IntStream.range(0, size).mapToObj((i) -> "index_" + i).toArray(String[]::new);
+                    BackingCollections.PerfectHashBackedSet<String> subject = BackingCollections.PerfectHashBackedSet.build(flat);
+
+                    Assert.assertNotNull("Could not build perfect hash for size " + size, subject);
+                    Assert.assertEquals(size, subject.size());
+
+                    for (int i = 0; i < size; i++) {
+                        Assert.assertEquals(i, subject.elementToIndex("index_" + i));
+                        Assert.assertEquals("index_" + i, subject.indexToElement(i));
+                        Assert.assertEquals(-1, subject.elementToIndex("other_" + i));
+                    }
+                }
+            }
+
+            @Test
+            public void elementToIndex_integers() {
+                Random random = new Random(1);
+                LinkedHashSet<Integer> reference = new LinkedHashSet<>();
+
+                while (reference.size() < 20000) {
+                    reference.add(random.nextInt());
+                }
+
+                BackingCollections.PerfectHashBackedSet<Integer> subject = BackingCollections.PerfectHashBackedSet
+                        .build(reference.toArray(new Integer[0]));
+
+                Assert.assertNotNull(subject);
+                Assert.assertEquals(reference, subject);
+                Assert.assertEquals(new ArrayList<>(reference), new ArrayList<>(subject));
+
+                int i = 0;
+                for (Integer e : reference) {
+                    Assert.assertEquals(i, subject.elementToIndex(e));
+                    i++;
+                }
+
+                for (int k = 0; k < 1000; k++) {
+                    Integer e = random.nextInt();
+                    Assert.assertEquals(reference.contains(e), subject.contains(e));
+                }
+            }
+
+            @Test
+            public void build_hashCollision() {
+                // "Aa" and "BB" have the same hash code
+                String[] flat = IntStream.range(0, 1000).mapToObj((i) -> "e" + i).toArray(String[]::new);
+                flat[10] = "Aa";
+                flat[20] = "BB";
+
+                Assert.assertNotNull(BackingCollections.PerfectHashBackedSet.build(flat));
+
+                BackingCollections.IndexedUnmodifiableSet<String> subject = BackingCollections.IndexedUnmodifiableSet
+                        .of(new LinkedHashSet<>(Arrays.asList(flat)));
+
+                Assert.assertTrue(subject instanceof BackingCollections.PerfectHashBackedSet);
+                Assert.assertEquals(new HashSet<>(Arrays.asList(flat)), subject);
+                Assert.assertEquals(10, subject.elementToIndex("Aa"));
+                Assert.assertEquals(20, subject.elementToIndex("BB"));
+            }
+
+            @Test
+            public void build_manyHashCollisions() {
+                // "AaAa", "AaBB", "BBAa" and "BBBB" have the same hash code; the last one is left out and must be not found
+                String[] suffixes = { "AaAa", "AaBB", "BBAa" };
+                String[] flat = IntStream.range(0, 3000).mapToObj((i) -> "e" + (i / 3) + suffixes[i % 3]).toArray(String[]::new);
+                BackingCollections.PerfectHashBackedSet<String> subject = BackingCollections.PerfectHashBackedSet.build(flat);
+
+                Assert.assertNotNull(subject);
+
+                for (int i = 0; i < flat.length; i++) {
+                    Assert.assertEquals(i, subject.elementToIndex(flat[i]));
+                    Assert.assertEquals(i, subject.elementToIndex(new String(flat[i])));
+                }
+
+                for (int i = 0; i < 1000; i++) {
+                    Assert.assertEquals(-1, subject.elementToIndex("e" + i + "BBBB"));
+                    Assert.assertFalse(subject.contains("f" + i + "AaAa"));
+                }
+
+                BackingCollections.PerfectHashBackedSet<String> identitySubject = BackingCollections.PerfectHashBackedSet.build(flat, true);
+
+                Assert.assertEquals(2999, identitySubject.elementToIndex(flat[2999]));
+                Assert.assertEquals(-1, identitySubject.elementToIndex(new String(flat[2999])));
+            }
+
+            @Test(expected = IllegalArgumentException.class)
+            public void build_nullElement() {
+                BackingCollections.PerfectHashBackedSet.build(new String[] { "a", null, "c" });
+            }
+
+            @Test(expected = IllegalArgumentException.class)
+            public void elementToIndex_null() {
+                BackingCollections.PerfectHashBackedSet.build(new String[] { "a", "b", "c" }).elementToIndex(null);
+            }
+        }
+
         static String[] ipAddresses = createRandomIpAddresses(new Random(9));
         static String[] locationNames = createRandomLocationNames(new Random(2));
 
@@ -0,0 +1,261 @@
+/* 
+ * Copyright 2024 Nils Bandener
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.selectivem.check;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+@RunWith(Parameterized.class)
+public class BitStorageTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    final String type;
+    final int seed;
+    final int size;
+    final int segmentShift;
+
+    @Parameters(name = "{0}; {1}; size: {2}; segment shift: {3}")
+    public static Collection<Object[]> params() {
+        ArrayList<Object[]> result = new ArrayList<>();
+
+        for (int size : new int[] { 0, 1, 63, 64, 65, 200, 1000, 4097 }) {
+            for (int segmentShift : new int[] { 6, 7, 10, BitStorage.Segmented.DEFAULT_SEGMENT_SHIFT }) {
+                result.add(new Object[] { "segmented", size * 31 + segmentShift, size, segmentShift });
+            }
+        }
+
+        for (int size : new int[] { 0, 1, 63, 64, 65, 200, 1000, 4097, 65535, 65536, 65537, 200000 }) {
+            result.add(new Object[] { "sparse", size * 31, size, 0 });
+        }
+
+        for (int size : new int[] { 0, 1, 65, 4097 }) {
+            result.add(new Object[] { "mapped", size * 17, size, 0 });
+        }
+
+        for (int size : new int[] { 0, 1, 65, 4097 }) {
+            result.add(new Object[] { "direct", size * 13, size, 0 });
+        }
+
+        for (int size : new int[] { 0, 1, 63, 64, 65, 1000, 4097 }) {
+            result.add(new Object[] { "stamped", size * 11, size, 0 });
+        }
+
+        return result;
+    }
+
+    public BitStorageTest(String type, int seed, int size, int segmentShift) {
+        this.type = type;
+        this.seed = seed;
+        this.size = size;
+        this.segmentShift = segmentShift;
+    }
+
+    @Test
+    public void randomized() throws Exception {
+        Random random = new Random(seed);
+        BitStorage subject = createSubject();
+        BitSet reference = new BitSet(size);
+
+        Assert.assertEquals(size, subject.size());
+
+        if (size == 0) {
+            Assert.assertEquals(-1, subject.nextClear(0, 0));
+            Assert.assertEquals(-1, subject.nextSet(0, 0));
+            return;
+        }
+
+        // Spread over the whole storage
+        randomOperations(random, subject, reference, 2000, 0, size, 0.4f);
+
+        // Dense areas, in order to get over the thresholds of the sparse containers
+        int windowStart = random.nextInt(size);
+        int windowEnd = Math.min(size, windowStart + 6000);
+        randomOperations(random, subject, reference, 12000, windowStart, windowEnd, 0.85f);
+        randomOperations(random, subject, reference, 12000, windowStart, windowEnd, 0.1f);
+
+        // Nearly full areas
+        subject.setAll();
+        reference.set(0, size);
+        randomOperations(random, subject, reference, 6000, windowStart, windowEnd, 0.5f);
+        randomOperations(random, subject, reference, 12000, windowStart, windowEnd, 0.1f);
+        randomOperations(random, subject, reference, 12000, windowStart, windowEnd, 0.95f);
+    }
+
+    @Test
+    public void setAll() throws Exception {
+        BitStorage subject = createSubject();
+        subject.setAll();
+
+        Assert.assertEquals(-1, subject.nextClear(0, size));
+        Assert.assertEquals(size, subject.clearRange(0, size));
+        Assert.assertEquals(-1, subject.nextSet(0, size));
+    }
+
+    @Test
+    public void copy() throws Exception {
+        if (size == 0) {
+            return;
+        }
+
+        Random random = new Random(seed);
+        BitStorage subject = createSubject();
+        BitSet reference = new BitSet(size);
+
+        int windowStart = random.nextInt(size);
+        int windowEnd = Math.min(size, windowStart + 6000);
+        randomOperations(random, subject, reference, 2000, 0, size, 0.4f);
+        randomOperations(random, subject, reference, 12000, windowStart, windowEnd, 0.85f);
+
+        BitStorage copy = subject.copy();
+        BitSet copyReference = (BitSet) reference.clone();
+
+        Assert.assertEquals(size, copy.size());
+        Assert.assertEquals(reference.cardinality(), copy.cardinality());
+
+        randomOperations(random, copy, copyReference, 12000, windowStart, windowEnd, 0.1f);
+
+        for (int i = 0; i < size; i++) {
+            Assert.assertEquals("Bit " + i, reference.get(i), subject.get(i));
+        }
+    }
+
+    @Test
+    public void setMasked() throws Exception {
+        if (size == 0) {
+            return;
+        }
+
+        Random random = new Random(seed);
+        BitStorage subject = createSubject();
+        BitSet reference = new BitSet(size);
+
+        randomOperations(random, subject, reference, 2000, 0, size, 0.4f);
+
+        for (int round = 0; round < 200; round++) {
+            int from = random.nextInt(size);
+            int length = 1 + random.nextInt(Math.min(size - from, 300));
+            long[] mask = new long[(length + 63) >>> 6];
+            long[] newlySet = new long[mask.length];
+
+            for (int k = 0; k < length; k++) {
+                if (random.nextFloat() < 0.3f) {
+                    mask[k >>> 6] |= 1L << k;
+                }
+            }
+
+            subject.setMasked(from, mask, newlySet);
+
+            for (int k = 0; k < length; k++) {
+                boolean masked = (mask[k >>> 6] & (1L << k)) != 0;
+                boolean expectedNew = masked && !reference.get(from + k);
+
+                Assert.assertEquals("Bit " + (from + k), expectedNew, (newlySet[k >>> 6] & (1L << k)) != 0);
+
+                if (masked) {
+                    reference.set(from + k);
+                }
+            }
+        }
+
+        Assert.assertEquals(reference.cardinality(), subject.cardinality());
+
+        for (int i = 0; i < size; i++) {
+            Assert.assertEquals("Bit " + i, reference.get(i), subject.get(i));
+        }
+    }
+
+    private BitStorage createSubject() throws IOException {
+        if (type.equals("sparse")) {
+            return new BitStorage.Sparse(size);
+        } else if (type.equals("stamped")) {
+            return new BitStorage.Stamped(size);
+        } else if (type.equals("direct")) {
+            return new BitStorage.Direct(size);
+        } else if (type.equals("mapped")) {
+            return new BitStorage.Mapped(FileChannel.open(folder.newFile().toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE), 16,
+                    size);
+        } else {
+            return new BitStorage.Segmented(size, segmentShift);
+        }
+    }
+
+    private void randomOperations(Random random, BitStorage subject, BitSet reference, int rounds, int windowStart, int windowEnd,
+            float setProbability) {
+        int windowSize = windowEnd - windowStart;
+
+        for (int round = 0; round < rounds; round++) {
+            float op = random.nextFloat();
+            int i = windowStart + random.nextInt(windowSize);
+
+            if (op < setProbability) {
+                Assert.assertEquals(!reference.get(i), subject.set(i));
+                reference.set(i);
+            } else if (op < 0.995f) {
+                Assert.assertEquals(reference.get(i), subject.clear(i));
+                reference.clear(i);
+            } else if (op < 0.998f) {
+                int to = i + random.nextInt(windowEnd - i + 1);
+                Assert.assertEquals(reference.get(i, to).cardinality(), subject.clearRange(i, to));
+                reference.clear(i, to);
+            } else if (op < 0.999f) {
+                subject.setAll();
+                reference.set(0, size);
+            } else {
+                subject.clearAll();
+                reference.clear();
+            }
+
+            int to = i + random.nextInt(size - i + 1);
+            Assert.assertEquals(nextSet(reference, i, to), subject.nextSet(i, to));
+            Assert.assertEquals(nextClear(reference, i, to), subject.nextClear(i, to));
+            Assert.assertEquals(reference.get(i), subject.get(i));
+        }
+
+        for (int i = 0; i < size; i++) {
+            Assert.assertEquals("Bit " + i, reference.get(i), subject.get(i));
+        }
+
+        Assert.assertEquals(nextSet(reference, 0, size), subject.nextSet(0, size));
+        Assert.assertEquals(nextClear(reference, 0, size), subject.nextClear(0, size));
+    }
+
+    private static long nextSet(BitSet bitSet, int from, int to) {
+        int result = bitSet.nextSetBit(from);
+        return result != -1 && result < to ? result : -1;
+    }
+
+    private static long nextClear(BitSet bitSet, int from, int to) {
+        int result = bitSet.nextClearBit(from);
+        return result < to ? result : -1;
+    }
+}
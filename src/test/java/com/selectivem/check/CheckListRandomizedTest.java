@@ -63,6 +63,10 @@ public class CheckListRandomizedTest {
             for (int seed = 100; seed < 1000; seed++) {
                 result.add(new Params(size, seed));
             }
+
+            for (int seed = 100; seed < 130; seed++) {
+                result.add(new Params(size, seed, "off_heap"));
+            }
         }
 
         return result;
@@ -75,7 +79,7 @@ public class CheckListRandomizedTest {
         List<String> elementsList = new ArrayList<>(elements);
         Collections.shuffle(elementsList, random);
 
-        CheckList<String> subject = CheckList.create(elements);
+        CheckList<String> subject = createSubject(elements);
         Set<String> reference = new HashSet<>();
 
         for (int i = 0; i < Math.min(100, elementsList.size()); i++) {
@@ -190,7 +194,7 @@ public class CheckListRandomizedTest {
         List<String> elementsList = new ArrayList<>(elements);
         Collections.shuffle(elementsList, random);
 
-        CheckList<String> subject = CheckList.create(elements);
+        CheckList<String> subject = createSubject(elements);
 
         subject.checkIf(e -> e.contains("7"));
         Set<String> expected = elements.stream().filter(e -> e.contains("7")).collect(Collectors.toSet());
@@ -201,6 +205,7 @@ public class CheckListRandomizedTest {
         expected.removeAll(elements.stream().filter(e -> e.contains("9")).collect(Collectors.toSet()));
 
         Assert.assertEquals(expected, subject.getCheckedElements());
+        assertFingerprint(expected, subject);
 
         for (int i = 0; i <= 9; i++) {
             String s = i + "";
@@ -213,8 +218,24 @@ public class CheckListRandomizedTest {
 
         subject.uncheckAll();
         Assert.assertEquals(Collections.emptySet(), subject.getCheckedElements());
+        Assert.assertEquals(0, subject.stateFingerprint());
         subject.checkAll();
         Assert.assertEquals(elements, subject.getCheckedElements());
+        assertFingerprint(elements, subject);
+    }
+
+    private void assertFingerprint(Set<String> expectedCheckedElements, CheckList<String> subject) {
+        CheckList<String> rebuilt = createSubject(subject.getElements());
+        expectedCheckedElements.forEach(rebuilt::check);
+        Assert.assertEquals(rebuilt.stateFingerprint(), subject.stateFingerprint());
+    }
+
+    private CheckList<String> createSubject(Set<String> elements) {
+        if ("off_heap".equals(params.implementation)) {
+            return CheckList.createOffHeap(elements);
+        } else {
+            return CheckList.create(elements);
+        }
     }
 
     static Set<String> createElements(Params params, Random random) {
@@ -236,15 +257,21 @@ public class CheckListRandomizedTest {
     static class Params {
         final int size;
         final int seed;
+        final String implementation;
 
         Params(int size, int seed) {
+            this(size, seed, null);
+        }
+
+        Params(int size, int seed, String implementation) {
             this.size = size;
             this.seed = seed;
+            this.implementation = implementation;
         }
 
         @Override
         public String toString() {
-            return size + "/" + seed;
+            return size + "/" + seed + (implementation != null ? "/" + implementation : "");
         }
     }
 }
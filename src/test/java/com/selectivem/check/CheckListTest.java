@@ -245,6 +245,155 @@ public class CheckListTest {
         Assert.assertEquals(elements, subject.getElements());
     }
 
+    @Test
+    public void create_indexer() {
+        String[] elementArray = elements.toArray(new String[0]);
+        List<String> elementList = Arrays.asList(elementArray);
+        CheckList<String> subject = CheckList.create(elementArray, elementList::indexOf);
+
+        Assert.assertEquals(elements, subject.getElements());
+
+        for (String e : elements) {
+            Assert.assertFalse(subject.isChecked(e));
+            subject.check(e);
+            Assert.assertTrue(subject.isChecked(e));
+        }
+
+        Assert.assertTrue(subject.isComplete());
+        Assert.assertEquals(elements, subject.getCheckedElements());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void create_indexer_unknown() {
+        String[] elementArray = elements.toArray(new String[0]);
+        CheckList<String> subject = CheckList.create(elementArray, Arrays.asList(elementArray)::indexOf);
+        subject.check("xxx");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void create_indexer_otherType() {
+        Object[] elementArray = { "a", "b", "c" };
+        CheckList<Object> subject = CheckList.create(elementArray, (e) -> ((String) e).charAt(0) - 'a');
+        subject.check(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void create_indexer_null() {
+        String[] elementArray = { "a", null, "c" };
+        CheckList.create(elementArray, Arrays.asList(elementArray)::indexOf);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void create_indexer_duplicate() {
+        String[] elementArray = { "a", "b", "a" };
+        CheckList.create(elementArray, Arrays.asList(elementArray)::indexOf);
+    }
+
+    @Test
+    public void createIdentityBased() {
+        CheckList<String> subject = CheckList.createIdentityBased(elements);
+
+        for (String e : elements) {
+            Assert.assertFalse(subject.isChecked(e));
+            subject.check(e);
+            Assert.assertTrue(subject.isChecked(e));
+        }
+
+        Assert.assertTrue(subject.isComplete());
+        Assert.assertEquals(elements, subject.getCheckedElements());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void createIdentityBased_nonCanonical() {
+        CheckList<String> subject = CheckList.createIdentityBased(elements);
+        subject.check(new String(oneElement));
+    }
+
+
+    @Test
+    public void createOffHeap() {
+        CloseableCheckList<String> subject = CheckList.createOffHeap(elements);
+
+        for (String element : elements) {
+            Assert.assertFalse(subject.isChecked(element));
+            subject.check(element);
+            Assert.assertTrue(subject.isChecked(element));
+        }
+
+        Assert.assertTrue(subject.isComplete());
+        Assert.assertEquals(elements, subject.getCheckedElements());
+
+        subject.close();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void createOffHeap_closed() {
+        CloseableCheckList<String> subject = CheckList.createOffHeap(elements);
+        subject.close();
+        subject.check(elements.iterator().next());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void createOffHeap_closed_isBlank() {
+        CloseableCheckList<String> subject = CheckList.createOffHeap(elements);
+        subject.close();
+        subject.close();
+        subject.isBlank();
+    }
+
+    @Test
+    public void copy() {
+        subject.check(oneElement);
+
+        CheckList<String> copy = subject.copy();
+        Assert.assertTrue(copy.isChecked(oneElement));
+        Assert.assertEquals(subject.getCheckedElements(), copy.getCheckedElements());
+
+        copy.checkAll();
+        Assert.assertTrue(copy.isComplete());
+        Assert.assertEquals(count == 1, subject.isComplete());
+
+        subject.uncheck(oneElement);
+        Assert.assertTrue(subject.isBlank());
+        Assert.assertTrue(copy.isChecked(oneElement));
+    }
+
+    @Test
+    public void copy_offHeap() {
+        CheckList<String> copy;
+
+        try (CloseableCheckList<String> subject = CheckList.createOffHeap(elements)) {
+            subject.check(oneElement);
+            copy = subject.copy();
+        }
+
+        Assert.assertTrue(copy.isChecked(oneElement));
+        Assert.assertEquals(count == 1, copy.isComplete());
+        copy.uncheck(oneElement);
+        Assert.assertTrue(copy.isBlank());
+    }
+
+    @Test
+    public void fork() {
+        subject.check(oneElement);
+
+        CheckList<String> fork = subject.fork();
+        Assert.assertTrue(fork.isChecked(oneElement));
+
+        fork.uncheck(oneElement);
+        Assert.assertTrue(fork.isBlank());
+        Assert.assertTrue(subject.isChecked(oneElement));
+
+        CheckList<String> secondFork = subject.fork();
+        subject.uncheckAll();
+        Assert.assertTrue(subject.isBlank());
+        Assert.assertTrue(secondFork.isChecked(oneElement));
+
+        secondFork.checkIf((e) -> true);
+        Assert.assertTrue(secondFork.isComplete());
+        Assert.assertTrue(subject.isBlank());
+        Assert.assertTrue(fork.isBlank());
+    }
 
     @Parameterized.Parameters(name = "{0}")
     public static Collection<Object[]> params() {
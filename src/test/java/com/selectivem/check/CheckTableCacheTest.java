@@ -0,0 +1,210 @@
+/* 
+ * Copyright 2024 Nils Bandener
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.selectivem.check;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CheckTableCacheTest {
+    static final Set<String> ROWS = new HashSet<>(Arrays.asList("r1", "r2", "r3"));
+    static final Set<String> COLUMNS = new HashSet<>(Arrays.asList("c1", "c2", "c3", "c4"));
+
+    final Object universe = new Object();
+    final AtomicInteger evaluations = new AtomicInteger();
+
+    @Test
+    public void get() {
+        CheckTableCache<String, String> cache = CheckTableCache.create(10);
+
+        FrozenCheckTable<String, String> table = cache.get(universe, 1, ROWS, COLUMNS, this::evaluate);
+        Assert.assertEquals(1, evaluations.get());
+        Assert.assertEquals(CheckTableTest.setOf("r1"), table.getCompleteRows());
+        Assert.assertTrue(table.isChecked("r2", "c1"));
+
+        FrozenCheckTable<String, String> table2 = cache.get(universe, 1, new HashSet<>(ROWS), new HashSet<>(COLUMNS), this::evaluate);
+        Assert.assertSame(table, table2);
+        Assert.assertEquals(1, evaluations.get());
+
+        Assert.assertEquals(1, cache.hitCount());
+        Assert.assertEquals(1, cache.missCount());
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void get_differentKeys() {
+        CheckTableCache<String, String> cache = CheckTableCache.create(10);
+
+        FrozenCheckTable<String, String> table = cache.get(universe, 1, ROWS, COLUMNS, this::evaluate);
+        Assert.assertNotSame(table, cache.get(universe, 2, ROWS, COLUMNS, this::evaluate));
+        Assert.assertNotSame(table, cache.get(new Object(), 1, ROWS, COLUMNS, this::evaluate));
+        Assert.assertNotSame(table, cache.get(universe, 1, CheckTableTest.setOf("r1", "r2"), COLUMNS, this::evaluate));
+        Assert.assertNotSame(table, cache.get(universe, 1, ROWS, CheckTableTest.setOf("c1"), this::evaluate));
+
+        Assert.assertEquals(5, evaluations.get());
+        Assert.assertEquals(0, cache.hitCount());
+        Assert.assertEquals(5, cache.missCount());
+        Assert.assertEquals(5, cache.size());
+    }
+
+    @Test
+    public void get_callerModifiesSets() {
+        CheckTableCache<String, String> cache = CheckTableCache.create(10);
+        Set<String> rows = new HashSet<>(ROWS);
+
+        FrozenCheckTable<String, String> table = cache.get(universe, 1, rows, COLUMNS, this::evaluate);
+        rows.add("r4");
+
+        Assert.assertSame(table, cache.get(universe, 1, ROWS, COLUMNS, this::evaluate));
+        Assert.assertEquals(1, evaluations.get());
+    }
+
+    @Test
+    public void eviction() {
+        CheckTableCache<String, String> cache = CheckTableCache.create(2);
+
+        FrozenCheckTable<String, String> table1 = cache.get(universe, 1, ROWS, COLUMNS, this::evaluate);
+        FrozenCheckTable<String, String> table2 = cache.get(universe, 2, ROWS, COLUMNS, this::evaluate);
+
+        // Makes version 2 the least recently used entry
+        Assert.assertSame(table1, cache.get(universe, 1, ROWS, COLUMNS, this::evaluate));
+
+        cache.get(universe, 3, ROWS, COLUMNS, this::evaluate);
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.evictionCount());
+
+        Assert.assertSame(table1, cache.get(universe, 1, ROWS, COLUMNS, this::evaluate));
+        Assert.assertNotSame(table2, cache.get(universe, 2, ROWS, COLUMNS, this::evaluate));
+        Assert.assertEquals(4, evaluations.get());
+        Assert.assertEquals(2, cache.evictionCount());
+    }
+
+    @Test
+    public void eviction_keepsUsedEntries() {
+        CheckTableCache<String, String> cache = CheckTableCache.create(100);
+        List<FrozenCheckTable<String, String>> tables = new ArrayList<>();
+
+        for (int version = 0; version < 100; version++) {
+            tables.add(cache.get(universe, version, ROWS, COLUMNS, this::evaluate));
+        }
+
+        for (int version = 0; version < 50; version++) {
+            Assert.assertSame(tables.get(version), cache.get(universe, version, ROWS, COLUMNS, this::evaluate));
+        }
+
+        for (int version = 100; version < 150; version++) {
+            cache.get(universe, version, ROWS, COLUMNS, this::evaluate);
+        }
+
+        Assert.assertEquals(100, cache.size());
+        Assert.assertEquals(50, cache.evictionCount());
+
+        // Only the entries which were not used after their insertion have been evicted
+        for (int version = 0; version < 50; version++) {
+            Assert.assertSame(tables.get(version), cache.get(universe, version, ROWS, COLUMNS, this::evaluate));
+        }
+
+        Assert.assertEquals(150, evaluations.get());
+    }
+
+    @Test
+    public void clear() {
+        CheckTableCache<String, String> cache = CheckTableCache.create(2);
+
+        cache.get(universe, 1, ROWS, COLUMNS, this::evaluate);
+        cache.clear();
+        Assert.assertEquals(0, cache.size());
+
+        cache.get(universe, 1, ROWS, COLUMNS, this::evaluate);
+        Assert.assertEquals(2, evaluations.get());
+        Assert.assertEquals(2, cache.missCount());
+    }
+
+    @Test
+    public void get_concurrent() throws Exception {
+        CheckTableCache<String, String> cache = CheckTableCache.create(8);
+        int threads = 4;
+        int rounds = 20000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        try {
+            for (int t = 0; t < threads; t++) {
+                int seed = t;
+
+                futures.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    start.await();
+
+                    for (int i = 0; i < rounds; i++) {
+                        // 12 keys for 8 slots, the first ones being much more frequent
+                        int version = Math.min(random.nextInt(16), random.nextInt(16)) % 12;
+                        FrozenCheckTable<String, String> table = cache.get(universe, version, ROWS, COLUMNS,
+                                (subject) -> subject.check("r3", "c" + (1 + version % 4)));
+
+                        Assert.assertEquals(CheckTableTest.setOf("c" + (1 + version % 4)), table.getCheckedColumns("r3"));
+                    }
+
+                    return null;
+                }));
+            }
+
+            start.countDown();
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertEquals(threads * rounds, cache.hitCount() + cache.missCount());
+        Assert.assertTrue(cache.hitCount() > cache.missCount());
+        Assert.assertTrue(cache.size() <= 8);
+        Assert.assertTrue(cache.evictionCount() <= cache.missCount() - cache.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void create_invalidMaxSize() {
+        CheckTableCache.create(0);
+    }
+
+    private void evaluate(CheckTable<String, String> table) {
+        evaluations.incrementAndGet();
+
+        if (table.getRows().contains("r1")) {
+            table.checkIf("r1", (c) -> true);
+        }
+
+        if (table.getRows().contains("r2")) {
+            table.check("r2", "c1");
+        }
+    }
+}
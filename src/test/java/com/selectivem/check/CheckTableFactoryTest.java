@@ -0,0 +1,151 @@
+/*
+ * Copyright 2024 Nils Bandener
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.selectivem.check;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the selection of the implementation by the factory methods which are not covered by the parameterized CheckTableTest.
+ */
+public class CheckTableFactoryTest {
+    /**
+     * 65536 x 32769 cells are more than Integer.MAX_VALUE cells.
+     */
+    static final int LARGE_ROW_COUNT = 65536;
+    static final int LARGE_COLUMN_COUNT = 32769;
+
+    @Test
+    public void createIdentityBased_large() {
+        String[] rows = elements("r", LARGE_ROW_COUNT);
+        String[] columns = elements("c", LARGE_COLUMN_COUNT);
+        CheckTable<String, String> subject = CheckTable.createIdentityBased(new LinkedHashSet<>(Arrays.asList(rows)),
+                new LinkedHashSet<>(Arrays.asList(columns)));
+
+        Assert.assertTrue(subject.getClass().toString(), subject instanceof CheckTableImpl.BitStorageCheckTable);
+        assertCellsDistinct(subject, rows, columns);
+
+        try {
+            subject.isChecked(new String(rows[rows.length - 1]), columns[0]);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // Only the canonical instances are known to an identity based check table
+        }
+    }
+
+    @Test
+    public void create_indexer_large() {
+        Integer[] rows = ordinals(LARGE_ROW_COUNT);
+        Integer[] columns = ordinals(LARGE_COLUMN_COUNT);
+        CheckTable<Integer, Integer> subject = CheckTable.create(rows, (r) -> r, columns, (c) -> c);
+
+        Assert.assertTrue(subject.getClass().toString(), subject instanceof CheckTableImpl.BitStorageCheckTable);
+        assertCellsDistinct(subject, rows, columns);
+    }
+
+    @Test
+    public void create_indexer_singleRow() {
+        Integer[] columns = ordinals(10);
+        CheckTable<Integer, Integer> subject = CheckTable.create(ordinals(1), (r) -> r, columns, (c) -> c);
+
+        Assert.assertTrue(subject.getClass().toString(), subject instanceof CheckTableImpl.SingleRowCheckTable);
+        Assert.assertEquals(CheckTableTest.setOf(0), subject.getRows());
+        Assert.assertEquals(new LinkedHashSet<>(Arrays.asList(columns)), subject.getColumns());
+
+        Assert.assertFalse(subject.check(0, 9));
+        Assert.assertTrue(subject.isChecked(0, 9));
+        Assert.assertTrue(subject.checkIf(0, (c) -> true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void create_indexer_singleRow_unknownColumn() {
+        CheckTable<Integer, Integer> subject = CheckTable.create(ordinals(1), (r) -> r, ordinals(10), (c) -> c);
+        subject.check(0, 10);
+    }
+
+    @Test
+    public void create_indexer_singleColumn() {
+        Integer[] rows = ordinals(10);
+        CheckTable<Integer, Integer> subject = CheckTable.create(rows, (r) -> r, ordinals(1), (c) -> c);
+
+        Assert.assertTrue(subject.getClass().toString(), subject instanceof CheckTableImpl.SingleColumnCheckTable);
+        Assert.assertEquals(new LinkedHashSet<>(Arrays.asList(rows)), subject.getRows());
+        Assert.assertEquals(CheckTableTest.setOf(0), subject.getColumns());
+
+        Assert.assertFalse(subject.check(9, 0));
+        Assert.assertTrue(subject.isChecked(9, 0));
+        Assert.assertEquals(CheckTableTest.setOf(9), subject.getCompleteRows());
+    }
+
+    @Test
+    public void create_indexer_singleCell() {
+        CheckTable<Integer, Integer> subject = CheckTable.create(ordinals(1), (r) -> r, ordinals(1), (c) -> c);
+
+        Assert.assertTrue(subject.getClass().toString(), subject instanceof CheckTableImpl.SingleCellCheckTable);
+        Assert.assertTrue(subject.check(0, 0));
+        Assert.assertTrue(subject.isComplete());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void arrayCheckTable_tooLarge() {
+        BackingCollections.IndexedUnmodifiableSet<String> rows = BackingCollections.IndexedUnmodifiableSet
+                .of(new LinkedHashSet<>(Arrays.asList(elements("r", LARGE_ROW_COUNT))));
+        BackingCollections.IndexedUnmodifiableSet<String> columns = BackingCollections.IndexedUnmodifiableSet
+                .of(new LinkedHashSet<>(Arrays.asList(elements("c", LARGE_COLUMN_COUNT))));
+
+        new CheckTableImpl.ArrayCheckTable<>(rows, columns);
+    }
+
+    /**
+     * Checks cells whose indices would collide if the cell index was computed with int arithmetic.
+     */
+    static <R, C> void assertCellsDistinct(CheckTable<R, C> subject, R[] rows, C[] columns) {
+        R lastRow = rows[rows.length - 1];
+        C lastColumn = columns[columns.length - 1];
+
+        Assert.assertFalse(subject.check(lastRow, lastColumn));
+        Assert.assertTrue(subject.isChecked(lastRow, lastColumn));
+        Assert.assertFalse(subject.isChecked(lastRow, columns[0]));
+        Assert.assertFalse(subject.isChecked(rows[0], columns[0]));
+        Assert.assertEquals(CheckTableTest.setOf(lastRow), subject.getCheckedRows(lastColumn));
+    }
+
+    static Integer[] ordinals(int count) {
+        Integer[] result = new Integer[count];
+
+        for (int i = 0; i < count; i++) {
+            result[i] = i;
+        }
+
+        return result;
+    }
+
+    static String[] elements(String prefix, int count) {
+        String[] result = new String[count];
+
+        for (int i = 0; i < count; i++) {
+            result[i] = prefix + i;
+        }
+
+        return result;
+    }
+}
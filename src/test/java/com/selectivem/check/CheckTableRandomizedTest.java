@@ -57,30 +57,43 @@ public class CheckTableRandomizedTest {
 
     int rowCount;
     int columnCount;
+    String implementation;
 
-    @Parameters(name = "{0}; {1}x{2}")
+    @Parameters(name = "{0}; {1}x{2}; {3}")
     public static Collection<Object[]> seeds() {
         ArrayList<Object[]> result = new ArrayList<>();
         Random random = new Random(1);
 
         for (int i = 101; i < 111; i++) {
-            result.add(new Object[] { i, 1, 1 });
+            result.add(new Object[] { i, 1, 1, "default" });
         }
 
         for (int i = 101; i < 111; i++) {
-            result.add(new Object[] { i, 1, 2 });
+            result.add(new Object[] { i, 1, 2, "default" });
         }
 
         for (int i = 101; i < 111; i++) {
-            result.add(new Object[] { i, 2, 1 });
+            result.add(new Object[] { i, 2, 1, "default" });
         }
 
         for (int i = 101; i < 111; i++) {
-            result.add(new Object[] { i, 2, 2 });
+            result.add(new Object[] { i, 2, 2, "default" });
         }
 
         for (int i = 111; i <= 222; i++) {
-            result.add(new Object[] { i, randomSize(random), randomSize(random) });
+            result.add(new Object[] { i, randomSize(random), randomSize(random), "default" });
+        }
+
+        for (int i = 301; i <= 320; i++) {
+            result.add(new Object[] { i, randomSize(random), randomSize(random), "bit_storage" });
+        }
+
+        for (int i = 401; i <= 420; i++) {
+            result.add(new Object[] { i, randomSize(random), randomSize(random), "sparse" });
+        }
+
+        for (int i = 501; i <= 510; i++) {
+            result.add(new Object[] { i, randomSize(random), randomSize(random), "off_heap" });
         }
 
         return result;
@@ -97,7 +110,7 @@ public class CheckTableRandomizedTest {
         List<String> columnsList = new ArrayList<>(columns);
         Collections.shuffle(columnsList, random);
 
-        CheckTable<Integer, String> subject = CheckTable.create(rows, columns);
+        CheckTable<Integer, String> subject = createSubject(rows, columns);
 
         Map<String, Set<Integer>> referenceCR = new HashMap<>();
         Map<Integer, Set<String>> referenceRC = new HashMap<>();
@@ -243,6 +256,31 @@ public class CheckTableRandomizedTest {
             Assert.assertEquals(referenceRC.get(row), subject.getCheckedColumns(row));
         }
 
+        {
+            Predicate<Integer> rowPredicate = (r) -> r % 7 == 0;
+            Predicate<String> columnPredicate = (c) -> c.hashCode() % 3 == 0;
+            boolean complete = subject.checkIf(rowPredicate, columnPredicate);
+
+            for (Integer row : rows) {
+                if (rowPredicate.test(row)) {
+                    for (String column : columns) {
+                        if (columnPredicate.test(column) && referenceRC.computeIfAbsent(row, (key) -> new HashSet<>()).add(column)) {
+                            referenceCR.computeIfAbsent(column, (key) -> new HashSet<>()).add(row);
+                            checkCount++;
+                        }
+                    }
+                }
+            }
+
+            Assert.assertEquals(checkCount == totalCount, complete);
+            Assert.assertEquals(checkCount == totalCount, subject.isComplete());
+
+            for (int i = 0; i < Math.min(50, rowsList.size()); i++) {
+                Integer row = rowsList.get(i);
+                Assert.assertEquals(referenceRC.getOrDefault(row, Collections.emptySet()), subject.getCheckedColumns(row));
+            }
+        }
+
         Collections.shuffle(columnsList, random);
 
         for (int i = 0; i < Math.min(50, columnsList.size()); i++) {
@@ -276,12 +314,34 @@ public class CheckTableRandomizedTest {
 
             Assert.assertEquals(referenceRC.get(row), subject.getCheckedColumns(row));
         }
+
+        CheckTable<Integer, String> rebuilt = createSubject(rows, columns);
+        referenceRC.forEach((row, checkedColumns) -> checkedColumns.forEach((column) -> rebuilt.check(row, column)));
+        Assert.assertEquals(rebuilt.stateFingerprint(), subject.stateFingerprint());
+        Assert.assertEquals(checkCount == 0, subject.stateFingerprint() == 0);
     }
 
-    public CheckTableRandomizedTest(Integer seed, int rowCount, int columnCount) {
+    public CheckTableRandomizedTest(Integer seed, int rowCount, int columnCount, String implementation) {
         this.seed = seed;
         this.rowCount = rowCount;
         this.columnCount = columnCount;
+        this.implementation = implementation;
+    }
+
+    private CheckTable<Integer, String> createSubject(Set<Integer> rows, Set<String> columns) {
+        if ("bit_storage".equals(implementation)) {
+            // Use small segments in order to have cells spread over several segments
+            return new CheckTableImpl.BitStorageCheckTable<>(BackingCollections.IndexedUnmodifiableSet.of(rows),
+                    BackingCollections.IndexedUnmodifiableSet.of(columns),
+                    new BitStorage.Segmented((long) rows.size() * (long) columns.size(), 6));
+        } else if ("off_heap".equals(implementation)) {
+            return CheckTable.createOffHeap(rows, columns);
+        } else if ("sparse".equals(implementation)) {
+            return new CheckTableImpl.BitStorageCheckTable<>(BackingCollections.IndexedUnmodifiableSet.of(rows),
+                    BackingCollections.IndexedUnmodifiableSet.of(columns), new BitStorage.Sparse((long) rows.size() * (long) columns.size()));
+        } else {
+            return CheckTable.create(rows, columns);
+        }
     }
 
     private static Set<String> createStringElements(Random random, int size) {
@@ -219,6 +219,169 @@ public class CheckTableTest {
         subject.checkIf(123, (i) -> i.equals("a"));
     }
 
+    @Test
+    public void checkIf_rowAndColumn() {
+        assertCheckIfRowAndColumn(subject);
+    }
+
+    @Test
+    public void checkIf_rowAndColumn_bitStorage() {
+        assertCheckIfRowAndColumn(new CheckTableImpl.BitStorageCheckTable<>(BackingCollections.IndexedUnmodifiableSet.of(rows),
+                BackingCollections.IndexedUnmodifiableSet.of(columns)));
+    }
+
+    @Test
+    public void checkIf_rowAndColumn_noop() {
+        subject.checkIf(rows, (i) -> true);
+        Assert.assertTrue(subject.checkIf((r) -> {
+            Assert.fail();
+            return false;
+        }, (c) -> {
+            Assert.fail();
+            return false;
+        }));
+    }
+
+    @Test
+    public void row_check() {
+        assertRowCheck(subject);
+    }
+
+    @Test
+    public void row_check_bitStorage() {
+        assertRowCheck(new CheckTableImpl.BitStorageCheckTable<>(BackingCollections.IndexedUnmodifiableSet.of(rows),
+                BackingCollections.IndexedUnmodifiableSet.of(columns)));
+    }
+
+    @Test
+    public void row_checkIf() {
+        assertRowCheckIf(subject);
+    }
+
+    @Test
+    public void row_checkIf_bitStorage() {
+        assertRowCheckIf(new CheckTableImpl.BitStorageCheckTable<>(BackingCollections.IndexedUnmodifiableSet.of(rows),
+                BackingCollections.IndexedUnmodifiableSet.of(columns)));
+    }
+
+    @Test
+    public void row_reflectsTableChanges() {
+        Integer row = rows.iterator().next();
+        String column = columns.iterator().next();
+        CheckTable.Row<Integer, String> handle = subject.row(row);
+
+        Assert.assertEquals(row, handle.getRow());
+
+        subject.check(row, column);
+        Assert.assertTrue(handle.isChecked(column));
+
+        CheckTable<Integer, String> fork = subject.fork();
+        subject.uncheckAll();
+        Assert.assertFalse(handle.isChecked(column));
+        Assert.assertTrue(fork.isChecked(row, column));
+
+        handle.checkIf((c) -> true);
+        Assert.assertTrue(handle.isComplete());
+        Assert.assertEquals(columns, subject.getCheckedColumns(row));
+        Assert.assertEquals(setOf(column), fork.getCheckedColumns(row));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void row_illegalArgument_row() {
+        subject.row(99);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void row_check_illegalArgument_column() {
+        subject.row(1).check("abc");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void row_isChecked_illegalArgument_column() {
+        subject.row(1).isChecked("abc");
+    }
+
+    private void assertCheckIfRowAndColumn(CheckTable<Integer, String> subject) {
+        CheckTable<Integer, String> reference = subject.copy();
+        Map<Object, Integer> evaluations = new HashMap<>();
+
+        subject.check(1, "a");
+        reference.check(1, "a");
+
+        boolean result = subject.checkIf((r) -> {
+            evaluations.merge(r, 1, Integer::sum);
+            return r != 2;
+        }, (c) -> {
+            evaluations.merge(c, 1, Integer::sum);
+            return !c.equals("b");
+        });
+
+        for (Integer row : rows) {
+            for (String column : columns) {
+                boolean expected = row != 2 && !column.equals("b");
+                Assert.assertEquals(row + "/" + column, expected, subject.isChecked(row, column));
+
+                if (expected) {
+                    reference.check(row, column);
+                }
+            }
+        }
+
+        for (Integer count : evaluations.values()) {
+            Assert.assertEquals(evaluations.toString(), 1, (int) count);
+        }
+
+        Assert.assertEquals(reference.isComplete(), result);
+        Assert.assertEquals(reference.isComplete(), subject.isComplete());
+        Assert.assertEquals(reference.stateFingerprint(), subject.stateFingerprint());
+
+        Assert.assertTrue(subject.checkIf((r) -> true, (c) -> true));
+        Assert.assertTrue(subject.isComplete());
+    }
+
+    private void assertRowCheck(CheckTable<Integer, String> subject) {
+        CheckTable<Integer, String> reference = subject.copy();
+        int checkedCount = 0;
+
+        for (Integer row : rows) {
+            CheckTable.Row<Integer, String> handle = subject.row(row);
+
+            for (String column : columns) {
+                checkedCount++;
+
+                Assert.assertFalse(handle.isComplete());
+                Assert.assertEquals(checkedCount == count, handle.check(column));
+                Assert.assertTrue(handle.isChecked(column));
+                Assert.assertTrue(subject.isChecked(row, column));
+
+                reference.check(row, column);
+                Assert.assertEquals(reference.stateFingerprint(), subject.stateFingerprint());
+            }
+
+            Assert.assertTrue(handle.isComplete());
+            Assert.assertEquals(subject.isComplete(), handle.check(columns.iterator().next()));
+        }
+
+        Assert.assertTrue(subject.isComplete());
+    }
+
+    private void assertRowCheckIf(CheckTable<Integer, String> subject) {
+        CheckTable.Row<Integer, String> handle = subject.row(1);
+
+        handle.checkIf((c) -> c.equals("a"));
+
+        for (String column : columns) {
+            Assert.assertEquals(column.equals("a"), handle.isChecked(column));
+            Assert.assertEquals(column.equals("a"), subject.isChecked(1, column));
+        }
+
+        Assert.assertEquals(columns.size() == 1, handle.isComplete());
+        Assert.assertEquals(rows.size() == 1, handle.checkIf((c) -> true));
+        Assert.assertTrue(handle.isComplete());
+        Assert.assertEquals(columns, subject.getCheckedColumns(1));
+        Assert.assertEquals(setOf(1), subject.getCompleteRows());
+    }
+
     @Test
     public void uncheckIf_row() {
         subject.checkIf(rows, (i) -> true);
@@ -556,6 +719,299 @@ public class CheckTableTest {
         Assert.assertEquals(setOf(column), subject.getColumns());
     }
 
+    @Test
+    public void create_indexer() {
+        // rows are the numbers 1 to n
+        Integer[] rowArray = rows.stream().sorted().toArray(Integer[]::new);
+        String[] columnArray = columns.toArray(new String[0]);
+        CheckTable<Integer, String> subject = CheckTable.create(rowArray, (r) -> r - 1, columnArray, Arrays.asList(columnArray)::indexOf);
+
+        Assert.assertEquals(rows, subject.getRows());
+        Assert.assertEquals(columns, subject.getColumns());
+
+        subject.checkIf(rows, (c) -> someColumns.contains(c));
+        Assert.assertEquals(someColumns, subject.getCheckedColumns(rows.iterator().next()));
+
+        subject.checkIf(rows, (c) -> true);
+        Assert.assertTrue(subject.isComplete());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void create_indexer_unknownRow() {
+        Integer[] rowArray = rows.stream().sorted().toArray(Integer[]::new);
+        String[] columnArray = columns.toArray(new String[0]);
+        CheckTable<Integer, String> subject = CheckTable.create(rowArray, (r) -> r - 1, columnArray, Arrays.asList(columnArray)::indexOf);
+        subject.check(99, "a");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void create_indexer_wrongOrdinal() {
+        Integer[] rowArray = rows.stream().sorted().toArray(Integer[]::new);
+        String[] columnArray = columns.toArray(new String[0]);
+        CheckTable.create(rowArray, (r) -> r, columnArray, Arrays.asList(columnArray)::indexOf);
+    }
+
+    @Test
+    public void createIdentityBased() {
+        CheckTable<Integer, String> subject = CheckTable.createIdentityBased(rows, columns);
+
+        for (Integer row : rows) {
+            for (String column : columns) {
+                Assert.assertFalse(subject.isChecked(row, column));
+                subject.check(row, column);
+                Assert.assertTrue(subject.isChecked(row, column));
+            }
+        }
+
+        Assert.assertTrue(subject.isComplete());
+        Assert.assertEquals(rows, subject.getCompleteRows());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void createIdentityBased_nonCanonical() {
+        CheckTable<Integer, String> subject = CheckTable.createIdentityBased(rows, columns);
+        subject.check(rows.iterator().next(), new String(columns.iterator().next()));
+    }
+
+    @Test
+    public void createOffHeap() {
+        try (CloseableCheckTable<Integer, String> subject = CheckTable.createOffHeap(rows, columns)) {
+            for (Integer row : rows) {
+                for (String column : columns) {
+                    Assert.assertFalse(subject.isChecked(row, column));
+                    subject.check(row, column);
+                    Assert.assertTrue(subject.isChecked(row, column));
+                }
+            }
+
+            Assert.assertTrue(subject.isComplete());
+            Assert.assertEquals(rows, subject.getCompleteRows());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void createOffHeap_closed() {
+        CloseableCheckTable<Integer, String> subject = CheckTable.createOffHeap(rows, columns);
+        subject.close();
+        subject.check(rows.iterator().next(), columns.iterator().next());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void createOffHeap_closed_isComplete() {
+        CloseableCheckTable<Integer, String> subject = CheckTable.createOffHeap(rows, columns);
+        subject.close();
+        subject.close();
+        subject.isComplete();
+    }
+
+    @Test
+    public void copy() {
+        Integer row = rows.iterator().next();
+        String column = columns.iterator().next();
+
+        subject.check(row, column);
+
+        CheckTable<Integer, String> copy = subject.copy();
+        Assert.assertTrue(copy.isChecked(row, column));
+        Assert.assertEquals(subject.getCompleteRows(), copy.getCompleteRows());
+
+        copy.checkIf(rows, (r) -> true);
+        Assert.assertTrue(copy.isComplete());
+        Assert.assertEquals(count == 1, subject.isComplete());
+
+        subject.uncheck(row, column);
+        Assert.assertTrue(subject.isBlank());
+        Assert.assertTrue(copy.isChecked(row, column));
+    }
+
+    @Test
+    public void copy_offHeap() {
+        Integer row = rows.iterator().next();
+        String column = columns.iterator().next();
+        CheckTable<Integer, String> copy;
+
+        try (CloseableCheckTable<Integer, String> subject = CheckTable.createOffHeap(rows, columns)) {
+            subject.check(row, column);
+            copy = subject.copy();
+        }
+
+        Assert.assertTrue(copy.isChecked(row, column));
+        Assert.assertEquals(count == 1, copy.isComplete());
+        copy.uncheckAll();
+        Assert.assertTrue(copy.isBlank());
+    }
+
+    @Test
+    public void fork() {
+        Integer row = rows.iterator().next();
+        String column = columns.iterator().next();
+
+        subject.check(row, column);
+
+        CheckTable<Integer, String> fork = subject.fork();
+        Assert.assertTrue(fork.isChecked(row, column));
+
+        fork.uncheck(row, column);
+        Assert.assertTrue(fork.isBlank());
+        Assert.assertTrue(subject.isChecked(row, column));
+
+        CheckTable<Integer, String> secondFork = subject.fork();
+        subject.uncheckAll();
+        Assert.assertTrue(subject.isBlank());
+        Assert.assertTrue(secondFork.isChecked(row, column));
+
+        secondFork.checkIf(rows, (r) -> true);
+        Assert.assertTrue(secondFork.isComplete());
+        Assert.assertTrue(subject.isBlank());
+        Assert.assertTrue(fork.isBlank());
+    }
+
+    @Test
+    public void freeze() {
+        Integer row = rows.iterator().next();
+        String column = columns.iterator().next();
+
+        subject.checkIf(someRows, (c) -> true);
+        subject.check(row, column);
+
+        Set<Integer> completeRows = new HashSet<>(subject.getCompleteRows());
+        Set<String> completeColumns = new HashSet<>(subject.getCompleteColumns());
+        Set<Integer> incompleteRows = new HashSet<>(subject.getIncompleteRows());
+        Set<String> incompleteColumns = new HashSet<>(subject.getIncompleteColumns());
+
+        FrozenCheckTable<Integer, String> frozen = subject.freeze();
+        Assert.assertSame(frozen, frozen.freeze());
+
+        subject.uncheckAll();
+        Assert.assertTrue(subject.isBlank());
+
+        Assert.assertTrue(frozen.isChecked(row, column));
+        Assert.assertFalse(frozen.isBlank());
+        Assert.assertEquals(completeRows, frozen.getCompleteRows());
+        Assert.assertEquals(completeColumns, frozen.getCompleteColumns());
+        Assert.assertEquals(incompleteRows, frozen.getIncompleteRows());
+        Assert.assertEquals(incompleteColumns, frozen.getIncompleteColumns());
+        Assert.assertEquals(completeRows.size() == rows.size(), frozen.isComplete());
+
+        for (Integer r : rows) {
+            Assert.assertEquals(completeRows.contains(r), frozen.isRowComplete(r));
+            Assert.assertEquals(!completeRows.contains(r), frozen.isRowIncomplete(r));
+        }
+
+        for (String c : columns) {
+            Assert.assertEquals(completeColumns.contains(c), frozen.isColumnComplete(c));
+        }
+
+        CheckTable<Integer, String> copy = frozen.fork();
+        copy.uncheck(row, column);
+        Assert.assertFalse(copy.isChecked(row, column));
+        Assert.assertTrue(frozen.isChecked(row, column));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void freeze_check() {
+        subject.freeze().check(rows.iterator().next(), columns.iterator().next());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void freeze_uncheckAll() {
+        subject.freeze().uncheckAll();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void freeze_isRowComplete_illegalArgument() {
+        subject.freeze().isRowComplete(999);
+    }
+
+    @Test
+    public void create_expectedDensity() {
+        CheckTable<Integer, String> subject = CheckTable.create(rows, columns, 0.01);
+
+        for (Integer row : rows) {
+            for (String column : columns) {
+                Assert.assertFalse(subject.isChecked(row, column));
+                subject.check(row, column);
+                Assert.assertTrue(subject.isChecked(row, column));
+            }
+        }
+
+        Assert.assertTrue(subject.isComplete());
+        Assert.assertEquals(rows, subject.getCompleteRows());
+    }
+
+    @Test
+    public void create_expectedDensity_sparse() {
+        Set<Integer> rows = new HashSet<>();
+        Set<String> columns = new HashSet<>(this.columns);
+
+        for (int i = 0; i < 100000; i++) {
+            rows.add(i);
+        }
+
+        CheckTable<Integer, String> subject = CheckTable.create(rows, columns, 0.001);
+
+        if (columns.size() > 1) {
+            Assert.assertTrue(subject.getClass().toString(), subject instanceof CheckTableImpl.BitStorageCheckTable);
+        }
+
+        String column = columns.iterator().next();
+        subject.check(7, column);
+        subject.checkIf(99999, (c) -> true);
+
+        Assert.assertTrue(subject.isChecked(7, column));
+        Assert.assertFalse(subject.isChecked(8, column));
+        Assert.assertEquals(columns.size() == 1 ? setOf(7, 99999) : setOf(99999), subject.getCompleteRows());
+        Assert.assertEquals(columns, subject.getCheckedColumns(99999));
+        Assert.assertEquals(setOf(7, 99999), subject.getCheckedRows(column));
+        Assert.assertEquals(rows.size() - subject.getCompleteRows().size(), subject.getIncompleteRows().size());
+    }
+
+    @Test
+    public void create_expectedDensity_dense() {
+        Set<Integer> rows = new HashSet<>();
+        Set<String> columns = new HashSet<>(this.columns);
+
+        for (int i = 0; i < 100000; i++) {
+            rows.add(i);
+        }
+
+        CheckTable<Integer, String> subject = CheckTable.create(rows, columns, 0.999);
+
+        if (columns.size() > 1) {
+            Assert.assertTrue(subject.getClass().toString(), subject instanceof CheckTableImpl.BitStorageCheckTable);
+        }
+
+        String column = columns.iterator().next();
+
+        for (Integer row : rows) {
+            if (row != 7 && row != 70000) {
+                subject.checkIf(row, (c) -> true);
+            } else {
+                subject.checkIf(row, (c) -> !c.equals(column));
+            }
+        }
+
+        Assert.assertFalse(subject.isComplete());
+        Assert.assertEquals(setOf(7, 70000), subject.getIncompleteRows());
+        Assert.assertEquals(setOf(column), subject.getIncompleteColumns());
+
+        List<String> uncheckedColumns = new ArrayList<>();
+        subject.iterateUncheckedColumns(70000).forEach(uncheckedColumns::add);
+        Assert.assertEquals(Arrays.asList(column), uncheckedColumns);
+
+        subject.uncheckRow(42);
+        Assert.assertEquals(setOf(7, 42, 70000), subject.getIncompleteRows());
+
+        subject.check(7, column);
+        subject.checkIf(42, (c) -> true);
+        Assert.assertTrue(subject.check(70000, column));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void create_expectedDensity_invalid() {
+        CheckTable.create(rows, columns, 1.5);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void createEmpty_rows() {
         CheckTable.create(setOf(), columns);
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2024 Nils Bandener
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.selectivem.check;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DirectBitStorageTest {
+
+    @Test
+    public void close_freesMemory() {
+        long size = 64L * 1024 * 1024;
+        BitStorage.Direct subject = new BitStorage.Direct(size);
+        subject.set(size - 1);
+        long usedBeforeClose = directMemoryUsed();
+
+        subject.close();
+
+        Assert.assertTrue(subject.isClosed());
+        Assert.assertTrue(directMemoryUsed() <= usedBeforeClose - size / 8);
+
+        // A second close() is a no-op
+        subject.close();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void close_access() {
+        BitStorage.Direct subject = new BitStorage.Direct(100);
+        subject.close();
+        subject.get(1);
+    }
+
+    private static long directMemoryUsed() {
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (pool.getName().equals("direct")) {
+                return pool.getMemoryUsed();
+            }
+        }
+
+        throw new IllegalStateException("No direct buffer pool");
+    }
+}
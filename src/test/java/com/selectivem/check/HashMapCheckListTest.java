@@ -0,0 +1,57 @@
+/*
+ * Copyright 2024 Nils Bandener
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.selectivem.check;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HashMapCheckListTest {
+
+    @Test
+    public void stateFingerprint_equalHashCodes() {
+        // "Aa" and "BB" have the same hash code
+        Set<String> elements = new HashSet<>();
+
+        for (int i = 0; i < 1000; i++) {
+            elements.add("element_" + i);
+        }
+
+        elements.add("Aa");
+        elements.add("BB");
+
+        CheckList<String> subject = CheckList.create(elements);
+        Assert.assertTrue(subject instanceof CheckListImpl.HashMapCheckList);
+
+        subject.check("Aa");
+        long fingerprintA = subject.stateFingerprint();
+        subject.uncheck("Aa");
+        subject.check("BB");
+        long fingerprintB = subject.stateFingerprint();
+        subject.check("Aa");
+        long fingerprintAB = subject.stateFingerprint();
+
+        Assert.assertNotEquals(0, fingerprintA);
+        Assert.assertNotEquals(0, fingerprintB);
+        Assert.assertNotEquals(0, fingerprintAB);
+        Assert.assertNotEquals(fingerprintA, fingerprintB);
+        Assert.assertEquals(fingerprintAB, subject.copy().stateFingerprint());
+    }
+}
@@ -0,0 +1,150 @@
+/* 
+ * Copyright 2024 Nils Bandener
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.selectivem.check;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PersistentCheckTableTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    static final Set<String> ROWS = new LinkedHashSet<>(Arrays.asList("index_a", "index_b", "index_c", "index_d"));
+    static final Set<Integer> COLUMNS = new LinkedHashSet<>(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18,
+            19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32, 33, 34, 35, 36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46, 47, 48, 49, 50,
+            51, 52, 53, 54, 55, 56, 57, 58, 59, 60, 61, 62, 63, 64, 65, 66));
+
+    @Test
+    public void reopen() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("progress");
+
+        try (PersistentCheckTable<String, Integer> subject = PersistentCheckTable.open(file, ROWS, COLUMNS)) {
+            Assert.assertTrue(subject.isBlank());
+
+            subject.check("index_a", 3);
+            subject.checkIf("index_c", (c) -> true);
+            subject.force();
+        }
+
+        try (PersistentCheckTable<String, Integer> subject = PersistentCheckTable.open(file, ROWS, COLUMNS)) {
+            Assert.assertTrue(subject.isChecked("index_a", 3));
+            Assert.assertFalse(subject.isChecked("index_a", 4));
+            Assert.assertEquals(CheckTableTest.setOf("index_c"), subject.getCompleteRows());
+            Assert.assertEquals(CheckTableTest.setOf(3), subject.getCheckedColumns("index_a"));
+
+            subject.checkIf("index_a", (c) -> true);
+            subject.checkIf("index_b", (c) -> true);
+        }
+
+        try (PersistentCheckTable<String, Integer> subject = PersistentCheckTable.open(file, ROWS, COLUMNS)) {
+            Assert.assertEquals(CheckTableTest.setOf("index_d"), subject.getIncompleteRows());
+            Assert.assertTrue(subject.checkIf("index_d", (c) -> true));
+            Assert.assertTrue(subject.isComplete());
+
+            subject.uncheckAll();
+        }
+
+        try (PersistentCheckTable<String, Integer> subject = PersistentCheckTable.open(file, ROWS, COLUMNS)) {
+            Assert.assertTrue(subject.isBlank());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void open_otherRows() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("progress");
+
+        try (PersistentCheckTable<String, Integer> subject = PersistentCheckTable.open(file, ROWS, COLUMNS)) {
+            subject.check("index_a", 3);
+        }
+
+        Set<String> otherRows = new LinkedHashSet<>(ROWS);
+        otherRows.remove("index_a");
+        otherRows.add("index_e");
+
+        PersistentCheckTable.open(file, otherRows, COLUMNS).close();
+    }
+
+    @Test(expected = IOException.class)
+    public void open_otherFile() throws Exception {
+        Path file = folder.newFile().toPath();
+        Files.write(file, "this is not a check table".getBytes());
+
+        PersistentCheckTable.open(file, ROWS, COLUMNS).close();
+    }
+
+    @Test
+    public void open_alreadyOpened() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("progress");
+
+        try (PersistentCheckTable<String, Integer> subject = PersistentCheckTable.open(file, ROWS, COLUMNS)) {
+            subject.check("index_a", 3);
+
+            try {
+                PersistentCheckTable.open(file, ROWS, COLUMNS).close();
+                Assert.fail();
+            } catch (IOException e) {
+                Assert.assertTrue(e.getMessage(), e.getMessage().contains("already opened"));
+            }
+
+            Assert.assertTrue(subject.isChecked("index_a", 3));
+        }
+
+        try (PersistentCheckTable<String, Integer> subject = PersistentCheckTable.open(file, ROWS, COLUMNS)) {
+            Assert.assertTrue(subject.isChecked("index_a", 3));
+        }
+    }
+
+    @Test
+    public void close_access() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("progress");
+        PersistentCheckTable<String, Integer> subject = PersistentCheckTable.open(file, ROWS, COLUMNS);
+        subject.check("index_a", 3);
+        subject.close();
+        subject.close();
+
+        try {
+            subject.check("index_a", 4);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("The check table has been already closed", e.getMessage());
+        }
+
+        try {
+            subject.force();
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("The check table has been already closed", e.getMessage());
+        }
+
+        try (PersistentCheckTable<String, Integer> reopened = PersistentCheckTable.open(file, ROWS, COLUMNS)) {
+            Assert.assertEquals(CheckTableTest.setOf(3), reopened.getCheckedColumns("index_a"));
+        }
+    }
+
+}
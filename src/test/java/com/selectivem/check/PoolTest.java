@@ -0,0 +1,268 @@
+/* 
+ * Copyright 2024 Nils Bandener
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.selectivem.check;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PoolTest {
+    static final Set<String> ROWS = new HashSet<>(Arrays.asList("r1", "r2", "r3"));
+    static final Set<String> COLUMNS = new HashSet<>(Arrays.asList("c1", "c2", "c3", "c4"));
+
+    @Test
+    public void checkTablePool() {
+        CheckTablePool<String, String> pool = CheckTablePool.create(ROWS, COLUMNS, 2);
+
+        CloseableCheckTable<String, String> table = pool.acquire();
+        Assert.assertTrue(table.isBlank());
+        Assert.assertEquals(ROWS, table.getRows());
+        table.check("r1", "c1");
+        table.checkIf("r2", (c) -> true);
+        table.close();
+
+        Assert.assertEquals(1, ((CheckTableImpl.CheckTablePoolImpl<String, String>) pool).idleCount());
+
+        CloseableCheckTable<String, String> table2 = pool.acquire();
+        Assert.assertEquals(0, ((CheckTableImpl.CheckTablePoolImpl<String, String>) pool).idleCount());
+        Assert.assertTrue(table2.isBlank());
+        Assert.assertFalse(table2.isChecked("r1", "c1"));
+        Assert.assertEquals(ROWS, table2.getIncompleteRows());
+        table2.close();
+    }
+
+    @Test
+    public void checkTablePool_maxIdle() {
+        CheckTablePool<String, String> pool = CheckTablePool.create(ROWS, COLUMNS, 2);
+
+        List<CloseableCheckTable<String, String>> tables = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            tables.add(pool.acquire());
+        }
+
+        Assert.assertEquals(3, new HashSet<>(tables).size());
+        tables.forEach(CloseableCheckTable::close);
+
+        Assert.assertEquals(2, ((CheckTableImpl.CheckTablePoolImpl<String, String>) pool).idleCount());
+
+        pool.acquire();
+        pool.acquire();
+        Assert.assertEquals(0, ((CheckTableImpl.CheckTablePoolImpl<String, String>) pool).idleCount());
+        Assert.assertTrue(pool.acquire().isBlank());
+    }
+
+    @Test
+    public void checkTablePool_closeTwice() {
+        CheckTablePool<String, String> pool = CheckTablePool.create(ROWS, COLUMNS, 2);
+
+        CloseableCheckTable<String, String> table = pool.acquire();
+        table.close();
+        table.close();
+
+        Assert.assertEquals(1, ((CheckTableImpl.CheckTablePoolImpl<String, String>) pool).idleCount());
+    }
+
+    @Test
+    public void checkTablePool_staleClose() {
+        CheckTablePool<String, String> pool = CheckTablePool.create(ROWS, COLUMNS, 2);
+
+        CloseableCheckTable<String, String> table = pool.acquire();
+        table.close();
+
+        CloseableCheckTable<String, String> table2 = pool.acquire();
+        table2.check("r3", "c4");
+
+        // Must neither reset table2 nor put it back into the pool
+        table.close();
+
+        Assert.assertTrue(table2.isChecked("r3", "c4"));
+        Assert.assertEquals(0, ((CheckTableImpl.CheckTablePoolImpl<String, String>) pool).idleCount());
+
+        CloseableCheckTable<String, String> table3 = pool.acquire();
+        table3.check("r1", "c1");
+        Assert.assertFalse(table2.isChecked("r1", "c1"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void checkTablePool_useAfterClose() {
+        CheckTablePool<String, String> pool = CheckTablePool.create(ROWS, COLUMNS, 2);
+
+        CloseableCheckTable<String, String> table = pool.acquire();
+        table.close();
+        pool.acquire();
+
+        table.check("r1", "c1");
+    }
+
+    @Test
+    public void checkTablePool_staleRowHandle() {
+        CheckTablePool<String, String> pool = CheckTablePool.create(ROWS, COLUMNS, 2);
+
+        CloseableCheckTable<String, String> table = pool.acquire();
+        CheckTable.Row<String, String> row = table.row("r1");
+        Assert.assertFalse(row.check("c2"));
+        table.close();
+
+        CloseableCheckTable<String, String> table2 = pool.acquire();
+
+        assertClosed(() -> row.check("c1"));
+        assertClosed(() -> row.checkIf((c) -> true));
+        assertClosed(() -> row.isChecked("c1"));
+        assertClosed(() -> row.isComplete());
+
+        Assert.assertTrue(table2.isBlank());
+        table2.close();
+    }
+
+    @Test
+    public void checkTablePool_staleIterable() {
+        CheckTablePool<String, String> pool = CheckTablePool.create(ROWS, COLUMNS, 2);
+
+        CloseableCheckTable<String, String> table = pool.acquire();
+        table.check("r1", "c1");
+        Iterable<String> checkedColumns = table.iterateCheckedColumns("r1");
+        Iterable<String> uncheckedRows = table.iterateUncheckedRows("c2");
+        Iterator<String> checkedRows = table.iterateCheckedRows("c1").iterator();
+        table.close();
+
+        CloseableCheckTable<String, String> table2 = pool.acquire();
+        table2.checkIf("r1", (c) -> true);
+
+        assertClosed(() -> checkedColumns.iterator());
+        assertClosed(() -> uncheckedRows.forEach((r) -> Assert.fail("Must not see the state of another owner")));
+        assertClosed(() -> checkedRows.hasNext());
+        assertClosed(() -> checkedRows.next());
+
+        Assert.assertEquals(COLUMNS, table2.getCheckedColumns("r1"));
+        table2.close();
+    }
+
+    @Test
+    public void checkTablePool_concurrent() throws Exception {
+        CheckTablePool<String, String> pool = CheckTablePool.create(ROWS, COLUMNS, 4);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10000; i++) {
+                        try (CloseableCheckTable<String, String> table = pool.acquire()) {
+                            Assert.assertTrue(table.isBlank());
+                            table.check("r1", "c2");
+                            Assert.assertTrue(table.isChecked("r1", "c2"));
+                            table.checkIf("r3", (c) -> true);
+                            Assert.assertEquals(6, table.getCheckedRows("c2").size() + table.getCheckedColumns("r3").size());
+                        }
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void checkListPool() {
+        CheckListPool<String> pool = CheckListPool.create(COLUMNS, 2);
+
+        CloseableCheckList<String> list = pool.acquire();
+        Assert.assertTrue(list.isBlank());
+        Assert.assertEquals(COLUMNS, list.getElements());
+        list.check("c1");
+        list.close();
+
+        CloseableCheckList<String> list2 = pool.acquire();
+        Assert.assertEquals(0, ((CheckListImpl.CheckListPoolImpl<String>) pool).idleCount());
+        Assert.assertTrue(list2.isBlank());
+        Assert.assertFalse(list2.isChecked("c1"));
+        Assert.assertTrue(list2.checkIf((e) -> true));
+        list2.close();
+
+        Assert.assertTrue(pool.acquire().isBlank());
+    }
+
+    @Test
+    public void checkListPool_staleClose() {
+        CheckListPool<String> pool = CheckListPool.create(COLUMNS, 2);
+
+        CloseableCheckList<String> list = pool.acquire();
+        list.close();
+
+        CloseableCheckList<String> list2 = pool.acquire();
+        list2.check("c2");
+        list.close();
+
+        Assert.assertTrue(list2.isChecked("c2"));
+        Assert.assertEquals(0, ((CheckListImpl.CheckListPoolImpl<String>) pool).idleCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void checkListPool_useAfterClose() {
+        CheckListPool<String> pool = CheckListPool.create(COLUMNS, 2);
+
+        CloseableCheckList<String> list = pool.acquire();
+        list.close();
+
+        list.isBlank();
+    }
+
+    @Test
+    public void checkListPool_staleIterable() {
+        CheckListPool<String> pool = CheckListPool.create(COLUMNS, 2);
+
+        CloseableCheckList<String> list = pool.acquire();
+        list.check("c1");
+        Iterable<String> checked = list.iterateCheckedElements();
+        Iterator<String> unchecked = list.iterateUncheckedElements().iterator();
+        list.close();
+
+        CloseableCheckList<String> list2 = pool.acquire();
+        list2.check("c2");
+
+        assertClosed(() -> checked.iterator());
+        assertClosed(() -> unchecked.hasNext());
+        assertClosed(() -> unchecked.next());
+        list2.close();
+    }
+
+    private static void assertClosed(Runnable runnable) {
+        try {
+            runnable.run();
+            Assert.fail("IllegalStateException expected");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/* 
+ * Copyright 2024 Nils Bandener
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package com.selectivem.check;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SpeculativeCheckTableTest {
+
+    @Test
+    public void rollbackTo() {
+        SpeculativeCheckTable<Integer, String> subject = SpeculativeCheckTable.create(CheckTableTest.setOf(1, 2, 3),
+                CheckTableTest.setOf("a", "b"));
+
+        subject.check(1, "a");
+        long fingerprint = subject.stateFingerprint();
+        SpeculativeCheckTable.Savepoint savepoint = subject.savepoint();
+
+        subject.checkIf(2, (c) -> true);
+        subject.uncheck(1, "a");
+        Assert.assertEquals(CheckTableTest.setOf(2), subject.getCompleteRows());
+
+        subject.rollbackTo(savepoint);
+        Assert.assertTrue(subject.isChecked(1, "a"));
+        Assert.assertEquals(CheckTableTest.setOf(1), subject.getCheckedRows("a"));
+        Assert.assertEquals(CheckTableTest.setOf(), subject.getCompleteRows());
+
+        // The savepoint stays valid after a rollback
+        subject.checkIf((r) -> true, "b");
+        subject.checkIf((r) -> true, "a");
+        Assert.assertTrue(subject.isComplete());
+
+        Assert.assertNotEquals(fingerprint, subject.stateFingerprint());
+
+        subject.rollbackTo(savepoint);
+        Assert.assertEquals(fingerprint, subject.stateFingerprint());
+        Assert.assertFalse(subject.isComplete());
+        Assert.assertEquals(CheckTableTest.setOf(1), subject.getCheckedRows("a"));
+        Assert.assertEquals(CheckTableTest.setOf(), subject.getCheckedRows("b"));
+    }
+
+    @Test
+    public void releaseSavepoint() {
+        SpeculativeCheckTable<Integer, String> subject = SpeculativeCheckTable.create(CheckTableTest.setOf(1, 2, 3),
+                CheckTableTest.setOf("a", "b"));
+
+        SpeculativeCheckTable.Savepoint outer = subject.savepoint();
+        subject.check(1, "a");
+        SpeculativeCheckTable.Savepoint inner = subject.savepoint();
+        subject.check(2, "a");
+        subject.releaseSavepoint(inner);
+
+        Assert.assertTrue(subject.isChecked(2, "a"));
+
+        subject.rollbackTo(outer);
+        Assert.assertTrue(subject.isBlank());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rollbackTo_discarded() {
+        SpeculativeCheckTable<Integer, String> subject = SpeculativeCheckTable.create(CheckTableTest.setOf(1, 2, 3),
+                CheckTableTest.setOf("a", "b"));
+
+        SpeculativeCheckTable.Savepoint outer = subject.savepoint();
+        SpeculativeCheckTable.Savepoint inner = subject.savepoint();
+        subject.rollbackTo(outer);
+        subject.rollbackTo(inner);
+    }
+
+    @Test
+    public void randomized() {
+        Random random = new Random(1);
+        Set<Integer> rows = new HashSet<>();
+        Set<String> columns = new HashSet<>();
+
+        for (int i = 0; i < 70; i++) {
+            rows.add(i);
+        }
+
+        for (int i = 0; i < 90; i++) {
+            columns.add("c" + i);
+        }
+
+        List<Integer> rowList = new ArrayList<>(rows);
+        List<String> columnList = new ArrayList<>(columns);
+
+        SpeculativeCheckTable<Integer, String> subject = SpeculativeCheckTable.create(rows, columns);
+        Set<String> reference = new HashSet<>();
+
+        List<SpeculativeCheckTable.Savepoint> savepoints = new ArrayList<>();
+        List<Set<String>> savedReferences = new ArrayList<>();
+
+        for (int round = 0; round < 5000; round++) {
+            int op = random.nextInt(100);
+            Integer row = rowList.get(random.nextInt(rowList.size()));
+            String column = columnList.get(random.nextInt(columnList.size()));
+
+            if (op < 50) {
+                subject.check(row, column);
+                reference.add(row + "/" + column);
+            } else if (op < 75) {
+                subject.uncheck(row, column);
+                reference.remove(row + "/" + column);
+            } else if (op < 78) {
+                subject.checkIf(row, (c) -> true);
+                columns.forEach((c) -> reference.add(row + "/" + c));
+            } else if (op < 80) {
+                subject.uncheckRow(row);
+                columns.forEach((c) -> reference.remove(row + "/" + c));
+            } else if (op < 81) {
+                subject.uncheckAll();
+                reference.clear();
+            } else if (op < 88) {
+                savepoints.add(subject.savepoint());
+                savedReferences.add(new HashSet<>(reference));
+            } else if (op < 95 && !savepoints.isEmpty()) {
+                int i = random.nextInt(savepoints.size());
+                subject.rollbackTo(savepoints.get(i));
+                reference.clear();
+                reference.addAll(savedReferences.get(i));
+
+                while (savepoints.size() > i + 1) {
+                    savepoints.remove(savepoints.size() - 1);
+                    savedReferences.remove(savedReferences.size() - 1);
+                }
+            } else if (!savepoints.isEmpty()) {
+                int i = random.nextInt(savepoints.size());
+                subject.releaseSavepoint(savepoints.get(i));
+
+                while (savepoints.size() > i) {
+                    savepoints.remove(savepoints.size() - 1);
+                    savedReferences.remove(savedReferences.size() - 1);
+                }
+            }
+
+            Assert.assertEquals(reference.isEmpty(), subject.isBlank());
+            Assert.assertEquals(reference.contains(row + "/" + column), subject.isChecked(row, column));
+
+            Set<String> checkedColumns = new HashSet<>();
+            subject.getCheckedColumns(row).forEach((c) -> checkedColumns.add(row + "/" + c));
+            Set<String> expectedColumns = new HashSet<>();
+            reference.stream().filter((cell) -> cell.startsWith(row + "/")).forEach(expectedColumns::add);
+            Assert.assertEquals(expectedColumns, checkedColumns);
+        }
+    }
+}
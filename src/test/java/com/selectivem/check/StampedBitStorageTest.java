@@ -0,0 +1,41 @@
+/*
+ * Copyright 2024 Nils Bandener
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.selectivem.check;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StampedBitStorageTest {
+
+    @Test
+    public void generationOverflow() {
+        int size = 1000;
+        BitStorage.Stamped subject = new BitStorage.Stamped(size);
+        subject.set(3);
+        subject.generation = -1;
+        subject.set(99);
+        Assert.assertEquals(1, subject.cardinality());
+
+        subject.clearAll();
+
+        Assert.assertEquals(1, subject.generation);
+        Assert.assertFalse(subject.get(3));
+        Assert.assertFalse(subject.get(99));
+        Assert.assertEquals(-1, subject.nextSet(0, size));
+    }
+}